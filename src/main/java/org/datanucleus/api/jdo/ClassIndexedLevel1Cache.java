@@ -0,0 +1,137 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.cache.Level1Cache;
+import org.datanucleus.cache.StrongRefCache;
+import org.datanucleus.state.DNStateManager;
+
+/**
+ * Level 1 Cache using strong references (as "strong"), which additionally indexes the StateManagers by the class of
+ * their object. This allows operations scoped to particular classes (getManagedObjects(Class...), evictAll(Class)) to only
+ * visit the objects of those classes rather than the whole cache.
+ * Enabled by setting the persistence property "datanucleus.cache.level1.type" to "class-indexed".
+ */
+public class ClassIndexedLevel1Cache extends StrongRefCache
+{
+    /** StateManagers in the cache, keyed by the class of their object. */
+    private Map<Class, Set<DNStateManager>> stateManagersByClass = new HashMap<>();
+
+    /**
+     * Accessor for the class-indexed cache in use by the specified ExecutionContext.
+     * @param ec ExecutionContext
+     * @return The cache, or null if the ExecutionContext isn't using this type of cache
+     */
+    public static ClassIndexedLevel1Cache getCacheForExecutionContext(ExecutionContext ec)
+    {
+        Level1Cache l1Cache = ec.getLevel1Cache();
+        return l1Cache instanceof ClassIndexedLevel1Cache ? (ClassIndexedLevel1Cache) l1Cache : null;
+    }
+
+    @Override
+    public DNStateManager put(Object id, DNStateManager sm)
+    {
+        DNStateManager previous = super.put(id, sm);
+        if (previous != null && previous != sm)
+        {
+            unindex(previous);
+        }
+        if (sm != null)
+        {
+            Object pc = sm.getObject();
+            if (pc != null)
+            {
+                stateManagersByClass.computeIfAbsent(pc.getClass(), k -> new HashSet<>()).add(sm);
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public DNStateManager remove(Object id)
+    {
+        DNStateManager sm = super.remove(id);
+        if (sm != null)
+        {
+            unindex(sm);
+        }
+        return sm;
+    }
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+        stateManagersByClass.clear();
+    }
+
+    /**
+     * Accessor for the StateManagers in the cache for objects of the specified class.
+     * @param cls The class
+     * @param subclasses Whether to include objects of subclasses
+     * @return The StateManagers (a copy, so can be used while the cache is updated)
+     */
+    public List<DNStateManager> getStateManagersForClass(Class cls, boolean subclasses)
+    {
+        List<DNStateManager> sms = new ArrayList<>();
+        if (subclasses)
+        {
+            for (Map.Entry<Class, Set<DNStateManager>> entry : stateManagersByClass.entrySet())
+            {
+                if (cls.isAssignableFrom(entry.getKey()))
+                {
+                    sms.addAll(entry.getValue());
+                }
+            }
+        }
+        else
+        {
+            Set<DNStateManager> classSMs = stateManagersByClass.get(cls);
+            if (classSMs != null)
+            {
+                sms.addAll(classSMs);
+            }
+        }
+        return sms;
+    }
+
+    private void unindex(DNStateManager sm)
+    {
+        Object pc = sm.getObject();
+        if (pc != null)
+        {
+            Set<DNStateManager> classSMs = stateManagersByClass.get(pc.getClass());
+            if (classSMs != null)
+            {
+                classSMs.remove(sm);
+                if (classSMs.isEmpty())
+                {
+                    stateManagersByClass.remove(pc.getClass());
+                }
+            }
+        }
+    }
+}
@@ -19,6 +19,8 @@ package org.datanucleus.api.jdo;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.PersistenceManager;
@@ -81,8 +83,79 @@ public class DataNucleusHelperJDO
         return fpClass.getMemberNumbers();
     }
 
+    /** Converters from DataNucleus single-field identity to JDO SingleFieldIdentity, keyed by the DataNucleus identity class. */
+    private static final ClassValue<BiFunction<SingleFieldId, Class, SingleFieldIdentity>> JDO_IDENTITY_CONVERTERS =
+        new ClassValue<BiFunction<SingleFieldId, Class, SingleFieldIdentity>>()
+    {
+        @Override
+        protected BiFunction<SingleFieldId, Class, SingleFieldIdentity> computeValue(Class idType)
+        {
+            if (LongId.class.isAssignableFrom(idType))
+            {
+                return (dnid, targetClass) -> new LongIdentity(targetClass, ((LongId)dnid).getKey());
+            }
+            else if (IntId.class.isAssignableFrom(idType))
+            {
+                return (dnid, targetClass) -> new IntIdentity(targetClass, ((IntId)dnid).getKey());
+            }
+            else if (ShortId.class.isAssignableFrom(idType))
+            {
+                return (dnid, targetClass) -> new ShortIdentity(targetClass, ((ShortId)dnid).getKey());
+            }
+            else if (ByteId.class.isAssignableFrom(idType))
+            {
+                return (dnid, targetClass) -> new ByteIdentity(targetClass, ((ByteId)dnid).getKey());
+            }
+            else if (StringId.class.isAssignableFrom(idType))
+            {
+                return (dnid, targetClass) -> new StringIdentity(targetClass, ((StringId)dnid).getKey());
+            }
+            else if (CharId.class.isAssignableFrom(idType))
+            {
+                return (dnid, targetClass) -> new CharIdentity(targetClass, ((CharId)dnid).getKey());
+            }
+            return (dnid, targetClass) -> new ObjectIdentity(targetClass, dnid.getKeyAsObject());
+        }
+    };
+
+    /** Converters from JDO SingleFieldIdentity to DataNucleus single-field identity, keyed by the JDO identity class. */
+    private static final ClassValue<Function<SingleFieldIdentity, SingleFieldId>> DATANUCLEUS_IDENTITY_CONVERTERS =
+        new ClassValue<Function<SingleFieldIdentity, SingleFieldId>>()
+    {
+        @Override
+        protected Function<SingleFieldIdentity, SingleFieldId> computeValue(Class idType)
+        {
+            if (LongIdentity.class.isAssignableFrom(idType))
+            {
+                return sfid -> new LongId(sfid.getTargetClass(), ((LongIdentity)sfid).getKey());
+            }
+            else if (IntIdentity.class.isAssignableFrom(idType))
+            {
+                return sfid -> new IntId(sfid.getTargetClass(), ((IntIdentity)sfid).getKey());
+            }
+            else if (ShortIdentity.class.isAssignableFrom(idType))
+            {
+                return sfid -> new ShortId(sfid.getTargetClass(), ((ShortIdentity)sfid).getKey());
+            }
+            else if (ByteIdentity.class.isAssignableFrom(idType))
+            {
+                return sfid -> new ByteId(sfid.getTargetClass(), ((ByteIdentity)sfid).getKey());
+            }
+            else if (StringIdentity.class.isAssignableFrom(idType))
+            {
+                return sfid -> new StringId(sfid.getTargetClass(), ((StringIdentity)sfid).getKey());
+            }
+            else if (CharIdentity.class.isAssignableFrom(idType))
+            {
+                return sfid -> new CharId(sfid.getTargetClass(), ((CharIdentity)sfid).getKey());
+            }
+            return sfid -> new ObjectId(sfid.getTargetClass(), sfid.getKeyAsObject());
+        }
+    };
+
     /**
      * Method to convert a DataNucleus "identity" for a single-field application id type to the JDO provided SingleFieldIdentity type.
+     * The conversion for each identity type is looked up once and cached, and the key is passed across directly.
      * TODO The targetClass "name" is part of the dnid, so could minimise the input args possibly
      * @param dnid DataNucleus identity
      * @param targetClass The target class
@@ -90,60 +163,18 @@ public class DataNucleusHelperJDO
      */
     public static SingleFieldIdentity getSingleFieldIdentityForDataNucleusIdentity(SingleFieldId dnid, Class targetClass)
     {
-        if (dnid instanceof LongId)
-        {
-            return new LongIdentity(targetClass, dnid.toString());
-        }
-        else if (dnid instanceof IntId)
-        {
-            return new IntIdentity(targetClass, dnid.toString());
-        }
-        else if (dnid instanceof ShortId)
-        {
-            return new ShortIdentity(targetClass, dnid.toString());
-        }
-        else if (dnid instanceof ByteId)
-        {
-            return new ByteIdentity(targetClass, dnid.toString());
-        }
-        else if (dnid instanceof StringId)
-        {
-            return new StringIdentity(targetClass, dnid.toString());
-        }
-        else if (dnid instanceof CharId)
-        {
-            return new CharIdentity(targetClass, dnid.toString());
-        }
-        return new ObjectIdentity(targetClass, dnid.getKeyAsObject());
+        return JDO_IDENTITY_CONVERTERS.get(dnid.getClass()).apply(dnid, targetClass);
     }
 
+    /**
+     * Method to convert a JDO SingleFieldIdentity to the equivalent DataNucleus "identity" for a single-field application id type.
+     * The conversion for each identity type is looked up once and cached, and the key is passed across directly.
+     * @param sfid JDO SingleFieldIdentity
+     * @return The DataNucleus identity
+     */
     public static SingleFieldId getDataNucleusIdentityForSingleFieldIdentity(SingleFieldIdentity sfid)
     {
-        if (sfid instanceof javax.jdo.identity.LongIdentity)
-        {
-            return new LongId(sfid.getTargetClass(), sfid.toString());
-        }
-        else if (sfid instanceof javax.jdo.identity.IntIdentity)
-        {
-            return new IntId(sfid.getTargetClass(), sfid.toString());
-        }
-        else if (sfid instanceof javax.jdo.identity.ShortIdentity)
-        {
-            return new ShortId(sfid.getTargetClass(), sfid.toString());
-        }
-        else if (sfid instanceof javax.jdo.identity.ByteIdentity)
-        {
-            return new ByteId(sfid.getTargetClass(), sfid.toString());
-        }
-        else if (sfid instanceof javax.jdo.identity.StringIdentity)
-        {
-            return new StringId(sfid.getTargetClass(), sfid.toString());
-        }
-        else if (sfid instanceof javax.jdo.identity.CharIdentity)
-        {
-            return new CharId(sfid.getTargetClass(), sfid.toString());
-        }
-        return new ObjectId(sfid.getTargetClass(), sfid.getKeyAsObject());
+        return DATANUCLEUS_IDENTITY_CONVERTERS.get(sfid.getClass()).apply(sfid);
     }
 
     public static String getObjectIdClassForInputIdClass(String objectIdClass)
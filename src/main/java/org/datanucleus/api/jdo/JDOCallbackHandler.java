@@ -70,6 +70,15 @@ public class JDOCallbackHandler implements CallbackHandler
     
     boolean allowAnnotatedCallbacks = false;
 
+    /** Whether all callbacks, listeners and validation are currently suppressed (e.g during bulk ingest). */
+    boolean suppressed = false;
+
+    /** Listener for transaction statistics, informed of each object flushed (when statistics are enabled). */
+    JDOTransactionStatistics.TransactionListener statisticsListener = null;
+
+    /** Recorder of the objects persisted/deleted (including by reachability) in the current chunk of a savepoint-chunked bulk operation. */
+    List<Object> bulkChunkObjects = null;
+
     public JDOCallbackHandler(ExecutionContext ec)
     {
         this.ec = ec;
@@ -84,6 +93,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postCreate(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof CreateLifecycleListener)
@@ -99,6 +113,15 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void prePersist(Object pc)
     {
+        if (bulkChunkObjects != null)
+        {
+            bulkChunkObjects.add(pc);
+        }
+        if (suppressed)
+        {
+            return;
+        }
+
         // Not supported by JDO for normal events
         if (beanValidationHandler != null)
         {
@@ -112,6 +135,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void preStore(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof StoreLifecycleListener)
@@ -163,6 +191,15 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postStore(Object pc)
     {
+        if (statisticsListener != null)
+        {
+            statisticsListener.objectFlushed();
+        }
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof StoreLifecycleListener)
@@ -178,6 +215,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void preClear(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof ClearLifecycleListener)
@@ -211,6 +253,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postClear(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof ClearLifecycleListener)
@@ -226,6 +273,15 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void preDelete(Object pc)
     {
+        if (bulkChunkObjects != null)
+        {
+            bulkChunkObjects.add(pc);
+        }
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof DeleteLifecycleListener)
@@ -264,6 +320,15 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postDelete(Object pc)
     {
+        if (statisticsListener != null)
+        {
+            statisticsListener.objectFlushed();
+        }
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof DeleteLifecycleListener)
@@ -279,6 +344,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void preDirty(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof DirtyLifecycleListener)
@@ -294,6 +364,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postDirty(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof DirtyLifecycleListener)
@@ -309,6 +384,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postLoad(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         if (allowAnnotatedCallbacks)
         {
             invokeCallback(pc, JDOAnnotationUtils.POSTLOAD, false);
@@ -342,6 +422,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postRefresh(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         // do nothing; JDO does not invoke postRefresh
     }
 
@@ -351,6 +436,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void preDetach(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof DetachLifecycleListener)
@@ -385,6 +475,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postDetach(Object pc, Object detachedPC)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         if (allowAnnotatedCallbacks)
         {
             invokeCallback(pc, JDOAnnotationUtils.POSTDETACH, true);
@@ -418,6 +513,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void preAttach(Object pc)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         for (LifecycleListenerForClass listener : getListenersWorkingCopy())
         {
             if (listener.forClass(pc.getClass()) && listener.getListener() instanceof AttachLifecycleListener)
@@ -452,6 +552,11 @@ public class JDOCallbackHandler implements CallbackHandler
      */
     public void postAttach(Object pc,Object detachedPC)
     {
+        if (suppressed)
+        {
+            return;
+        }
+
         if (allowAnnotatedCallbacks)
         {
             invokeCallback(pc, JDOAnnotationUtils.POSTATTACH, true);
@@ -479,6 +584,24 @@ public class JDOCallbackHandler implements CallbackHandler
         }
     }
 
+    /**
+     * Method to suppress (or re-enable) all callbacks, listeners and bean validation invoked by this handler.
+     * @param flag Whether to suppress
+     */
+    public void setSuppressed(boolean flag)
+    {
+        this.suppressed = flag;
+    }
+
+    /**
+     * Accessor for whether all callbacks, listeners and bean validation are currently suppressed.
+     * @return Whether suppressed
+     */
+    public boolean isSuppressed()
+    {
+        return suppressed;
+    }
+
     /**
      * Adds a new listener to this handler.
      * @param listener the listener instance
@@ -19,10 +19,23 @@ package org.datanucleus.api.jdo;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.jdo.JDOUserException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
 import javax.jdo.datastore.DataStoreCache;
+import javax.jdo.identity.SingleFieldIdentity;
 
+import org.datanucleus.ExecutionContext;
 import org.datanucleus.cache.Level2Cache;
+import org.datanucleus.metadata.AbstractClassMetaData;
+import org.datanucleus.metadata.IdentityType;
+import org.datanucleus.util.NucleusLogger;
 
 /**
  * Implementation of the JDO DataStoreCache.
@@ -31,9 +44,18 @@ import org.datanucleus.cache.Level2Cache;
 public class JDODataStoreCache implements DataStoreCache, Serializable
 {
     private static final long serialVersionUID = 620081773711702087L;
+    /** Default number of objects loaded per batch when preloading. */
+    public static final int DEFAULT_PRELOAD_BATCH_SIZE = 500;
+
     /** Underlying Level 2 cache. */
     Level2Cache cache = null;
 
+    /** Factory whose cache this is, used to load objects when preloading. */
+    transient JDOPersistenceManagerFactory pmf = null;
+
+    /** Preloads currently running. */
+    private final transient Set<PreloadTask> activePreloads = ConcurrentHashMap.newKeySet();
+
     /**
      * Constructor.
      * @param cache Level 2 Cache
@@ -43,6 +65,177 @@ public class JDODataStoreCache implements DataStoreCache, Serializable
         this.cache = cache;
     }
 
+    /**
+     * Constructor for the cache of a PMF, allowing preloading of the cache.
+     * @param cache Level 2 Cache
+     * @param pmf The PMF
+     */
+    public JDODataStoreCache(Level2Cache cache, JDOPersistenceManagerFactory pmf)
+    {
+        this.cache = cache;
+        this.pmf = pmf;
+    }
+
+    /**
+     * Background preload of the cache, providing its progress.
+     */
+    public static class PreloadTask
+    {
+        private final String description;
+        private final AtomicLong numLoaded = new AtomicLong();
+        private final AtomicLong numBatches = new AtomicLong();
+        private final CompletableFuture<Long> completion = new CompletableFuture<>();
+        private volatile boolean cancelled = false;
+        private Thread thread;
+
+        PreloadTask(String description)
+        {
+            this.description = description;
+        }
+
+        /**
+         * Accessor for a description of what is being preloaded.
+         * @return The description
+         */
+        public String getDescription()
+        {
+            return description;
+        }
+
+        /**
+         * Accessor for the number of objects loaded so far.
+         * @return Number of objects loaded
+         */
+        public long getLoadedCount()
+        {
+            return numLoaded.get();
+        }
+
+        /**
+         * Accessor for the number of batches loaded so far.
+         * @return Number of batches loaded
+         */
+        public long getBatchCount()
+        {
+            return numBatches.get();
+        }
+
+        /**
+         * Accessor for the completion of the preload, giving the total number of objects loaded (or the failure).
+         * @return The completion
+         */
+        public CompletableFuture<Long> getCompletion()
+        {
+            return completion;
+        }
+
+        public boolean isDone()
+        {
+            return completion.isDone();
+        }
+
+        /**
+         * Method to stop the preload after the batch currently being loaded.
+         */
+        public void cancel()
+        {
+            cancelled = true;
+        }
+
+        public boolean isCancelled()
+        {
+            return cancelled;
+        }
+
+        /**
+         * Method to load the results of the query in batches, until all are loaded or the preload is cancelled.
+         * When a key member is specified the batches are selected by the key following the last key of the previous batch
+         * (so the query must be ordered by that key), otherwise by the range of the results.
+         * @param pm PM to load the objects with (closed on completion)
+         * @param query The query
+         * @param keyMemberName Name of the (single) primary key member to select batches by (or null to use ranges)
+         * @param batchSize Number of objects per batch
+         * @param fetchGroups Fetch groups defining the fields to load (otherwise the default fetch plan)
+         */
+        void run(PersistenceManager pm, Query query, String keyMemberName, int batchSize, String[] fetchGroups)
+        {
+            try
+            {
+                pm.currentTransaction().setNontransactionalRead(true);
+                if (fetchGroups != null && fetchGroups.length > 0)
+                {
+                    pm.getFetchPlan().setGroups(fetchGroups);
+                }
+                pm.getFetchPlan().setFetchSize(batchSize);
+
+                long start = 0;
+                Object lastKey = null;
+                while (!cancelled)
+                {
+                    List<?> results;
+                    if (keyMemberName != null)
+                    {
+                        query.setRange(0, batchSize);
+                        results = (List<?>) (lastKey != null ? query.execute(lastKey) : query.execute());
+                    }
+                    else
+                    {
+                        query.setRange(start, start + batchSize);
+                        results = (List<?>) query.execute();
+                    }
+                    int batchLoaded = results.size();
+                    if (keyMemberName != null && batchLoaded > 0)
+                    {
+                        Object id = pm.getObjectId(results.get(batchLoaded - 1));
+                        if (!(id instanceof SingleFieldIdentity))
+                        {
+                            throw new JDOUserException("Unable to preload by key since " + id + " is not a single-field identity");
+                        }
+                        if (lastKey == null)
+                        {
+                            query.setFilter(keyMemberName + " > :lastKey");
+                        }
+                        lastKey = ((SingleFieldIdentity) id).getKeyAsObject();
+                    }
+                    query.closeAll();
+
+                    // Objects are now in the L2 cache, so drop them from the L1 cache
+                    pm.evictAll();
+
+                    numLoaded.addAndGet(batchLoaded);
+                    long batchNumber = numBatches.incrementAndGet();
+                    if (NucleusLogger.CACHE.isDebugEnabled())
+                    {
+                        NucleusLogger.CACHE.debug("L2 cache preload of " + description + " : batch " + batchNumber + " loaded " + batchLoaded +
+                            " objects (" + numLoaded.get() + " in total)");
+                    }
+                    if (batchLoaded < batchSize)
+                    {
+                        break;
+                    }
+                    start += batchSize;
+                }
+                completion.complete(numLoaded.get());
+            }
+            catch (Throwable thr)
+            {
+                NucleusLogger.CACHE.warn("L2 cache preload of " + description + " failed after loading " + numLoaded.get() + " objects", thr);
+                completion.completeExceptionally(thr);
+            }
+            finally
+            {
+                try
+                {
+                    pm.close();
+                }
+                catch (RuntimeException re)
+                {
+                    NucleusLogger.CACHE.warn("Exception closing PM of L2 cache preload of " + description, re);
+                }
+            }
+        }
+    }
+
     /**
      * Accessor for the underlying Level 2 cache.
      * @return Underlying L2 cache.
@@ -52,6 +245,180 @@ public class JDODataStoreCache implements DataStoreCache, Serializable
         return cache;
     }
 
+    /**
+     * Method to preload the cache with all objects of the specified class, in the background.
+     * @param pcClass The class of objects to load
+     * @param subclasses Whether to also load objects of subclasses
+     * @return The preload task, providing the progress of the preload
+     * @see #preload(Class, boolean, int, String...)
+     */
+    public PreloadTask preload(Class pcClass, boolean subclasses)
+    {
+        return preload(pcClass, subclasses, DEFAULT_PRELOAD_BATCH_SIZE);
+    }
+
+    /**
+     * Method to preload the cache with all objects of the specified class, in the background.
+     * The objects are loaded in batches using a PersistenceManager
+     * of its own with nontransactional reads, putting each batch in the L2 cache (as the L2 cache store mode does by default
+     * for objects read from the datastore) and then evicting it from the L1 cache, so that no more than a batch is held.
+     * The objects are ordered by their identity so that the batches are stable. Where the class has a single primary key
+     * member each batch is selected by the key following the previous batch, otherwise by the range of the results.
+     * @param pcClass The class of objects to load
+     * @param subclasses Whether to also load objects of subclasses
+     * @param batchSize Number of objects per batch
+     * @param fetchGroups Fetch groups defining the fields to load (otherwise the default fetch plan)
+     * @return The preload task, providing the progress of the preload
+     */
+    public PreloadTask preload(Class pcClass, boolean subclasses, int batchSize, String... fetchGroups)
+    {
+        assertCanPreload(batchSize);
+
+        PersistenceManager pm = pmf.getPersistenceManager();
+        try
+        {
+            Query query = pm.newQuery(pm.getExtent(pcClass, subclasses));
+            String keyMemberName = null;
+            ExecutionContext ec = ((JDOPersistenceManager)pm).getExecutionContext();
+            AbstractClassMetaData cmd = ec.getMetaDataManager().getMetaDataForClass(pcClass, ec.getClassLoaderResolver());
+            if (cmd != null && cmd.getIdentityType() == IdentityType.APPLICATION)
+            {
+                String[] pkNames = cmd.getPrimaryKeyMemberNames();
+                query.setOrdering(String.join(" ascending, ", pkNames) + " ascending");
+                if (pkNames.length == 1 && cmd.usesSingleFieldIdentityClass())
+                {
+                    keyMemberName = pkNames[0];
+                }
+            }
+            else if (cmd != null && cmd.getIdentityType() == IdentityType.DATASTORE)
+            {
+                query.setOrdering("JDOHelper.getObjectId(this) ascending");
+            }
+            return startPreload(pm, query, keyMemberName, batchSize, fetchGroups, pcClass.getName() + (subclasses ? " (and subclasses)" : ""));
+        }
+        catch (RuntimeException | Error e)
+        {
+            pm.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method to preload the cache with the results of the provided query, in the background.
+     * @param query The query (for persistable candidates); any range of the query is replaced by the batches
+     * @return The preload task, providing the progress of the preload
+     * @see #preload(Query, int, String...)
+     */
+    public PreloadTask preload(Query query)
+    {
+        return preload(query, DEFAULT_PRELOAD_BATCH_SIZE);
+    }
+
+    /**
+     * Method to preload the cache with the results of the provided query, in the background.
+     * The query is copied (so the original can continue to be used by its PersistenceManager), and the copy executed in batches
+     * in the same way as {@link #preload(Class, boolean, int, String...)}. The query should specify an ordering for the batches to
+     * be stable.
+     * @param query The query (for persistable candidates); any range of the query is replaced by the batches
+     * @param batchSize Number of objects per batch
+     * @param fetchGroups Fetch groups defining the fields to load (otherwise the default fetch plan)
+     * @return The preload task, providing the progress of the preload
+     */
+    public PreloadTask preload(Query query, int batchSize, String... fetchGroups)
+    {
+        assertCanPreload(batchSize);
+
+        PersistenceManager pm = pmf.getPersistenceManager();
+        try
+        {
+            return startPreload(pm, pm.newQuery(query), null, batchSize, fetchGroups, "query " + query);
+        }
+        catch (RuntimeException | Error e)
+        {
+            pm.close();
+            throw e;
+        }
+    }
+
+    private void assertCanPreload(int batchSize)
+    {
+        if (pmf == null)
+        {
+            throw new JDOUserException("This DataStoreCache is not associated with a PersistenceManagerFactory so cannot be preloaded");
+        }
+        if (batchSize <= 0)
+        {
+            throw new JDOUserException("Batch size for preload must be positive but was " + batchSize);
+        }
+    }
+
+    private PreloadTask startPreload(PersistenceManager pm, Query query, String keyMemberName, int batchSize, String[] fetchGroups, String description)
+    {
+        PreloadTask task = new PreloadTask(description);
+        task.thread = new Thread(() ->
+        {
+            try
+            {
+                task.run(pm, query, keyMemberName, batchSize, fetchGroups);
+            }
+            finally
+            {
+                activePreloads.remove(task);
+            }
+        }, "DataNucleus-L2-Preload");
+        task.thread.setDaemon(true);
+        activePreloads.add(task);
+        try
+        {
+            task.thread.start();
+        }
+        catch (RuntimeException | Error e)
+        {
+            activePreloads.remove(task);
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Method to stop any preloads that are running, waiting for each to finish the batch it is loading.
+     * Called when the PMF is closed, so that the preloads don't continue with a closed PMF.
+     */
+    void stopPreloads()
+    {
+        if (activePreloads == null)
+        {
+            return;
+        }
+
+        for (PreloadTask task : activePreloads)
+        {
+            task.cancel();
+        }
+        for (PreloadTask task : activePreloads)
+        {
+            try
+            {
+                task.thread.join();
+            }
+            catch (InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Accessor for the per-class statistics of the Level 2 cache.
+     * Requires the Level 2 cache type to be "soft-statistics" (see {@link StatisticsLevel2Cache}).
+     * @return The statistics, or null if the cache doesn't record statistics
+     */
+    public JDOLevel2CacheStatistics getStatistics()
+    {
+        return (cache instanceof StatisticsLevel2Cache) ? ((StatisticsLevel2Cache)cache).getStatistics() : null;
+    }
+
     /**
      * Evict the parameter instance from the second-level cache.
      * @param oid the object id of the instance to evict.
@@ -0,0 +1,206 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.datanucleus.cache.Level2Cache;
+
+/**
+ * Statistics of the Level 2 cache, per class of cached object, as recorded by {@link StatisticsLevel2Cache}.
+ * Counters are striped (LongAdder) so that recording from many concurrent PMs doesn't contend.
+ * The memory footprint is an estimate, based on the number of loaded fields of the objects put into the cache. It is an upper
+ * bound rather than a live figure, since objects that the cache discards itself (garbage collected soft references) are not
+ * subtracted; it is only reduced when objects are evicted or replaced, and reset when the cache is emptied.
+ */
+public class JDOLevel2CacheStatistics implements JDOLevel2CacheStatisticsMBean
+{
+    /** Class name used for misses where the class cannot be determined from the identity. */
+    public static final String UNKNOWN_CLASS = "<unknown>";
+
+    private final Map<String, ClassStatistics> statisticsByClass = new ConcurrentHashMap<>();
+
+    private final Level2Cache cache;
+
+    /**
+     * Statistics for the cached objects of a class.
+     */
+    public static class ClassStatistics
+    {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder puts = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+        final LongAdder approximateBytes = new LongAdder();
+
+        public long getHits()
+        {
+            return hits.sum();
+        }
+
+        public long getMisses()
+        {
+            return misses.sum();
+        }
+
+        public long getPuts()
+        {
+            return puts.sum();
+        }
+
+        public long getEvictions()
+        {
+            return evictions.sum();
+        }
+
+        /**
+         * Accessor for the proportion of gets that were hits.
+         * @return The hit ratio (0 to 1)
+         */
+        public double getHitRatio()
+        {
+            long numHits = hits.sum();
+            long numGets = numHits + misses.sum();
+            return numGets == 0 ? 0 : (double) numHits / numGets;
+        }
+
+        /**
+         * Accessor for the estimated memory of the cached objects of this class. This is an upper bound, since objects of the class
+         * garbage collected from the cache are still included.
+         * @return Estimated memory (bytes)
+         */
+        public long getApproximateMemoryBytes()
+        {
+            return Math.max(0, approximateBytes.sum());
+        }
+
+        public String toString()
+        {
+            return "hits=" + getHits() + " misses=" + getMisses() + " hitRatio=" + getHitRatio() + " puts=" + getPuts() + " evictions=" + getEvictions() +
+                " approxBytes=" + getApproximateMemoryBytes();
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param cache The cache that these statistics are for
+     */
+    JDOLevel2CacheStatistics(Level2Cache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Accessor for the statistics for the specified class.
+     * @param className Name of the class
+     * @return The statistics, or null if nothing has been recorded for this class
+     */
+    public ClassStatistics getStatisticsForClass(String className)
+    {
+        return statisticsByClass.get(className);
+    }
+
+    /**
+     * Accessor for the statistics of all classes, keyed by class name.
+     * @return The statistics (sorted by class name)
+     */
+    public Map<String, ClassStatistics> getStatisticsByClass()
+    {
+        return new TreeMap<>(statisticsByClass);
+    }
+
+    ClassStatistics getOrCreateStatisticsForClass(String className)
+    {
+        return statisticsByClass.computeIfAbsent(className != null ? className : UNKNOWN_CLASS, k -> new ClassStatistics());
+    }
+
+    public long getHits()
+    {
+        return statisticsByClass.values().stream().mapToLong(ClassStatistics::getHits).sum();
+    }
+
+    public long getMisses()
+    {
+        return statisticsByClass.values().stream().mapToLong(ClassStatistics::getMisses).sum();
+    }
+
+    public long getPuts()
+    {
+        return statisticsByClass.values().stream().mapToLong(ClassStatistics::getPuts).sum();
+    }
+
+    public long getEvictions()
+    {
+        return statisticsByClass.values().stream().mapToLong(ClassStatistics::getEvictions).sum();
+    }
+
+    public double getHitRatio()
+    {
+        long numHits = getHits();
+        long numGets = numHits + getMisses();
+        return numGets == 0 ? 0 : (double) numHits / numGets;
+    }
+
+    /**
+     * Accessor for the number of pinned objects in the cache (across all classes).
+     * @return Number of pinned objects
+     */
+    public int getPinnedCount()
+    {
+        return cache.getNumberOfPinnedObjects();
+    }
+
+    /**
+     * Accessor for the estimated memory of the cached objects (across all classes). This is an upper bound, since objects
+     * garbage collected from the cache are still included, other than when the cache no longer holds any objects.
+     * @return Estimated memory (bytes)
+     */
+    public long getApproximateMemoryBytes()
+    {
+        if (cache.getSize() == 0)
+        {
+            // Everything has been garbage collected (or evicted), so nothing can be held
+            return 0;
+        }
+        return statisticsByClass.values().stream().mapToLong(ClassStatistics::getApproximateMemoryBytes).sum();
+    }
+
+    public String[] getClassNames()
+    {
+        return getStatisticsByClass().keySet().toArray(new String[0]);
+    }
+
+    public String[] getClassStatistics()
+    {
+        return getStatisticsByClass().entrySet().stream().map(entry -> entry.getKey() + " : " + entry.getValue()).toArray(String[]::new);
+    }
+
+    public void reset()
+    {
+        statisticsByClass.clear();
+    }
+
+    public String toString()
+    {
+        return "JDOLevel2CacheStatistics [hits=" + getHits() + " misses=" + getMisses() + " puts=" + getPuts() + " evictions=" + getEvictions() +
+            " pinned=" + getPinnedCount() + " approxBytes=" + getApproximateMemoryBytes() + "]";
+    }
+}
@@ -40,16 +40,21 @@ import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.jdo.Extent;
 import javax.jdo.FetchPlan;
 import javax.jdo.JDOException;
 import javax.jdo.JDOFatalUserException;
+import javax.jdo.JDOHelper;
 import javax.jdo.JDONullIdentityException;
 import javax.jdo.JDOOptimisticVerificationException;
 import javax.jdo.JDOQLTypedQuery;
@@ -69,6 +74,8 @@ import org.datanucleus.FetchPlanState;
 import org.datanucleus.Configuration;
 import org.datanucleus.DetachState;
 import org.datanucleus.PropertyNames;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.exceptions.BulkOperationException;
 import org.datanucleus.api.jdo.exceptions.TransactionNotActiveException;
 import org.datanucleus.api.jdo.exceptions.TransactionNotWritableException;
 import org.datanucleus.api.jdo.query.JDOQLTypedQueryImpl;
@@ -88,6 +95,7 @@ import org.datanucleus.metadata.IdentityType;
 import org.datanucleus.metadata.QueryLanguage;
 import org.datanucleus.metadata.QueryMetaData;
 import org.datanucleus.metadata.SequenceMetaData;
+import org.datanucleus.state.DNStateManager;
 import org.datanucleus.store.NucleusConnection;
 import org.datanucleus.store.NucleusSequence;
 import org.datanucleus.store.StoreManager;
@@ -103,6 +111,9 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
     /** Logger for JDO. */
     public static final NucleusLogger LOGGER = NucleusLogger.getLoggerInstance("DataNucleus.JDO");
 
+    /** Number of objects per query when loading objects by class, where the fetch plan doesn't specify a fetch size. */
+    private static final int DEFAULT_LOAD_BATCH_SIZE = 1000;
+
     private boolean closed = false;
 
     /** Map of user objects attached to this PM. */
@@ -140,6 +151,17 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
         this.pmf = pmf;
         this.fetchPlan = new JDOFetchPlan(ec.getFetchPlan());
         this.jdotx = new JDOTransaction(this, ec.getTransaction());
+
+        JDOTransactionStatistics txStats = pmf.getTransactionStatistics();
+        if (txStats != null)
+        {
+            JDOTransactionStatistics.TransactionListener txListener = txStats.newTransactionListener();
+            ec.getTransaction().bindTransactionEventListener(txListener);
+            if (ec.getCallbackHandler() instanceof JDOCallbackHandler)
+            {
+                ((JDOCallbackHandler) ec.getCallbackHandler()).statisticsListener = txListener;
+            }
+        }
     }
 
     /**
@@ -421,6 +443,19 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
         assertIsOpen();
         try
         {
+            ClassIndexedLevel1Cache l1Cache = ClassIndexedLevel1Cache.getCacheForExecutionContext(ec);
+            if (l1Cache != null && cls != null)
+            {
+                // Only visit the objects of the required class(es)
+                for (DNStateManager sm : l1Cache.getStateManagersForClass(cls, subclasses))
+                {
+                    Object pc = sm.getObject();
+                    sm.evict();
+                    ec.removeObjectFromLevel1Cache(ec.getApiAdapter().getIdForObject(pc));
+                }
+                return;
+            }
+
             ec.evictObjects(cls, subclasses);
         }
         catch (NucleusException ne)
@@ -442,28 +477,73 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
     /**
      * Method to evict a collection of objects from L1 cache.
      * @param pcs The objects
-     * @throws JDOUserException thrown if some instances could not be evicted
+     * @throws BulkOperationException (a JDOUserException) thrown if some instances could not be evicted, with the positions of
+     *     the failed objects and, as before, one nested exception per failed object
      */
     public void evictAll(Collection pcs)
     {
         assertIsOpen();
-        List<Throwable> failures = new ArrayList<>();
-        Iterator i = pcs.iterator();
-        while (i.hasNext())
-        {
-            Object pc = i.next();
-            try
+
+        // Check for the common reasons for failure up front so that no exception is created for them
+        ApiAdapter api = ec.getApiAdapter();
+        List<Integer> failedIndices = null;
+        List<String> failureReasons = null;
+        List<Object> failedObjects = null;
+        List<Throwable> failureExceptions = null;
+        int index = 0;
+        for (Object pc : pcs)
+        {
+            String failureReason = null;
+            Throwable failureException = null;
+            if (pc != null)
             {
-                jdoEvict(pc);
+                if (!api.isPersistable(pc))
+                {
+                    failureReason = Localiser.msg("011011");
+                }
+                else if (api.isDetached(pc))
+                {
+                    failureReason = Localiser.msg("011012");
+                }
+                else if (ec.findStateManager(pc) == null)
+                {
+                    failureReason = Localiser.msg("011013");
+                }
+                else
+                {
+                    try
+                    {
+                        ec.evictObject(pc);
+                    }
+                    catch (NucleusException ne)
+                    {
+                        failureReason = ne.getMessage();
+                        failureException = JDOAdapter.getJDOExceptionForNucleusException(ne);
+                    }
+                }
             }
-            catch (JDOException e)
+
+            if (failureReason != null)
             {
-                failures.add(e);
+                if (failedIndices == null)
+                {
+                    failedIndices = new ArrayList<>();
+                    failureReasons = new ArrayList<>();
+                    failedObjects = new ArrayList<>();
+                    failureExceptions = new ArrayList<>();
+                }
+                failedIndices.add(index);
+                failureReasons.add(failureReason);
+                failedObjects.add(pc);
+                failureExceptions.add(failureException);
             }
+            index++;
         }
-        if (!failures.isEmpty())
+
+        if (failedIndices != null)
         {
-            throw new JDOUserException(Localiser.msg("010036"), failures.toArray(new Exception[0]));
+            throw new BulkOperationException(Localiser.msg("010036"), failedIndices.stream().mapToInt(Integer::intValue).toArray(),
+                failureReasons.toArray(new String[0]), failedObjects.toArray(), failureExceptions.toArray(new Throwable[0]));
         }
     }
 
@@ -524,6 +604,56 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
     public void refreshAll(Collection pcs)
     {
         assertIsOpen();
+        if (pmf.getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_REFRESH_RETRIEVE_ALL_BATCH_BY_CLASS) && pcs.size() > 1)
+        {
+            // Mark the fields of the clean objects as not loaded and reload them with a query per class, refreshing the rest individually
+            List<Object> otherPcs = new ArrayList<>();
+            List<Object> cleanPcs = new ArrayList<>();
+            for (Object pc : pcs)
+            {
+                if (pc != null && ec.getApiAdapter().isPersistent(pc) && !ec.getApiAdapter().isDirty(pc))
+                {
+                    cleanPcs.add(pc);
+                }
+                else
+                {
+                    otherPcs.add(pc);
+                }
+            }
+            Map<Class, Map<Object, Object>> pcsByClass = groupObjectsByClassAndKey(cleanPcs, otherPcs);
+            if (!pcsByClass.isEmpty())
+            {
+                try
+                {
+                    for (Map<Object, Object> classPcs : pcsByClass.values())
+                    {
+                        for (Object pc : classPcs.values())
+                        {
+                            // Not evicted, since that is not a clear of the object (so mustn't invoke any clear callbacks/listeners)
+                            ec.findStateManager(pc).clearLoadedFlags();
+                        }
+                    }
+                    Set<Object> loadedPcs = loadGroupedObjects(pcsByClass, false);
+                    for (Map<Object, Object> classPcs : pcsByClass.values())
+                    {
+                        for (Object pc : classPcs.values())
+                        {
+                            if (!loadedPcs.contains(pc))
+                            {
+                                // Not found by the query, so refresh individually to report it
+                                otherPcs.add(pc);
+                            }
+                        }
+                    }
+                }
+                catch (NucleusException ne)
+                {
+                    throw JDOAdapter.getJDOExceptionForNucleusException(ne);
+                }
+            }
+            pcs = otherPcs;
+        }
+
         List<Throwable> failures = new ArrayList<>();
         Iterator iter = pcs.iterator();
         while (iter.hasNext())
@@ -642,6 +772,26 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
 
         try
         {
+            if (pmf.getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_REFRESH_RETRIEVE_ALL_BATCH_BY_CLASS) && pcs.length > 1)
+            {
+                // Load the fields with a query per class, so the retrieve below only needs to go to the datastore for anything not loaded
+                List<Object> unloadedPcs = new ArrayList<>();
+                for (Object pc : pcs)
+                {
+                    if (pc != null && hasFieldsToLoad(pc, useFetchPlan))
+                    {
+                        unloadedPcs.add(pc);
+                    }
+                }
+                if (unloadedPcs.size() > 1)
+                {
+                    Map<Class, Map<Object, Object>> pcsByClass = groupObjectsByClassAndKey(unloadedPcs, new ArrayList<>());
+                    if (!pcsByClass.isEmpty())
+                    {
+                        loadGroupedObjects(pcsByClass, !useFetchPlan);
+                    }
+                }
+            }
             ec.retrieveObjects(useFetchPlan, pcs);   
         }
         catch (NucleusException ne)
@@ -756,6 +906,375 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
         }
     }
 
+    /**
+     * What to do with the instances persisted by {@link JDOPersistenceManager#makePersistentAll(Iterable, int, FlushedInstanceAction)}
+     * once each chunk has been flushed.
+     */
+    public enum FlushedInstanceAction
+    {
+        /** Leave the instances managed, as with makePersistentAll(Collection). */
+        RETAIN,
+        /** Evict the instances, releasing their field values. Not permitted in an active transaction. */
+        EVICT,
+        /** Make the instances transient. Not permitted in an active transaction. */
+        MAKE_TRANSIENT
+    }
+
+    /**
+     * JDO method to make persistent a (potentially very large) set of objects, in chunks.
+     * The objects are persisted <code>batchSize</code> at a time, flushing after each chunk, and then the flushed instances are
+     * evicted/made transient as requested so that they are no longer held by this PersistenceManager. The input is only iterated
+     * through, so can be a lazily produced source of objects.
+     * An instance persisted in an active transaction is "persistent-new" (and dirty) until commit, so can't be evicted or made
+     * transient; EVICT and MAKE_TRANSIENT therefore require the chunks to be persisted with a non-transactional write, and
+     * throw a JDOUserException if a transaction is active (use {@link #ingestAll(Iterable, int)} to commit each chunk instead).
+     * Throws a JDOUserException if objects could not be made persistent.
+     * @param pcs The objects to persist
+     * @param batchSize Number of objects per chunk
+     * @param flushedAction What to do with the instances once each chunk is flushed
+     * @return Number of objects persisted
+     */
+    public long makePersistentAll(Iterable<?> pcs, int batchSize, FlushedInstanceAction flushedAction)
+    {
+        assertIsOpen();
+        assertWritable();
+        if (batchSize <= 0)
+        {
+            throw new JDOUserException("Batch size for makePersistentAll must be positive but was " + batchSize);
+        }
+        if (flushedAction != null && flushedAction != FlushedInstanceAction.RETAIN && ec.getTransaction().isActive())
+        {
+            throw new JDOUserException("Flushed instances can't be " + (flushedAction == FlushedInstanceAction.EVICT ? "evicted" : "made transient") +
+                " by makePersistentAll in an active transaction since they remain persistent-new until commit");
+        }
+
+        long numPersisted = 0;
+        List<Object> chunk = new ArrayList<>(batchSize);
+        Iterator<?> pcIter = pcs.iterator();
+        while (pcIter.hasNext())
+        {
+            chunk.add(pcIter.next());
+            if (chunk.size() == batchSize || !pcIter.hasNext())
+            {
+                Object[] persistedPcs;
+                try
+                {
+                    persistedPcs = ec.persistObjects(chunk.toArray());
+                }
+                catch (NucleusUserException nue)
+                {
+                    Throwable[] failures = nue.getNestedExceptions();
+                    throw new JDOUserException(Localiser.msg("010039"), failures);
+                }
+                catch (NucleusException ne)
+                {
+                    throw JDOAdapter.getJDOExceptionForNucleusException(ne);
+                }
+                flush();
+                numPersisted += persistedPcs.length;
+
+                if (flushedAction != null && flushedAction != FlushedInstanceAction.RETAIN)
+                {
+                    for (Object pc : persistedPcs)
+                    {
+                        if (pc != null && !ec.getApiAdapter().isDirty(pc))
+                        {
+                            if (flushedAction == FlushedInstanceAction.EVICT)
+                            {
+                                jdoEvict(pc);
+                            }
+                            else
+                            {
+                                jdoMakeTransient(pc, null);
+                            }
+                        }
+                    }
+                }
+                chunk.clear();
+            }
+        }
+        return numPersisted;
+    }
+
+    /**
+     * JDO method to make persistent a (potentially very large) set of objects within the active transaction, in chunks, with a
+     * savepoint per chunk. Any outstanding changes of the transaction are flushed first, so that they are not affected by the
+     * rollback of a chunk. Each chunk is persisted and flushed, and if that fails then the datastore is rolled back to the
+     * savepoint of the chunk, the objects of the chunk (and any persisted by reachability from them) are disconnected from this
+     * PersistenceManager, and processing continues with the next chunk. The successful chunks remain in the transaction, to be
+     * committed (or not) by the caller. Requires a datastore that supports savepoints.
+     * @param pcs The objects to persist
+     * @param chunkSize Number of objects per chunk
+     * @return Number of objects persisted
+     * @throws BulkOperationException after processing all chunks if any chunk failed, giving the positions of all objects of the failed chunks
+     */
+    public long makePersistentAllWithSavepoints(Iterable<?> pcs, int chunkSize)
+    {
+        return processAllWithSavepoints(pcs, chunkSize, true);
+    }
+
+    /**
+     * JDO method to delete a (potentially very large) set of objects within the active transaction, in chunks, with a
+     * savepoint per chunk. A chunk that fails is rolled back to its savepoint, with the objects of the chunk (and any deleted by
+     * cascade from them) returned to hollow state since they still exist in the datastore, and processing continues with the next chunk.
+     * @param pcs The objects to delete
+     * @param chunkSize Number of objects per chunk
+     * @return Number of objects deleted
+     * @throws BulkOperationException after processing all chunks if any chunk failed, giving the positions of all objects of the failed chunks
+     * @see #makePersistentAllWithSavepoints(Iterable, int)
+     */
+    public long deletePersistentAllWithSavepoints(Iterable<?> pcs, int chunkSize)
+    {
+        return processAllWithSavepoints(pcs, chunkSize, false);
+    }
+
+    private long processAllWithSavepoints(Iterable<?> pcs, int chunkSize, boolean persist)
+    {
+        assertIsOpen();
+        assertWritable();
+        assertActiveTransaction();
+        if (chunkSize <= 0)
+        {
+            throw new JDOUserException("Chunk size must be positive but was " + chunkSize);
+        }
+
+        JDOCallbackHandler callbackHandler = (ec.getCallbackHandler() instanceof JDOCallbackHandler) ? (JDOCallbackHandler)ec.getCallbackHandler() : null;
+        List<Object> chunkObjects = new ArrayList<>();
+        List<Integer> failedIndices = null;
+        List<String> failureReasons = null;
+        List<Object> failedObjects = null;
+        List<Throwable> failureExceptions = null;
+
+        long numProcessed = 0;
+        int chunkStart = 0;
+        int chunkNumber = 0;
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        Iterator<?> pcIter = pcs.iterator();
+        while (pcIter.hasNext())
+        {
+            chunk.add(pcIter.next());
+            if (chunk.size() == chunkSize || !pcIter.hasNext())
+            {
+                // Flush any outstanding changes so that they precede the savepoint, and so aren't lost if this chunk is rolled back
+                ec.flush();
+
+                String savepointName = "dn_bulk_chunk_" + chunkNumber++;
+                jdotx.setSavepoint(savepointName);
+                if (callbackHandler != null)
+                {
+                    callbackHandler.bulkChunkObjects = chunkObjects;
+                }
+                try
+                {
+                    if (persist)
+                    {
+                        ec.persistObjects(chunk.toArray());
+                    }
+                    else
+                    {
+                        ec.deleteObjects(chunk.toArray());
+                    }
+                    ec.flush();
+                    jdotx.releaseSavepoint(savepointName);
+                    numProcessed += chunk.size();
+                }
+                catch (NucleusException | JDOException e)
+                {
+                    if (callbackHandler != null)
+                    {
+                        callbackHandler.bulkChunkObjects = null;
+                    }
+                    jdotx.rollbackToSavepoint(savepointName);
+                    chunkObjects.addAll(chunk);
+                    revertObjects(chunkObjects);
+
+                    if (failedIndices == null)
+                    {
+                        failedIndices = new ArrayList<>();
+                        failureReasons = new ArrayList<>();
+                        failedObjects = new ArrayList<>();
+                        failureExceptions = new ArrayList<>();
+                    }
+                    for (int i = 0; i < chunk.size(); i++)
+                    {
+                        failedIndices.add(chunkStart + i);
+                        failureReasons.add("Chunk " + (chunkNumber - 1) + " failed : " + e.getMessage());
+                        failedObjects.add(chunk.get(i));
+                        failureExceptions.add(e);
+                    }
+                }
+                finally
+                {
+                    if (callbackHandler != null)
+                    {
+                        callbackHandler.bulkChunkObjects = null;
+                    }
+                    chunkObjects.clear();
+                }
+                chunkStart += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (failedIndices != null)
+        {
+            throw new BulkOperationException(Localiser.msg(persist ? "010039" : "010040"), failedIndices.stream().mapToInt(Integer::intValue).toArray(),
+                failureReasons.toArray(new String[0]), failedObjects.toArray(), failureExceptions.toArray(new Throwable[0]));
+        }
+        return numProcessed;
+    }
+
+    /**
+     * Convenience method to revert the provided objects in this PersistenceManager, after their changes were rolled back
+     * in the datastore (to a savepoint). Each object is removed from the transaction. An object that was being deleted still exists
+     * in the datastore so is rolled back to hollow state (its field values being reloaded when next accessed), whereas any other
+     * object is removed from the L1 cache and becomes transient.
+     * @param pcs The objects
+     */
+    private void revertObjects(List<Object> pcs)
+    {
+        ApiAdapter api = ec.getApiAdapter();
+        for (Object pc : pcs)
+        {
+            DNStateManager sm = ec.findStateManager(pc);
+            if (sm != null)
+            {
+                boolean deleted = api.isDeleted(pc) && !api.isNew(pc);
+                ec.clearDirty(sm);
+                ec.evictFromTransaction(sm);
+                if (deleted)
+                {
+                    sm.preRollback(ec.getTransaction());
+                    sm.evict();
+                }
+                else
+                {
+                    Object id = sm.getInternalObjectId();
+                    if (id != null)
+                    {
+                        ec.removeObjectFromLevel1Cache(id);
+                    }
+                    sm.disconnect();
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to bulk-ingest a (potentially very large) set of new objects, for append-only data loads.
+     * The objects are persisted <code>batchSize</code> at a time, and with all lifecycle listeners, instance callbacks and bean
+     * validation suppressed while each chunk is written. If no transaction is active then each chunk is persisted and committed in
+     * its own transaction (of this PersistenceManager, so with any Synchronization and statistics as for any other transaction),
+     * otherwise each chunk is flushed in the active transaction, after first flushing any other changes of the transaction with
+     * callbacks as normal. Once written, the instances are evicted from the L1 cache where their lifecycle state allows, so that
+     * this PersistenceManager holds no more than a chunk of objects at a time.
+     * The input is only iterated through, so can be a lazily produced source of objects.
+     * Throws a JDOUserException if objects could not be made persistent (any chunks already committed remain committed).
+     * @param pcs The objects to persist
+     * @param batchSize Number of objects per chunk
+     * @return Number of objects persisted
+     */
+    public long ingestAll(Iterable<?> pcs, int batchSize)
+    {
+        assertIsOpen();
+        if (batchSize <= 0)
+        {
+            throw new JDOUserException("Batch size for ingestAll must be positive but was " + batchSize);
+        }
+
+        boolean transactionPerChunk = !jdotx.isActive();
+        if (!transactionPerChunk)
+        {
+            // Flush any other changes of the transaction before suppressing callbacks, so that only the ingested objects skip them
+            try
+            {
+                ec.flush();
+            }
+            catch (NucleusException ne)
+            {
+                throw JDOAdapter.getJDOExceptionForNucleusException(ne);
+            }
+        }
+        JDOCallbackHandler callbackHandler = (ec.getCallbackHandler() instanceof JDOCallbackHandler) ? (JDOCallbackHandler)ec.getCallbackHandler() : null;
+
+        long numPersisted = 0;
+        List<Object> chunk = new ArrayList<>(batchSize);
+        Iterator<?> pcIter = pcs.iterator();
+        while (pcIter.hasNext())
+        {
+            chunk.add(pcIter.next());
+            if (chunk.size() == batchSize || !pcIter.hasNext())
+            {
+                Object[] persistedPcs;
+                boolean wasSuppressed = callbackHandler != null && callbackHandler.isSuppressed();
+                if (callbackHandler != null)
+                {
+                    callbackHandler.setSuppressed(true);
+                }
+                if (transactionPerChunk)
+                {
+                    jdotx.begin();
+                }
+                try
+                {
+                    persistedPcs = ec.persistObjects(chunk.toArray());
+                    if (transactionPerChunk)
+                    {
+                        jdotx.commit();
+                    }
+                    else
+                    {
+                        ec.flush();
+                    }
+                }
+                catch (NucleusUserException nue)
+                {
+                    Throwable[] failures = nue.getNestedExceptions();
+                    throw new JDOUserException(Localiser.msg("010039"), failures);
+                }
+                catch (NucleusException ne)
+                {
+                    throw JDOAdapter.getJDOExceptionForNucleusException(ne);
+                }
+                finally
+                {
+                    if (transactionPerChunk && jdotx.isActive())
+                    {
+                        jdotx.rollback();
+                    }
+                    if (callbackHandler != null)
+                    {
+                        callbackHandler.setSuppressed(wasSuppressed);
+                    }
+                }
+                numPersisted += persistedPcs.length;
+
+                for (Object pc : persistedPcs)
+                {
+                    if (pc != null && !ec.getApiAdapter().isDirty(pc))
+                    {
+                        jdoEvict(pc);
+                    }
+                }
+                chunk.clear();
+            }
+        }
+        return numPersisted;
+    }
+
+    /**
+     * Method to bulk-ingest a stream of new objects, for append-only data loads.
+     * @param pcs The objects to persist
+     * @param batchSize Number of objects per chunk
+     * @return Number of objects persisted
+     * @see #ingestAll(Iterable, int)
+     */
+    public long ingestAll(Stream<?> pcs, int batchSize)
+    {
+        Iterator<?> pcIter = pcs.iterator();
+        return ingestAll(() -> pcIter, batchSize);
+    }
+
     // ------------------------------- Delete Persistent ------------------------------------------
 
     /**
@@ -1184,6 +1703,84 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
         return detacheds;
     }
 
+    /**
+     * Accessor for an iterator that detaches the specified objects as it is iterated through, rather than all up front.
+     * Each object is detached (using the current fetch plan) when it is pulled from the iterator, and is then evicted
+     * (unless it is dirty), releasing its field values so that it is only held by the PM's (weak/soft) L1 cache and can be garbage
+     * collected once no longer referenced. This is intended for use with large query results, where the results are loaded as they
+     * are iterated.
+     * Each object is detached with its own DetachState, since a state shared across the iteration would hold every copy made.
+     * As a result an object related to more than one of the objects is detached separately for each, giving distinct copies
+     * (unlike {@link #detachCopyAll(Collection)}, where such an object has a single copy).
+     * @param pcs the instances to detach
+     * @return Iterator of the detached instances
+     */
+    public <T> Iterator<T> detachCopyIterator(Iterable<T> pcs)
+    {
+        assertIsOpen();
+        assertReadable("detachCopyIterator");
+
+        Iterator<T> pcIter = pcs.iterator();
+        return new Iterator<T>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                try
+                {
+                    return pcIter.hasNext();
+                }
+                catch (NucleusException ne)
+                {
+                    throw JDOAdapter.getJDOExceptionForNucleusException(ne);
+                }
+            }
+
+            @Override
+            public T next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                T pc;
+                try
+                {
+                    pc = pcIter.next();
+                }
+                catch (NucleusException ne)
+                {
+                    throw JDOAdapter.getJDOExceptionForNucleusException(ne);
+                }
+                if (pc == null)
+                {
+                    return null;
+                }
+
+                assertIsOpen();
+                T detached = jdoDetachCopy(pc, new DetachState(ec.getApiAdapter()));
+                if (!ec.getApiAdapter().isDirty(pc))
+                {
+                    jdoEvict(pc);
+                }
+                return detached;
+            }
+        };
+    }
+
+    /**
+     * Accessor for a (sequential) stream of the detached copies of the specified objects, detaching each object
+     * as it is consumed and then evicting it.
+     * @param pcs the instances to detach
+     * @return Stream of the detached instances
+     * @see #detachCopyIterator(Iterable)
+     */
+    public <T> Stream<T> detachCopyStream(Iterable<T> pcs)
+    {
+        Iterator<T> detachedIter = detachCopyIterator(pcs);
+        return StreamSupport.stream(((Iterable<T>) () -> detachedIter).spliterator(), false);
+    }
+
     // --------------------------------- Queries ----------------------------------------
 
     /**
@@ -1615,6 +2212,11 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
      */
     public Set getManagedObjects(Class... classes)
     {
+        ClassIndexedLevel1Cache l1Cache = ClassIndexedLevel1Cache.getCacheForExecutionContext(ec);
+        if (l1Cache != null && classes != null)
+        {
+            return getManagedObjects(l1Cache, null, classes);
+        }
         return ec.getManagedObjects(classes);
     }
 
@@ -1655,6 +2257,12 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
             return null;
         }
 
+        ClassIndexedLevel1Cache l1Cache = ClassIndexedLevel1Cache.getCacheForExecutionContext(ec);
+        if (l1Cache != null && classes != null)
+        {
+            return getManagedObjects(l1Cache, states, classes);
+        }
+
         String[] stateNames = new String[states.size()];
         Iterator iter = states.iterator();
         int i = 0;
@@ -1667,6 +2275,36 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
         return ec.getManagedObjects(stateNames, classes);
     }
 
+    /**
+     * Convenience method to find the objects managed in the current transaction of the specified classes (and optionally states),
+     * using the class index of the L1 cache so that only objects of those classes are visited.
+     * @param l1Cache The L1 cache
+     * @param states States that we want objects for (or null for all states)
+     * @param classes Classes that we want objects for
+     * @return The managed objects (or null if no transaction is active)
+     */
+    private Set getManagedObjects(ClassIndexedLevel1Cache l1Cache, EnumSet states, Class... classes)
+    {
+        if (!ec.getTransaction().isActive())
+        {
+            return null;
+        }
+
+        Set objs = new HashSet();
+        for (Class cls : classes)
+        {
+            for (DNStateManager sm : l1Cache.getStateManagersForClass(cls, false))
+            {
+                Object pc = sm.getObject();
+                if (ec.getApiAdapter().isTransactional(pc) && (states == null || states.contains(JDOHelper.getObjectState(pc))))
+                {
+                    objs.add(pc);
+                }
+            }
+        }
+        return objs;
+    }
+
     /**
      * Accessor for an object given the object id.
      * @param id Id of the object.
@@ -1763,7 +2401,7 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
             }
         }
 
-        return ec.findObjectsById(theOids, validate);
+        return findObjectsById(theOids, validate);
     }
 
     /**
@@ -1818,12 +2456,217 @@ public class JDOPersistenceManager implements javax.jdo.PersistenceManager
             oidArray[j++] = id;
         }
 
-        Object[] objs = ec.findObjectsById(oidArray, validate);
+        Object[] objs = findObjectsById(oidArray, validate);
 
         Collection objects = Arrays.asList(objs);
         return objects;
     }
 
+    /**
+     * Convenience method to find the objects with the specified (DataNucleus) ids.
+     * When "datanucleus.getObjectsById.batchSize" is set and the objects are to be validated, any single-field ids whose object is not in
+     * the L1/L2 cache are grouped by target class, and each group retrieved by a query on the primary key (up to the batch size of keys
+     * per query) using the current fetch plan. All remaining ids (cached objects, other identity types, objects not found by the query)
+     * are found as normal. Without validation the objects are found as normal, so are returned hollow without accessing the datastore.
+     * @param ids The ids
+     * @param validate Whether to validate the object state
+     * @return The objects with these ids (in the same order)
+     */
+    private Object[] findObjectsById(Object[] ids, boolean validate)
+    {
+        int batchSize = pmf.getConfiguration().getIntProperty(JDOPropertyNames.PROPERTY_GET_OBJECTS_BY_ID_BATCH_SIZE);
+        if (batchSize <= 0 || !validate || ids.length < 2)
+        {
+            return ec.findObjectsById(ids, validate);
+        }
+
+        // Group the ids not in the cache by the target class, keyed by the key value
+        Map<String, Map<Object, SingleFieldId>> uncachedIdsByClass = new HashMap<>();
+        for (Object id : ids)
+        {
+            if (id instanceof SingleFieldId && ec.getObjectFromCache(id) == null)
+            {
+                SingleFieldId sfid = (SingleFieldId)id;
+                uncachedIdsByClass.computeIfAbsent(sfid.getTargetClassName(), k -> new HashMap<>()).put(sfid.getKeyAsObject(), sfid);
+            }
+        }
+
+        Map<Object, Object> objectById = new HashMap<>();
+        ClassLoaderResolver clr = ec.getClassLoaderResolver();
+        for (Map.Entry<String, Map<Object, SingleFieldId>> classIdsEntry : uncachedIdsByClass.entrySet())
+        {
+            if (classIdsEntry.getValue().size() < 2)
+            {
+                continue;
+            }
+            String pkName = getSinglePrimaryKeyMemberName(ec.getMetaDataManager().getMetaDataForClass(classIdsEntry.getKey(), clr));
+            if (pkName == null)
+            {
+                continue;
+            }
+
+            List<Object> keys = new ArrayList<>(classIdsEntry.getValue().keySet());
+            for (Object obj : loadObjectsByPrimaryKey(clr.classForName(classIdsEntry.getKey()), pkName, keys, batchSize, false))
+            {
+                Object id = ec.getApiAdapter().getIdForObject(obj);
+                if (id != null)
+                {
+                    objectById.put(id, obj);
+                }
+            }
+        }
+
+        // Find any remaining objects as normal
+        Object[] objs = new Object[ids.length];
+        List<Object> remainingIds = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++)
+        {
+            objs[i] = ids[i] != null ? objectById.get(ids[i]) : null;
+            if (objs[i] == null)
+            {
+                remainingIds.add(ids[i]);
+            }
+        }
+        if (!remainingIds.isEmpty())
+        {
+            Object[] remainingObjs = ec.findObjectsById(remainingIds.toArray(), validate);
+            int j = 0;
+            for (int i = 0; i < ids.length; i++)
+            {
+                if (objs[i] == null)
+                {
+                    objs[i] = remainingObjs[j++];
+                }
+            }
+        }
+        return objs;
+    }
+
+    /**
+     * Convenience method to return the name of the primary key member of a class using application identity with a single
+     * primary key member, as needed for loading objects of the class in batches by primary key.
+     * @param cmd Metadata for the class
+     * @return Name of the primary key member, or null if the class doesn't have a single primary key member
+     */
+    private static String getSinglePrimaryKeyMemberName(AbstractClassMetaData cmd)
+    {
+        if (cmd == null || cmd.getIdentityType() != IdentityType.APPLICATION || cmd.getNoOfPrimaryKeyMembers() != 1)
+        {
+            return null;
+        }
+        return cmd.getPrimaryKeyMemberNames()[0];
+    }
+
+    /**
+     * Convenience method to load the objects of a class with the specified primary key values, using a query per batch of keys.
+     * Any object already in the L1 cache is returned as that same object, with any of its unloaded fields in the fetch plan loaded
+     * from the query results.
+     * @param cls The class
+     * @param pkName Name of the primary key member
+     * @param keys The primary key values
+     * @param batchSize Maximum number of keys per query
+     * @param allFields Whether to load all fields (otherwise the fields in the current fetch plan)
+     * @return The objects found (in no particular order)
+     */
+    private List<Object> loadObjectsByPrimaryKey(Class cls, String pkName, List<Object> keys, int batchSize, boolean allFields)
+    {
+        List<Object> objs = new ArrayList<>(keys.size());
+        for (int start = 0; start < keys.size(); start += batchSize)
+        {
+            List<Object> batchKeys = keys.subList(start, Math.min(start + batchSize, keys.size()));
+            Query q = newQuery(cls);
+            try
+            {
+                q.setFilter(":keys.contains(" + pkName + ")");
+                if (allFields)
+                {
+                    q.getFetchPlan().setGroup(FetchPlan.ALL);
+                }
+                objs.addAll((Collection)q.execute(batchKeys));
+            }
+            finally
+            {
+                q.closeAll();
+            }
+        }
+        return objs;
+    }
+
+    /**
+     * Convenience method to group the specified persistent objects by their class, where the class uses application identity
+     * with a single primary key member, keyed by the primary key value.
+     * @param pcs The objects
+     * @param ungroupedPcs List to add the objects that can't be grouped to
+     * @return The grouped objects, keyed by class and then primary key value
+     */
+    Map<Class, Map<Object, Object>> groupObjectsByClassAndKey(Collection pcs, List<Object> ungroupedPcs)
+    {
+        Map<Class, Map<Object, Object>> pcsByClass = new HashMap<>();
+        ClassLoaderResolver clr = ec.getClassLoaderResolver();
+        for (Object pc : pcs)
+        {
+            Object id = (pc != null && ec.getApiAdapter().isPersistent(pc)) ? ec.getApiAdapter().getIdForObject(pc) : null;
+            if (id instanceof SingleFieldId && getSinglePrimaryKeyMemberName(ec.getMetaDataManager().getMetaDataForClass(pc.getClass(), clr)) != null)
+            {
+                pcsByClass.computeIfAbsent(pc.getClass(), k -> new HashMap<>()).put(((SingleFieldId)id).getKeyAsObject(), pc);
+            }
+            else
+            {
+                ungroupedPcs.add(pc);
+            }
+        }
+        return pcsByClass;
+    }
+
+    /**
+     * Convenience method to return whether the specified managed object has any fields still to be loaded.
+     * @param pc The object
+     * @param fetchPlanOnly Whether to only consider the fields in the current fetch plan (otherwise all fields)
+     * @return Whether any of these fields are not loaded
+     */
+    private boolean hasFieldsToLoad(Object pc, boolean fetchPlanOnly)
+    {
+        DNStateManager sm = ec.findStateManager(pc);
+        if (sm == null)
+        {
+            return false;
+        }
+        if (!fetchPlanOnly)
+        {
+            return !sm.getAllFieldsLoaded();
+        }
+
+        for (int fieldNumber : ec.getFetchPlan().getFetchPlanForClass(sm.getClassMetaData()).getMemberNumbers())
+        {
+            if (!sm.isFieldLoaded(fieldNumber))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convenience method to load the fields of the specified (grouped) objects with a query per class, chunked by the fetch size
+     * of the current fetch plan.
+     * @param pcsByClass The objects, keyed by class and then primary key value
+     * @param allFields Whether to load all fields (otherwise the fields in the current fetch plan)
+     * @return The objects that were found by the queries
+     */
+    Set<Object> loadGroupedObjects(Map<Class, Map<Object, Object>> pcsByClass, boolean allFields)
+    {
+        int fetchSize = fetchPlan.getFetchSize();
+        int batchSize = fetchSize > 0 ? fetchSize : DEFAULT_LOAD_BATCH_SIZE;
+        ClassLoaderResolver clr = ec.getClassLoaderResolver();
+        Set<Object> loadedPcs = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Class, Map<Object, Object>> classEntry : pcsByClass.entrySet())
+        {
+            String pkName = getSinglePrimaryKeyMemberName(ec.getMetaDataManager().getMetaDataForClass(classEntry.getKey(), clr));
+            loadedPcs.addAll(loadObjectsByPrimaryKey(classEntry.getKey(), pkName, new ArrayList<>(classEntry.getValue().keySet()), batchSize, allFields));
+        }
+        return loadedPcs;
+    }
+
     /**
      * Method to look up the instance of the given type with the given key.
      * @param cls Class of the persistable
@@ -31,22 +31,29 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import javax.jdo.AttributeConverter;
 import javax.jdo.Constants;
 import javax.jdo.FetchGroup;
 import javax.jdo.JDOException;
 import javax.jdo.JDOFatalUserException;
+import javax.jdo.JDOOptimisticVerificationException;
 import javax.jdo.JDOUnsupportedOptionException;
 import javax.jdo.JDOUserException;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Transaction;
 import javax.jdo.datastore.DataStoreCache;
 import javax.jdo.datastore.Sequence;
 import javax.jdo.listener.InstanceLifecycleListener;
@@ -66,6 +73,8 @@ import org.datanucleus.PersistenceNucleusContext;
 import org.datanucleus.PersistenceNucleusContextImpl;
 import org.datanucleus.Configuration;
 import org.datanucleus.PropertyNames;
+import org.datanucleus.api.jdo.exceptions.OptimisticConflictException;
+import org.datanucleus.api.jdo.metadata.JDOMetaDataManager;
 import org.datanucleus.api.jdo.metadata.api.ClassMetadataImpl;
 import org.datanucleus.api.jdo.metadata.api.InterfaceMetadataImpl;
 import org.datanucleus.api.jdo.metadata.api.JDOMetadataImpl;
@@ -73,6 +82,7 @@ import org.datanucleus.exceptions.ClassNotResolvedException;
 import org.datanucleus.exceptions.NucleusException;
 import org.datanucleus.exceptions.TransactionActiveOnCloseException;
 import org.datanucleus.exceptions.TransactionIsolationNotSupportedException;
+import org.datanucleus.management.ManagementManager;
 import org.datanucleus.metadata.AbstractClassMetaData;
 import org.datanucleus.metadata.ClassMetaData;
 import org.datanucleus.metadata.FileMetaData;
@@ -124,8 +134,8 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
     /** The context that this factory uses. TODO Ought to be serializable, or able to recreate. */
     protected transient PersistenceNucleusContext nucleusContext;
 
-    /** The cache of PM's in use. */
-    private transient Set<JDOPersistenceManager> pmCache = ConcurrentHashMap.newKeySet();
+    /** The registry of PM's in use. Replaced when the configuration is frozen if weak tracking is required. */
+    private transient volatile JDOPersistenceManagerRegistry pmCache = new JDOPersistenceManagerRegistry(false);
 
     /** Lifecycle Listeners. */
     protected transient Map<InstanceLifecycleListener, LifecycleListenerForClass> lifecycleListeners;
@@ -169,6 +179,35 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
         }
     };
 
+    /**
+     * The PM proxy scope that the current thread is executing in (if any). Not inheritable, and only set for the
+     * duration of runInPersistenceManagerScope/executeInPersistenceManagerScope.
+     */
+    private transient ThreadLocal<PMProxyScope> pmProxyScope = new ThreadLocal<>();
+
+    /**
+     * Scope for the PM proxy delegate, holding the PM (created on first use) that the proxy delegates to within the scope.
+     */
+    private static class PMProxyScope
+    {
+        PersistenceManager pm;
+    }
+
+    /** Binder of PM proxy delegates to JTA transactions (only when using JTA, and a TransactionSynchronizationRegistry is available). */
+    private transient volatile JTAPersistenceManagerBinder jtaProxyBinder;
+
+    /** Whether the lookup of the JTA binder has been performed. */
+    private transient volatile boolean jtaProxyBinderInitialised = false;
+
+    /** Statistics for the transactions of all PMs (null when not enabled). */
+    private transient JDOTransactionStatistics transactionStatistics = null;
+
+    /** Name under which the transaction statistics are registered with JMX (if registered). */
+    private transient String transactionStatisticsMBeanName = null;
+
+    /** Name under which the L2 cache statistics are registered with JMX (if registered). */
+    private transient String cacheStatisticsMBeanName = null;
+
     /**
      * Return a new PersistenceManagerFactory with options set according to the given Properties.
      * This method exists for JDO1 compliance whereas in JDO2+ the method takes a Map.
@@ -621,10 +660,25 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
      * method is called after close, then JDOUserException is thrown.
      * @see javax.jdo.PersistenceManagerFactory#close()
      */
-    public synchronized void close()
+    public void close()
     {
         checkJDOPermission(JDOPermission.CLOSE_PERSISTENCE_MANAGER_FACTORY);
 
+        // Stop any preload of the L2 cache before closing its PM, without holding the lock of this PMF (that the preload may need)
+        DataStoreCache dsCache = datastoreCache;
+        if (dsCache instanceof JDODataStoreCache)
+        {
+            ((JDODataStoreCache)dsCache).stopPreloads();
+        }
+
+        closeFactory();
+    }
+
+    /**
+     * Method to close this PMF, closing all PMs obtained from it. See {@link #close()}.
+     */
+    private synchronized void closeFactory()
+    {
         if (isClosed())
         {
             return;
@@ -634,7 +688,8 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
 
         // Check there are no active transactions before closing any PM
         Set<JDOUserException> exceptions = new HashSet<JDOUserException>();
-        for (JDOPersistenceManager pm : pmCache)
+        List<JDOPersistenceManager> pms = pmCache.getPersistenceManagers();
+        for (JDOPersistenceManager pm : pms)
         {
             ExecutionContext ec = pm.getExecutionContext();
             if (ec.getTransaction().isActive())
@@ -650,7 +705,7 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
         }
 
         // Close all PMs
-        for (JDOPersistenceManager pm : pmCache)
+        for (JDOPersistenceManager pm : pms)
         {
             pm.internalClose();
         }
@@ -686,6 +741,16 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
             datastoreCache.evictAll();
             datastoreCache = null;
         }
+        if (transactionStatisticsMBeanName != null && nucleusContext.getJMXManager() != null)
+        {
+            nucleusContext.getJMXManager().deregisterMBean(transactionStatisticsMBeanName);
+            transactionStatisticsMBeanName = null;
+        }
+        if (cacheStatisticsMBeanName != null && nucleusContext.getJMXManager() != null)
+        {
+            nucleusContext.getJMXManager().deregisterMBean(cacheStatisticsMBeanName);
+            cacheStatisticsMBeanName = null;
+        }
         if (queryCache != null)
         {
             queryCache.evictAll();
@@ -798,9 +863,17 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
         {
             // Initialise the MetaDataManager with all files/classes for this persistence-unit
             // This is done now that all PMF properties are set (including the persistence-unit props)
+            MetaDataManager mmgr = nucleusContext.getMetaDataManager();
             try
             {
-                nucleusContext.getMetaDataManager().loadPersistenceUnit(pumd, null);
+                int annotationParallelism = getConfiguration().getIntProperty(JDOPropertyNames.PROPERTY_METADATA_ANNOTATIONS_PARALLELISM);
+                if (annotationParallelism > 1 && mmgr instanceof JDOMetaDataManager && pumd.getClassNames() != null)
+                {
+                    // Read the annotations of the persistence-unit classes in parallel, ready for the (sequential) load
+                    ((JDOMetaDataManager)mmgr).prepareAnnotationsForClasses(pumd.getClassNames(), nucleusContext.getClassLoaderResolver(null), annotationParallelism);
+                }
+
+                mmgr.loadPersistenceUnit(pumd, null);
 
                 // Set validation mode if set on persistence-unit
                 if (pumd.getValidationMode() != null)
@@ -812,6 +885,13 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
             {
                 throw new JDOException(ne.getMessage(), ne);
             }
+            finally
+            {
+                if (mmgr instanceof JDOMetaDataManager)
+                {
+                    ((JDOMetaDataManager)mmgr).discardPreparedAnnotations();
+                }
+            }
         }
 
         // Turn off loading of metadata from here if required
@@ -865,7 +945,33 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
                     nucleusContext.initialise();
 
                     // Set up the Level 2 Cache
-                    datastoreCache = new JDODataStoreCache(nucleusContext.getLevel2Cache());
+                    datastoreCache = new JDODataStoreCache(nucleusContext.getLevel2Cache(), this);
+                    JDOLevel2CacheStatistics cacheStats = ((JDODataStoreCache)datastoreCache).getStatistics();
+                    if (cacheStats != null && nucleusContext.getJMXManager() != null)
+                    {
+                        ManagementManager jmxMgr = nucleusContext.getJMXManager();
+                        cacheStatisticsMBeanName = jmxMgr.getDomainName() + ":InstanceName=" + jmxMgr.getInstanceName() +
+                            ",Type=" + JDOLevel2CacheStatistics.class.getName() + ",Name=Level2CacheStatistics";
+                        jmxMgr.registerMBean(cacheStats, cacheStatisticsMBeanName);
+                    }
+
+                    // No PMs have been handed out yet, so the registry can be swapped for the configured tracking
+                    if (getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_PM_WEAK_TRACKING) && !pmCache.isWeak())
+                    {
+                        pmCache = new JDOPersistenceManagerRegistry(true);
+                    }
+
+                    if (getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_TRANSACTION_STATISTICS))
+                    {
+                        transactionStatistics = new JDOTransactionStatistics();
+                        ManagementManager jmxMgr = nucleusContext.getJMXManager();
+                        if (jmxMgr != null)
+                        {
+                            transactionStatisticsMBeanName = jmxMgr.getDomainName() + ":InstanceName=" + jmxMgr.getInstanceName() +
+                                ",Type=" + JDOTransactionStatistics.class.getName() + ",Name=TransactionStatistics";
+                            jmxMgr.registerMBean(transactionStatistics, transactionStatisticsMBeanName);
+                        }
+                    }
 
                     setIsNotConfigurable();
                 }
@@ -930,6 +1036,172 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
         return new JDOPersistenceManager(jdoPmf, userName, password);
     }
 
+    /**
+     * Method to bulk-ingest a (potentially very large) set of new objects, for append-only data loads, using a
+     * PersistenceManager of its own. Each chunk of objects is persisted in its own transaction, with lifecycle listeners,
+     * instance callbacks and bean validation suppressed.
+     * @param pcs The objects to persist
+     * @param batchSize Number of objects per chunk (and per transaction)
+     * @return Number of objects persisted
+     * @see JDOPersistenceManager#ingestAll(Iterable, int)
+     */
+    public long ingestAll(Iterable<?> pcs, int batchSize)
+    {
+        try (JDOPersistenceManager pm = (JDOPersistenceManager)getPersistenceManager())
+        {
+            return pm.ingestAll(pcs, batchSize);
+        }
+    }
+
+    /**
+     * Method to bulk-ingest a stream of new objects, for append-only data loads, using a PersistenceManager of its own.
+     * @param pcs The objects to persist
+     * @param batchSize Number of objects per chunk (and per transaction)
+     * @return Number of objects persisted
+     * @see #ingestAll(Iterable, int)
+     */
+    public long ingestAll(Stream<?> pcs, int batchSize)
+    {
+        try (JDOPersistenceManager pm = (JDOPersistenceManager)getPersistenceManager())
+        {
+            return pm.ingestAll(pcs, batchSize);
+        }
+    }
+
+    /**
+     * Method to execute a unit of work in a transaction, retrying it (in a new transaction) when it fails optimistic
+     * verification, according to the provided policy. All attempts use the same PersistenceManager, and before each retry
+     * only the objects that failed verification are evicted (from the L1 and L2 caches), so that the retry sees their current
+     * state while keeping the other cached objects. The unit of work must therefore be safe to repeat.
+     * @param work The unit of work, given the PersistenceManager to use (the transaction is begun/committed by this method)
+     * @param policy The retry policy
+     * @return The result of the unit of work
+     * @param <T> Type of the result
+     * @throws JDOOptimisticVerificationException if the last attempt failed optimistic verification
+     */
+    public <T> T executeInTransaction(Function<PersistenceManager, T> work, RetryPolicy policy)
+    {
+        policy.executionStarted();
+        try (JDOPersistenceManager pm = (JDOPersistenceManager)getPersistenceManager())
+        {
+            Transaction tx = pm.currentTransaction();
+            int attempt = 1;
+            while (true)
+            {
+                try
+                {
+                    tx.begin();
+                    T result = work.apply(pm);
+                    tx.commit();
+                    return result;
+                }
+                catch (JDOOptimisticVerificationException jove)
+                {
+                    if (tx.isActive())
+                    {
+                        tx.rollback();
+                    }
+                    if (attempt >= policy.getMaxAttempts())
+                    {
+                        policy.attemptsExhausted();
+                        throw jove;
+                    }
+
+                    evictConflictingObjects(pm, jove);
+                    policy.retrying();
+                    try
+                    {
+                        Thread.sleep(policy.getBackoffMillis(attempt));
+                    }
+                    catch (InterruptedException ie)
+                    {
+                        Thread.currentThread().interrupt();
+                        throw jove;
+                    }
+                    attempt++;
+                }
+                finally
+                {
+                    if (tx.isActive())
+                    {
+                        tx.rollback();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Convenience method to evict the objects that failed optimistic verification from the L1 and L2 caches.
+     * @param pm The PersistenceManager
+     * @param jove The optimistic exception, with the failed objects (possibly nested)
+     */
+    private void evictConflictingObjects(JDOPersistenceManager pm, JDOOptimisticVerificationException jove)
+    {
+        Set<Object> failedObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectFailedObjects(jove, failedObjects);
+
+        ExecutionContext ec = pm.getExecutionContext();
+        for (Object failedObject : failedObjects)
+        {
+            if (ec.getApiAdapter().isPersistable(failedObject))
+            {
+                Object id = ec.getApiAdapter().getIdForObject(failedObject);
+                if (id != null && datastoreCache != null)
+                {
+                    datastoreCache.evict(id);
+                }
+                if (ec.getApiAdapter().isPersistent(failedObject))
+                {
+                    try
+                    {
+                        pm.evict(failedObject);
+                    }
+                    catch (JDOException jdoe)
+                    {
+                        NucleusLogger.PERSISTENCE.debug("Unable to evict conflicting object " + id + " before retry : " + jdoe.getMessage());
+                    }
+                }
+            }
+            else if (datastoreCache != null)
+            {
+                // Failed object is the identity
+                datastoreCache.evict(failedObject);
+            }
+        }
+    }
+
+    private static void collectFailedObjects(Throwable thr, Set<Object> failedObjects)
+    {
+        if (thr instanceof OptimisticConflictException)
+        {
+            for (Object failedObject : ((OptimisticConflictException)thr).getFailedObjects())
+            {
+                if (failedObject != null)
+                {
+                    failedObjects.add(failedObject);
+                }
+            }
+            return;
+        }
+        if (thr instanceof JDOException)
+        {
+            JDOException jdoe = (JDOException)thr;
+            if (jdoe.getFailedObject() != null)
+            {
+                failedObjects.add(jdoe.getFailedObject());
+            }
+            Throwable[] nested = jdoe.getNestedExceptions();
+            if (nested != null)
+            {
+                for (Throwable nestedThr : nested)
+                {
+                    collectFailedObjects(nestedThr, failedObjects);
+                }
+            }
+        }
+    }
+
     public PersistenceNucleusContext getNucleusContext()
     {
         return nucleusContext;
@@ -1113,12 +1385,137 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
     }
 
     /**
-     * Convenience accessor for the thread-local delegate PM for this thread.
-     * If no thread-local is set then creates a new PM.
-     * @return The real PM to delegate to for this thread
+     * Method to run the provided task in a PM proxy scope. Any PM proxy used by the task (on this thread) delegates to a PM
+     * bound to the scope rather than to the thread, with that PM created on first use and closed when the task completes (rolling
+     * back any transaction left active). This suits servers using a (virtual) thread per request, since nothing is left in thread-local storage afterwards.
+     * If already in a scope then the task simply joins that scope.
+     * @param task The task to run
+     */
+    public void runInPersistenceManagerScope(Runnable task)
+    {
+        executeInPersistenceManagerScope(() ->
+        {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Method to execute the provided task in a PM proxy scope, returning its result.
+     * @param task The task to execute
+     * @return The result of the task
+     * @param <T> Type of the result
+     * @see #runInPersistenceManagerScope(Runnable)
+     */
+    public <T> T executeInPersistenceManagerScope(Supplier<T> task)
+    {
+        if (pmProxyScope.get() != null)
+        {
+            return task.get();
+        }
+
+        PMProxyScope scope = new PMProxyScope();
+        pmProxyScope.set(scope);
+        Throwable taskFailure = null;
+        try
+        {
+            return task.get();
+        }
+        catch (RuntimeException | Error e)
+        {
+            taskFailure = e;
+            throw e;
+        }
+        finally
+        {
+            pmProxyScope.remove();
+            closeScopePersistenceManager(scope.pm, taskFailure);
+        }
+    }
+
+    /**
+     * Convenience method to close the PM of a PM proxy scope (if any) at the end of the scope, rolling back any transaction that
+     * the task left active. If the task failed then any failure to close is added to the task failure as suppressed, rather than
+     * replacing it.
+     * @param pm The PM of the scope
+     * @param taskFailure Exception thrown by the task (if any)
+     */
+    private static void closeScopePersistenceManager(PersistenceManager pm, Throwable taskFailure)
+    {
+        if (pm == null || pm.isClosed())
+        {
+            return;
+        }
+
+        RuntimeException closeFailure = null;
+        try
+        {
+            if (pm.currentTransaction().isActive())
+            {
+                pm.currentTransaction().rollback();
+            }
+        }
+        catch (RuntimeException e)
+        {
+            closeFailure = e;
+        }
+        try
+        {
+            pm.close();
+        }
+        catch (RuntimeException e)
+        {
+            if (closeFailure == null)
+            {
+                closeFailure = e;
+            }
+            else
+            {
+                closeFailure.addSuppressed(e);
+            }
+        }
+
+        if (closeFailure != null)
+        {
+            if (taskFailure == null)
+            {
+                throw closeFailure;
+            }
+            taskFailure.addSuppressed(closeFailure);
+        }
+    }
+
+    /**
+     * Convenience accessor for the delegate PM for the current JTA transaction (when using JTA), otherwise for the current
+     * PM proxy scope, otherwise for this thread.
+     * If no delegate is set then creates a new PM.
+     * @return The real PM to delegate to
      */
     PersistenceManager getPMProxyDelegate()
     {
+        if (TransactionType.JTA.toString().equalsIgnoreCase(getTransactionType()))
+        {
+            JTAPersistenceManagerBinder binder = getJTAProxyBinder();
+            if (binder != null)
+            {
+                PersistenceManager pm = binder.getPersistenceManager(this);
+                if (pm != null)
+                {
+                    return pm;
+                }
+            }
+        }
+
+        PMProxyScope scope = pmProxyScope.get();
+        if (scope != null)
+        {
+            if (scope.pm == null)
+            {
+                scope.pm = getPersistenceManager();
+            }
+            return scope.pm;
+        }
+
         PersistenceManager pm = pmProxyThreadLocal.get();
         if (pm == null)
         {
@@ -1129,24 +1526,61 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
         return pm;
     }
 
+    private JTAPersistenceManagerBinder getJTAProxyBinder()
+    {
+        if (!jtaProxyBinderInitialised)
+        {
+            synchronized (this)
+            {
+                if (!jtaProxyBinderInitialised)
+                {
+                    jtaProxyBinder = JTAPersistenceManagerBinder.newInstance();
+                    jtaProxyBinderInitialised = true;
+                }
+            }
+        }
+        return jtaProxyBinder;
+    }
+
+    /**
+     * Accessor for the statistics of the transactions of the PMs of this factory.
+     * Requires the persistence property "datanucleus.transaction.statistics" to be enabled.
+     * @return The transaction statistics, or null if not enabled
+     */
+    public JDOTransactionStatistics getTransactionStatistics()
+    {
+        return transactionStatistics;
+    }
+
     /**
-     * Convenience method to clear the thread-local delegate PM that we refer to.
-     * This is invoked when the proxy PM has close() invoked.
+     * Convenience method to clear the delegate PM that we refer to (for the current scope, otherwise for this thread).
+     * This is invoked when the proxy PM has close() invoked. When there is no delegate then nothing is done.
      */
     void clearPMProxyDelegate()
     {
-        // TODO Is it safe to assume 'this' is actually the right PMF already?
-        PersistenceManagerFactory pmf = getPMProxyDelegate().getPersistenceManagerFactory();
-        String txnType = pmf.getTransactionType();
-        if (TransactionType.RESOURCE_LOCAL.toString().equalsIgnoreCase(txnType))
+        if (TransactionType.RESOURCE_LOCAL.toString().equalsIgnoreCase(getTransactionType()))
         {
-            // Close the PM and unset the thread-local
-            getPMProxyDelegate().close();
-            pmProxyThreadLocal.remove();
+            // Close the PM and unset the delegate
+            PMProxyScope scope = pmProxyScope.get();
+            PersistenceManager pm;
+            if (scope != null)
+            {
+                pm = scope.pm;
+                scope.pm = null;
+            }
+            else
+            {
+                pm = pmProxyThreadLocal.get();
+                pmProxyThreadLocal.remove();
+            }
+            if (pm != null && !pm.isClosed())
+            {
+                pm.close();
+            }
         }
-        else if (TransactionType.JTA.toString().equalsIgnoreCase(txnType))
+        else if (TransactionType.JTA.toString().equalsIgnoreCase(getTransactionType()))
         {
-            // Do nothing
+            // Do nothing : any PM bound to the JTA transaction is closed when that transaction completes
         }
     }
 
@@ -1298,10 +1732,7 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
      */
     public void releasePersistenceManager(JDOPersistenceManager pm)
     {
-        if (pmCache.contains(pm))
-        {
-            pmCache.remove(pm);
-        }
+        pmCache.remove(pm);
     }
 
     /**
@@ -2465,7 +2896,11 @@ public class JDOPersistenceManagerFactory implements PersistenceManagerFactory,
         configurable = true;
         if (pmCache == null)
         {
-            pmCache = Collections.newSetFromMap(new ConcurrentHashMap());
+            pmCache = new JDOPersistenceManagerRegistry(false);
+        }
+        if (pmProxyScope == null)
+        {
+            pmProxyScope = new ThreadLocal<>();
         }
         nucleusContext = new PersistenceNucleusContextImpl("JDO", deserialisationProps);
         PersistenceUnitMetaData pumd = null;
@@ -52,6 +52,10 @@ import javax.jdo.listener.InstanceLifecycleListener;
  * variable. The close() on the proxy clears the thread-local, so subsequent calls to 
  * getPersistenceManagerProxy() will create a new PM.
  * </p>
+ * <p>
+ * When used within JDOPersistenceManagerFactory.runInPersistenceManagerScope (or executeInPersistenceManagerScope) this
+ * instead delegates to a PM bound to that scope, which is closed at the end of the scope.
+ * </p>
  */
 public class JDOPersistenceManagerProxy implements PersistenceManager
 {
@@ -64,7 +68,7 @@ public class JDOPersistenceManagerProxy implements PersistenceManager
 
     /**
      * Accessor for the delegate PM that we hand off to.
-     * @return The delegate PM (from the PMF thread-local store)
+     * @return The delegate PM (from the PMF scope, or thread-local store)
      */
     protected PersistenceManager getPM()
     {
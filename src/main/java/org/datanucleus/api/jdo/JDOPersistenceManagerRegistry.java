@@ -0,0 +1,202 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the PersistenceManagers that are open for a PersistenceManagerFactory.
+ * The registry is striped into a number of segments (a power of 2, at least twice the number of processors), with a
+ * PersistenceManager always held in the segment selected by its identity hash code. This means that concurrent
+ * registration/release of different PersistenceManagers will (mostly) touch different segments rather than all contend
+ * on the same set.
+ * <p>
+ * When created with weak tracking, the PersistenceManagers are only held by weak reference, so a PersistenceManager that
+ * the user has dropped without closing can be garbage collected; such entries are swept from the registry on the next
+ * registration. Any PersistenceManager that has been garbage collected will not be closed when the PMF is closed.
+ * </p>
+ */
+class JDOPersistenceManagerRegistry
+{
+    /** Segments of the registry. Each element is either a JDOPersistenceManager, or a PMReference when using weak tracking. */
+    private final Set<Object>[] segments;
+
+    private final int segmentMask;
+
+    /** Queue of cleared references to PMs, when using weak tracking (otherwise null). */
+    private final ReferenceQueue<JDOPersistenceManager> clearedReferences;
+
+    /**
+     * Constructor.
+     * @param weak Whether to hold the PersistenceManagers by weak reference
+     */
+    @SuppressWarnings("unchecked")
+    JDOPersistenceManagerRegistry(boolean weak)
+    {
+        int numSegments = 1;
+        int minSegments = 2 * Runtime.getRuntime().availableProcessors();
+        while (numSegments < minSegments)
+        {
+            numSegments <<= 1;
+        }
+
+        segments = new Set[numSegments];
+        for (int i = 0; i < numSegments; i++)
+        {
+            segments[i] = ConcurrentHashMap.newKeySet();
+        }
+        segmentMask = numSegments - 1;
+        clearedReferences = weak ? new ReferenceQueue<>() : null;
+    }
+
+    /**
+     * Accessor for whether this registry holds its PersistenceManagers by weak reference.
+     * @return Whether using weak tracking
+     */
+    boolean isWeak()
+    {
+        return clearedReferences != null;
+    }
+
+    /**
+     * Method to register a PersistenceManager.
+     * @param pm The PersistenceManager
+     */
+    void add(JDOPersistenceManager pm)
+    {
+        int hash = System.identityHashCode(pm);
+        if (clearedReferences != null)
+        {
+            sweep();
+            getSegment(hash).add(new PMReference(pm, hash, clearedReferences));
+        }
+        else
+        {
+            getSegment(hash).add(pm);
+        }
+    }
+
+    /**
+     * Method to deregister a PersistenceManager.
+     * @param pm The PersistenceManager
+     */
+    void remove(JDOPersistenceManager pm)
+    {
+        int hash = System.identityHashCode(pm);
+        getSegment(hash).remove(clearedReferences != null ? new PMReference(pm, hash, null) : pm);
+    }
+
+    /**
+     * Accessor for the PersistenceManagers currently registered.
+     * @return The PersistenceManagers (a copy, so the registry can be updated while it is processed)
+     */
+    List<JDOPersistenceManager> getPersistenceManagers()
+    {
+        List<JDOPersistenceManager> pms = new ArrayList<>();
+        for (Set<Object> segment : segments)
+        {
+            for (Object entry : segment)
+            {
+                JDOPersistenceManager pm = (entry instanceof PMReference) ? ((PMReference) entry).get() : (JDOPersistenceManager) entry;
+                if (pm != null)
+                {
+                    pms.add(pm);
+                }
+            }
+        }
+        return pms;
+    }
+
+    /**
+     * Method to deregister all PersistenceManagers.
+     */
+    void clear()
+    {
+        for (Set<Object> segment : segments)
+        {
+            segment.clear();
+        }
+        if (clearedReferences != null)
+        {
+            while (clearedReferences.poll() != null)
+            {
+                // Discard since the segments are now empty
+            }
+        }
+    }
+
+    private Set<Object> getSegment(int hash)
+    {
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    /**
+     * Method to remove the entries for any PersistenceManagers that have been garbage collected.
+     */
+    private void sweep()
+    {
+        Reference<? extends JDOPersistenceManager> ref;
+        while ((ref = clearedReferences.poll()) != null)
+        {
+            PMReference pmRef = (PMReference) ref;
+            getSegment(pmRef.hash).remove(pmRef);
+        }
+    }
+
+    /**
+     * Weak reference to a PersistenceManager, with equality based on the identity of the PersistenceManager (or of the
+     * reference itself once cleared).
+     */
+    private static class PMReference extends WeakReference<JDOPersistenceManager>
+    {
+        final int hash;
+
+        PMReference(JDOPersistenceManager pm, int hash, ReferenceQueue<JDOPersistenceManager> queue)
+        {
+            super(pm, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (obj == this)
+            {
+                return true;
+            }
+            if (!(obj instanceof PMReference))
+            {
+                return false;
+            }
+            JDOPersistenceManager pm = get();
+            return pm != null && pm == ((PMReference) obj).get();
+        }
+    }
+}
@@ -23,4 +23,13 @@ package org.datanucleus.api.jdo;
 public class JDOPropertyNames
 {
     public static final String PROPERTY_METADATA_XML_JDO_1_0 = "datanucleus.metadata.xml.allowJDO1_0".toLowerCase();
+    public static final String PROPERTY_METADATA_ANNOTATIONS_PARALLELISM = "datanucleus.metadata.annotations.parallelism".toLowerCase();
+    public static final String PROPERTY_METADATA_LAZY_POPULATION = "datanucleus.metadata.lazyPopulation".toLowerCase();
+    public static final String PROPERTY_METADATA_XML_STREAMING_PARSER = "datanucleus.metadata.xml.streamingParser".toLowerCase();
+    public static final String PROPERTY_GET_OBJECTS_BY_ID_BATCH_SIZE = "datanucleus.getObjectsById.batchSize".toLowerCase();
+    public static final String PROPERTY_REFRESH_RETRIEVE_ALL_BATCH_BY_CLASS = "datanucleus.refreshRetrieveAll.batchByClass".toLowerCase();
+    public static final String PROPERTY_PM_WEAK_TRACKING = "datanucleus.persistenceManager.weakTracking".toLowerCase();
+    public static final String PROPERTY_TRANSACTION_STATISTICS = "datanucleus.transaction.statistics".toLowerCase();
+    public static final String PROPERTY_OPTIMISTIC_COMPACT_CONFLICTS = "datanucleus.optimistic.compactConflicts".toLowerCase();
+    public static final String PROPERTY_OPTIMISTIC_CAPTURE_STACK_TRACE = "datanucleus.optimistic.captureStackTrace".toLowerCase();
 }
\ No newline at end of file
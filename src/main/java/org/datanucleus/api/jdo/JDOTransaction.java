@@ -20,6 +20,8 @@ Contributors:
 **********************************************************************/
 package org.datanucleus.api.jdo;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.jdo.JDOOptimisticVerificationException;
@@ -29,6 +31,10 @@ import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Transaction;
 import javax.transaction.Synchronization;
 
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.PropertyNames;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.exceptions.OptimisticConflictException;
 import org.datanucleus.api.jdo.exceptions.TransactionActiveException;
 import org.datanucleus.api.jdo.exceptions.TransactionCommitingException;
 import org.datanucleus.exceptions.NucleusException;
@@ -41,12 +47,18 @@ import org.datanucleus.transaction.TransactionUtils;
  */
 public class JDOTransaction implements Transaction
 {
+    /** Option on the underlying transaction marking it as read-only (available to the store, e.g to use a read-only connection). */
+    public static final String OPTION_READ_ONLY = "datanucleus.transaction.readOnly";
+
     /** The underlying transaction */
     org.datanucleus.transaction.Transaction tx;
 
     /** JDO PersistenceManager. */
     JDOPersistenceManager pm;
 
+    /** Listener making the datastore read-only for the duration of each transaction, when transactions are read-only. */
+    private ReadOnlyListener readOnlyListener;
+
     /**
      * Constructor
      * @param pm The JDO PersistenceManager
@@ -88,6 +100,26 @@ public class JDOTransaction implements Transaction
      * Method to commit the transaction.
      */
     public void commit()
+    {
+        try
+        {
+            commitTransaction();
+        }
+        catch (JDOOptimisticVerificationException jove)
+        {
+            JDOTransactionStatistics txStats = pm.pmf.getTransactionStatistics();
+            if (txStats != null)
+            {
+                txStats.optimisticFailure();
+            }
+            throw jove;
+        }
+    }
+
+    /**
+     * Method to commit the underlying transaction, converting any exception into its JDO equivalent.
+     */
+    private void commitTransaction()
     {
         try
         {
@@ -95,6 +127,16 @@ public class JDOTransaction implements Transaction
         }
         catch (NucleusException ne)
         {
+            if (pm.pmf.getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_OPTIMISTIC_COMPACT_CONFLICTS))
+            {
+                // Report all optimistic failures in a single compact exception, avoiding the rewrapping below
+                List<NucleusOptimisticException> failures = new ArrayList<>();
+                if (collectOptimisticFailures(ne, failures) && !failures.isEmpty())
+                {
+                    throw getOptimisticConflictException(ne.getMessage(), failures);
+                }
+            }
+
             if (ne.getNestedExceptions() != null)
             {
                 // Single wrapper exception with multiple nested exceptions of the failed object(s)
@@ -182,6 +224,62 @@ public class JDOTransaction implements Transaction
         }
     }
 
+    /**
+     * Method to collect the optimistic exceptions nested (at any depth) in the provided exception.
+     * @param thr The exception
+     * @param failures The optimistic exceptions found
+     * @return Whether all of the (innermost) nested exceptions are optimistic exceptions
+     */
+    private static boolean collectOptimisticFailures(Throwable thr, List<NucleusOptimisticException> failures)
+    {
+        Throwable[] nested = (thr instanceof NucleusException) ? ((NucleusException) thr).getNestedExceptions() : null;
+        if (nested == null || nested.length == 0)
+        {
+            if (thr instanceof NucleusOptimisticException)
+            {
+                failures.add((NucleusOptimisticException) thr);
+                return true;
+            }
+            return false;
+        }
+
+        for (Throwable nestedThr : nested)
+        {
+            if (!collectOptimisticFailures(nestedThr, failures))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private OptimisticConflictException getOptimisticConflictException(String message, List<NucleusOptimisticException> failures)
+    {
+        ApiAdapter api = pm.getExecutionContext().getApiAdapter();
+        int numFailures = failures.size();
+        Object[] failedIds = new Object[numFailures];
+        Object[] expectedVersions = new Object[numFailures];
+        Object[] failedObjects = new Object[numFailures];
+        for (int i = 0; i < numFailures; i++)
+        {
+            Object failedObject = failures.get(i).getFailedObject();
+            failedObjects[i] = failedObject;
+            if (failedObject != null && api.isPersistable(failedObject))
+            {
+                failedIds[i] = api.getIdForObject(failedObject);
+                expectedVersions[i] = api.getVersionForObject(failedObject);
+            }
+            else
+            {
+                // Failed object may already be the identity
+                failedIds[i] = failedObject;
+            }
+        }
+
+        return OptimisticConflictException.newInstance(message, failedIds, expectedVersions, failedObjects,
+            pm.pmf.getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_OPTIMISTIC_CAPTURE_STACK_TRACE));
+    }
+
     /**
      * Method to rollback the transaction
      */
@@ -233,6 +331,16 @@ public class JDOTransaction implements Transaction
         return tx.getOptimistic();
     }
 
+    /**
+     * Accessor for whether transactions are read-only.
+     * @return Whether read-only
+     */
+    public boolean getReadOnly()
+    {
+        Map<String, Object> txOptions = tx.getOptions();
+        return txOptions != null && Boolean.TRUE.equals(txOptions.get(OPTION_READ_ONLY));
+    }
+
     /**
      * Accessor for restoreValues setting
      * @return The setting for restoreValues
@@ -310,6 +418,33 @@ public class JDOTransaction implements Transaction
         tx.setOptimistic(opt);
     }
 
+    /**
+     * Mutator for whether transactions (of this PM) are read-only.
+     * In a read-only transaction, objects read are loaded (or refreshed) as for any other transaction, but no before-images are
+     * saved since nothing can be updated. Objects read in a datastore transaction still become P_CLEAN and are enlisted in the
+     * transaction, so that each is refreshed once rather than on every read. Any attempt to update a field throws a JDO TransactionNotWritableException, and any
+     * other update of the datastore during the transaction is rejected as for a read-only datastore. Outside of a transaction
+     * the PM behaves as it would otherwise (e.g for nontransactional writes).
+     * The underlying transaction has the option {@link #OPTION_READ_ONLY} set so that the store can act on it.
+     * @param readOnly Whether transactions are read-only
+     */
+    public void setReadOnly(boolean readOnly)
+    {
+        assertNotInUse();
+        assertNotCommitting();
+        tx.setOption(OPTION_READ_ONLY, readOnly);
+        if (readOnly && readOnlyListener == null)
+        {
+            readOnlyListener = new ReadOnlyListener();
+            tx.bindTransactionEventListener(readOnlyListener);
+        }
+        else if (!readOnly && readOnlyListener != null)
+        {
+            tx.removeTransactionEventListener(readOnlyListener);
+            readOnlyListener = null;
+        }
+    }
+
     /**
      * Mutator for the restore values setting
      * @param restore Whether to restore values
@@ -544,4 +679,66 @@ public class JDOTransaction implements Transaction
     {
         tx.removeTransactionEventListener(listener);
     }
+
+    /**
+     * Listener marking the datastore of the PM as read-only when a read-only transaction starts, and restoring the previous
+     * setting when the transaction ends (commit or rollback).
+     */
+    private class ReadOnlyListener implements TransactionEventListener
+    {
+        /** Setting of the datastore read-only property before the current transaction, or null when not in a transaction. */
+        private Boolean previousReadOnlyDatastore;
+
+        public void transactionStarted()
+        {
+            ExecutionContext ec = pm.getExecutionContext();
+            previousReadOnlyDatastore = Boolean.TRUE.equals(ec.getBooleanProperty(PropertyNames.PROPERTY_DATASTORE_READONLY));
+            ec.setProperty(PropertyNames.PROPERTY_DATASTORE_READONLY, Boolean.TRUE);
+        }
+
+        public void transactionEnded()
+        {
+            if (previousReadOnlyDatastore != null)
+            {
+                pm.getExecutionContext().setProperty(PropertyNames.PROPERTY_DATASTORE_READONLY, previousReadOnlyDatastore);
+                previousReadOnlyDatastore = null;
+            }
+        }
+
+        public void transactionPreFlush()
+        {
+        }
+
+        public void transactionFlushed()
+        {
+        }
+
+        public void transactionPreCommit()
+        {
+        }
+
+        public void transactionCommitted()
+        {
+        }
+
+        public void transactionPreRollBack()
+        {
+        }
+
+        public void transactionRolledBack()
+        {
+        }
+
+        public void transactionSetSavepoint(String name)
+        {
+        }
+
+        public void transactionReleaseSavepoint(String name)
+        {
+        }
+
+        public void transactionRollbackToSavepoint(String name)
+        {
+        }
+    }
 }
\ No newline at end of file
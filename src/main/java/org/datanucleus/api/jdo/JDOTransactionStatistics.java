@@ -0,0 +1,219 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.datanucleus.transaction.TransactionEventListener;
+
+/**
+ * Statistics for the transactions of all PMs of a PMF, aggregated across PMs.
+ * Counters are striped (LongAdder) so that recording from many concurrent transactions doesn't contend.
+ * Enabled by the persistence property "datanucleus.transaction.statistics", and registered with JMX when JMX is enabled.
+ */
+public class JDOTransactionStatistics implements JDOTransactionStatisticsMBean
+{
+    private final LongAdder started = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder rolledBack = new LongAdder();
+    private final LongAdder optimisticFailures = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder objectsFlushed = new LongAdder();
+
+    /** Total of the begin-to-commit latency of committed transactions (nanoseconds). */
+    private final LongAdder commitLatencyTotal = new LongAdder();
+
+    /** Maximum begin-to-commit latency of a committed transaction (nanoseconds). */
+    private final LongAccumulator commitLatencyMax = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Method to create a listener for recording the transactions of a PM into these statistics.
+     * @return The listener (for use by a single PM)
+     */
+    TransactionListener newTransactionListener()
+    {
+        return new TransactionListener();
+    }
+
+    void optimisticFailure()
+    {
+        optimisticFailures.increment();
+    }
+
+    public long getTransactionsStarted()
+    {
+        return started.sum();
+    }
+
+    public long getTransactionsCommitted()
+    {
+        return committed.sum();
+    }
+
+    public long getTransactionsRolledBack()
+    {
+        return rolledBack.sum();
+    }
+
+    public long getOptimisticFailures()
+    {
+        return optimisticFailures.sum();
+    }
+
+    public long getFlushes()
+    {
+        return flushes.sum();
+    }
+
+    public long getObjectsFlushed()
+    {
+        return objectsFlushed.sum();
+    }
+
+    public double getAverageCommitLatencyMillis()
+    {
+        long numCommitted = committed.sum();
+        return numCommitted == 0 ? 0 : (double) commitLatencyTotal.sum() / numCommitted / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxCommitLatencyMillis()
+    {
+        return (double) commitLatencyMax.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getAverageFlushesPerCommit()
+    {
+        long numCommitted = committed.sum();
+        return numCommitted == 0 ? 0 : (double) flushes.sum() / numCommitted;
+    }
+
+    public double getAverageObjectsFlushedPerCommit()
+    {
+        long numCommitted = committed.sum();
+        return numCommitted == 0 ? 0 : (double) objectsFlushed.sum() / numCommitted;
+    }
+
+    /**
+     * Accessor for the proportion of completed transactions that were rolled back.
+     * @return The rollback rate (0 to 1)
+     */
+    public double getRollbackRate()
+    {
+        long numRolledBack = rolledBack.sum();
+        long numCompleted = committed.sum() + numRolledBack;
+        return numCompleted == 0 ? 0 : (double) numRolledBack / numCompleted;
+    }
+
+    /**
+     * Accessor for the proportion of commit attempts that failed optimistic verification.
+     * @return The optimistic failure rate (0 to 1)
+     */
+    public double getOptimisticFailureRate()
+    {
+        long numFailures = optimisticFailures.sum();
+        long numAttempts = committed.sum() + numFailures;
+        return numAttempts == 0 ? 0 : (double) numFailures / numAttempts;
+    }
+
+    public void reset()
+    {
+        started.reset();
+        committed.reset();
+        rolledBack.reset();
+        optimisticFailures.reset();
+        flushes.reset();
+        objectsFlushed.reset();
+        commitLatencyTotal.reset();
+        commitLatencyMax.reset();
+    }
+
+    public String toString()
+    {
+        return "JDOTransactionStatistics [started=" + getTransactionsStarted() + " committed=" + getTransactionsCommitted() +
+            " rolledBack=" + getTransactionsRolledBack() + " optimisticFailures=" + getOptimisticFailures() +
+            " flushes=" + getFlushes() + " objectsFlushed=" + getObjectsFlushed() + " avgCommitLatencyMs=" + getAverageCommitLatencyMillis() + "]";
+    }
+
+    /**
+     * Listener for the transaction events of a single PM, recording into the owning statistics.
+     * Only used by the thread using the PM, so holds the state of the current transaction without synchronisation.
+     */
+    class TransactionListener implements TransactionEventListener
+    {
+        private long startTime;
+
+        void objectFlushed()
+        {
+            objectsFlushed.increment();
+        }
+
+        public void transactionStarted()
+        {
+            startTime = System.nanoTime();
+            started.increment();
+        }
+
+        public void transactionEnded()
+        {
+        }
+
+        public void transactionPreFlush()
+        {
+        }
+
+        public void transactionFlushed()
+        {
+            flushes.increment();
+        }
+
+        public void transactionPreCommit()
+        {
+        }
+
+        public void transactionCommitted()
+        {
+            long latency = System.nanoTime() - startTime;
+            committed.increment();
+            commitLatencyTotal.add(latency);
+            commitLatencyMax.accumulate(latency);
+        }
+
+        public void transactionPreRollBack()
+        {
+        }
+
+        public void transactionRolledBack()
+        {
+            rolledBack.increment();
+        }
+
+        public void transactionSetSavepoint(String name)
+        {
+        }
+
+        public void transactionReleaseSavepoint(String name)
+        {
+        }
+
+        public void transactionRollbackToSavepoint(String name)
+        {
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+/**
+ * MBean interface for the transaction statistics of a PMF.
+ */
+public interface JDOTransactionStatisticsMBean
+{
+    long getTransactionsStarted();
+
+    long getTransactionsCommitted();
+
+    long getTransactionsRolledBack();
+
+    long getOptimisticFailures();
+
+    long getFlushes();
+
+    long getObjectsFlushed();
+
+    double getAverageCommitLatencyMillis();
+
+    double getMaxCommitLatencyMillis();
+
+    double getAverageFlushesPerCommit();
+
+    double getAverageObjectsFlushedPerCommit();
+
+    double getRollbackRate();
+
+    double getOptimisticFailureRate();
+
+    void reset();
+}
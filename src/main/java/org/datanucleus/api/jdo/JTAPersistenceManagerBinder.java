@@ -0,0 +1,186 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.function.Supplier;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Transaction;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.datanucleus.util.NucleusLogger;
+
+/**
+ * Binds the delegate PM of a PM proxy to the current JTA transaction, using the TransactionSynchronizationRegistry
+ * of the container. The first use of a proxy in a JTA transaction creates a PM and registers it as a resource of that
+ * transaction, so any subsequent use of a proxy (for the same PMF) in that transaction delegates to the same PM.
+ * The PM is closed when the transaction completes, once DataNucleus has itself completed the transaction of the PM.
+ * Only referenced when the PMF uses JTA transactions, since the JTA API is an optional dependency.
+ */
+class JTAPersistenceManagerBinder
+{
+    /** JNDI name of the TransactionSynchronizationRegistry in a Java EE container. */
+    static final String REGISTRY_JNDI_NAME = "java:comp/TransactionSynchronizationRegistry";
+
+    private final TransactionSynchronizationRegistry registry;
+
+    JTAPersistenceManagerBinder(TransactionSynchronizationRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * Method to create a binder using the TransactionSynchronizationRegistry of the container.
+     * @return The binder, or null if no TransactionSynchronizationRegistry is available
+     */
+    static JTAPersistenceManagerBinder newInstance()
+    {
+        try
+        {
+            Object registry = new InitialContext().lookup(REGISTRY_JNDI_NAME);
+            if (registry instanceof TransactionSynchronizationRegistry)
+            {
+                return new JTAPersistenceManagerBinder((TransactionSynchronizationRegistry) registry);
+            }
+        }
+        catch (NamingException ne)
+        {
+            NucleusLogger.TRANSACTION.debug("No TransactionSynchronizationRegistry found at " + REGISTRY_JNDI_NAME + " : " + ne.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Accessor for the PM bound to the current JTA transaction for the specified PMF, creating and binding one if not yet present.
+     * @param pmf The PMF
+     * @return The PM, or null if there is no JTA transaction associated with the current thread
+     */
+    PersistenceManager getPersistenceManager(JDOPersistenceManagerFactory pmf)
+    {
+        return getPersistenceManager(pmf, pmf::getPersistenceManager);
+    }
+
+    /**
+     * Accessor for the PM bound to the current JTA transaction under the specified key, creating and binding one if not yet present.
+     * @param key Key of the PM in the transaction resources
+     * @param pmSupplier Supplier of a new PM
+     * @return The PM, or null if there is no JTA transaction associated with the current thread
+     */
+    PersistenceManager getPersistenceManager(Object key, Supplier<PersistenceManager> pmSupplier)
+    {
+        if (registry.getTransactionKey() == null)
+        {
+            return null;
+        }
+
+        PersistenceManager pm = (PersistenceManager) registry.getResource(key);
+        if (pm == null || pm.isClosed())
+        {
+            final PersistenceManager txPM = pmSupplier.get();
+            registry.putResource(key, txPM);
+            registry.registerInterposedSynchronization(new Synchronization()
+            {
+                public void beforeCompletion()
+                {
+                }
+
+                public void afterCompletion(int status)
+                {
+                    closeWhenTransactionEnded(txPM);
+                }
+            });
+            pm = txPM;
+        }
+        return pm;
+    }
+
+    /**
+     * Method to close the specified PM once its transaction has ended.
+     * Interposed synchronizations are called before the synchronization that DataNucleus registers for its own handling of the
+     * JTA transaction, so when the PM transaction is still active this defers the close to the (JDO) synchronization of the PM
+     * transaction, which DataNucleus calls once it has completed the transaction.
+     * @param pm The PM
+     */
+    static void closeWhenTransactionEnded(final PersistenceManager pm)
+    {
+        if (pm.isClosed())
+        {
+            return;
+        }
+
+        Transaction tx = pm.currentTransaction();
+        if (tx.isActive())
+        {
+            final Synchronization userSync = tx.getSynchronization();
+            tx.setSynchronization(new Synchronization()
+            {
+                public void beforeCompletion()
+                {
+                    if (userSync != null)
+                    {
+                        userSync.beforeCompletion();
+                    }
+                }
+
+                public void afterCompletion(int status)
+                {
+                    try
+                    {
+                        if (userSync != null)
+                        {
+                            userSync.afterCompletion(status);
+                        }
+                    }
+                    finally
+                    {
+                        close(pm);
+                    }
+                }
+            });
+            return;
+        }
+
+        close(pm);
+    }
+
+    private static void close(PersistenceManager pm)
+    {
+        if (pm.isClosed())
+        {
+            return;
+        }
+        if (pm.currentTransaction().isActive())
+        {
+            // Closing now would fail (and release the PM from its PMF regardless), so leave it open and tracked by the PMF
+            NucleusLogger.TRANSACTION.warn("PM bound to JTA transaction not closed on completion since its transaction is still active");
+            return;
+        }
+
+        try
+        {
+            pm.close();
+        }
+        catch (RuntimeException re)
+        {
+            NucleusLogger.TRANSACTION.warn("Exception closing PM bound to JTA transaction on completion", re);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Policy for retrying a unit of work that fails optimistic verification, for use with
+ * {@link JDOPersistenceManagerFactory#executeInTransaction(java.util.function.Function, RetryPolicy)}.
+ * Between attempts the caller backs off for a random time (full jitter) up to an exponentially increasing limit.
+ * The policy also records metrics of the executions that use it, so a policy shared by a service gives its totals.
+ */
+public class RetryPolicy
+{
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * Constructor.
+     * @param maxAttempts Maximum number of attempts (including the first)
+     * @param initialBackoffMillis Limit of the backoff before the first retry (doubled for each subsequent retry)
+     * @param maxBackoffMillis Maximum limit of any backoff
+     */
+    public RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis)
+    {
+        if (maxAttempts < 1)
+        {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = Math.max(0, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+    }
+
+    public int getMaxAttempts()
+    {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis()
+    {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis()
+    {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * Accessor for the time to back off for after the specified (failed) attempt.
+     * @param attempt The attempt that failed (starting at 1)
+     * @return The backoff time (millisecs), random between 0 and the limit for that attempt
+     */
+    public long getBackoffMillis(int attempt)
+    {
+        long limit = initialBackoffMillis << Math.min(attempt - 1, 30);
+        if (limit <= 0 || limit > maxBackoffMillis)
+        {
+            limit = maxBackoffMillis;
+        }
+        return limit > 0 ? ThreadLocalRandom.current().nextLong(limit + 1) : 0;
+    }
+
+    /**
+     * Accessor for the number of executions that have used this policy.
+     * @return Number of executions
+     */
+    public long getExecutions()
+    {
+        return executions.sum();
+    }
+
+    /**
+     * Accessor for the number of retries performed by executions using this policy.
+     * @return Number of retries
+     */
+    public long getRetries()
+    {
+        return retries.sum();
+    }
+
+    /**
+     * Accessor for the number of executions that failed optimistic verification on all of their attempts.
+     * @return Number of exhausted executions
+     */
+    public long getExhausted()
+    {
+        return exhausted.sum();
+    }
+
+    void executionStarted()
+    {
+        executions.increment();
+    }
+
+    void retrying()
+    {
+        retries.increment();
+    }
+
+    void attemptsExhausted()
+    {
+        exhausted.increment();
+    }
+
+    public String toString()
+    {
+        return "RetryPolicy [maxAttempts=" + maxAttempts + " backoff=" + initialBackoffMillis + "-" + maxBackoffMillis + "ms executions=" + getExecutions() +
+            " retries=" + getRetries() + " exhausted=" + getExhausted() + "]";
+    }
+}
@@ -0,0 +1,213 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.datanucleus.NucleusContext;
+import org.datanucleus.cache.CachedPC;
+import org.datanucleus.cache.SoftLevel2Cache;
+import org.datanucleus.identity.IdentityUtils;
+
+/**
+ * Level 2 Cache using soft references (as "soft"), which additionally records statistics of its use per class of cached object.
+ * Enabled by setting the persistence property "datanucleus.cache.level2.type" to "soft-statistics", with the statistics
+ * available from {@link JDODataStoreCache#getStatistics()} (and via JMX when enabled).
+ */
+public class StatisticsLevel2Cache extends SoftLevel2Cache
+{
+    private static final long serialVersionUID = -2093464786527359284L;
+
+    /** Estimated size of a cached object excluding its field values (bytes). */
+    private static final int CACHED_OBJECT_OVERHEAD = 64;
+
+    /** Estimated size per loaded field value of a cached object (bytes). */
+    private static final int CACHED_FIELD_SIZE = 32;
+
+    private final transient JDOLevel2CacheStatistics statistics = new JDOLevel2CacheStatistics(this);
+
+    /**
+     * Constructor.
+     * @param nucleusCtx Context
+     */
+    public StatisticsLevel2Cache(NucleusContext nucleusCtx)
+    {
+        super(nucleusCtx);
+    }
+
+    /**
+     * Accessor for the statistics of this cache.
+     * @return The statistics
+     */
+    public JDOLevel2CacheStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    @Override
+    public CachedPC get(Object oid)
+    {
+        CachedPC cachedPC = super.get(oid);
+        if (cachedPC != null)
+        {
+            statistics.getOrCreateStatisticsForClass(cachedPC.getObjectClass().getName()).hits.increment();
+        }
+        else
+        {
+            statistics.getOrCreateStatisticsForClass(IdentityUtils.getTargetClassNameForIdentity(oid)).misses.increment();
+        }
+        return cachedPC;
+    }
+
+    @Override
+    public Map<Object, CachedPC> getAll(Collection oids)
+    {
+        Map<Object, CachedPC> cachedPCs = new HashMap<>();
+        if (oids != null)
+        {
+            for (Object oid : oids)
+            {
+                CachedPC cachedPC = get(oid);
+                if (cachedPC != null)
+                {
+                    cachedPCs.put(oid, cachedPC);
+                }
+            }
+        }
+        return cachedPCs;
+    }
+
+    @Override
+    public CachedPC put(Object oid, CachedPC pc)
+    {
+        CachedPC previous = super.put(oid, pc);
+        if (pc != null)
+        {
+            JDOLevel2CacheStatistics.ClassStatistics classStats = statistics.getOrCreateStatisticsForClass(pc.getObjectClass().getName());
+            classStats.puts.increment();
+            classStats.approximateBytes.add(getApproximateSize(pc) - (previous != null ? getApproximateSize(previous) : 0));
+        }
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<Object, CachedPC> objs)
+    {
+        if (objs != null)
+        {
+            for (Map.Entry<Object, CachedPC> entry : objs.entrySet())
+            {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void evict(Object oid)
+    {
+        // Level2Cache.evict doesn't return the evicted object, so look it up first for its class and estimated size
+        CachedPC cachedPC = oid != null ? super.get(oid) : null;
+        super.evict(oid);
+        if (cachedPC != null)
+        {
+            JDOLevel2CacheStatistics.ClassStatistics classStats = statistics.getOrCreateStatisticsForClass(cachedPC.getObjectClass().getName());
+            classStats.evictions.increment();
+            classStats.approximateBytes.add(-getApproximateSize(cachedPC));
+        }
+    }
+
+    @Override
+    public void evictAll(Object[] oids)
+    {
+        if (oids != null)
+        {
+            for (Object oid : oids)
+            {
+                evict(oid);
+            }
+        }
+    }
+
+    @Override
+    public void evictAll(Collection oids)
+    {
+        if (oids != null)
+        {
+            for (Object oid : oids)
+            {
+                evict(oid);
+            }
+        }
+    }
+
+    @Override
+    public void evictAll(Class pcClass, boolean subclasses)
+    {
+        super.evictAll(pcClass, subclasses);
+
+        // Number of objects evicted is not known, so just clear the memory estimate of the affected classes
+        for (Map.Entry<String, JDOLevel2CacheStatistics.ClassStatistics> entry : statistics.getStatisticsByClass().entrySet())
+        {
+            if (entry.getKey().equals(pcClass.getName()) || (subclasses && isSubclass(entry.getKey(), pcClass)))
+            {
+                entry.getValue().approximateBytes.reset();
+            }
+        }
+    }
+
+    @Override
+    public void evictAll()
+    {
+        super.evictAll();
+        for (JDOLevel2CacheStatistics.ClassStatistics classStats : statistics.getStatisticsByClass().values())
+        {
+            classStats.approximateBytes.reset();
+        }
+    }
+
+    private static boolean isSubclass(String className, Class pcClass)
+    {
+        try
+        {
+            return pcClass.isAssignableFrom(Class.forName(className, false, pcClass.getClassLoader()));
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    private static long getApproximateSize(CachedPC cachedPC)
+    {
+        int numLoaded = 0;
+        boolean[] loadedFields = cachedPC.getLoadedFields();
+        if (loadedFields != null)
+        {
+            for (boolean loaded : loadedFields)
+            {
+                if (loaded)
+                {
+                    numLoaded++;
+                }
+            }
+        }
+        return CACHED_OBJECT_OVERHEAD + (long) CACHED_FIELD_SIZE * numLoaded;
+    }
+}
@@ -0,0 +1,137 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo.exceptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jdo.JDOUserException;
+
+/**
+ * A <i>BulkOperationException</i> is thrown when an operation on a collection of objects fails for some of the objects.
+ * Rather than an exception per failed object, the failures are provided as the positions of the failed objects in the input,
+ * together with the reason for each. As with other JDO exceptions for multiple objects, {@link #getNestedExceptions()} has one
+ * exception per failed object; those for failures that didn't raise an exception are only created when first asked for.
+ */
+public class BulkOperationException extends JDOUserException
+{
+    private static final long serialVersionUID = 4581945723806423147L;
+
+    /** Maximum number of failures to include in the message. */
+    private static final int MAX_FAILURES_IN_MESSAGE = 10;
+
+    private final int[] failedIndices;
+
+    private final String[] failureReasons;
+
+    private final transient Object[] failedObjects;
+
+    /** Exception for each failed object, null where the failure didn't raise one and it hasn't yet been asked for. */
+    private final Throwable[] failureExceptions;
+
+    /**
+     * Constructor.
+     * @param message the localized error message
+     * @param failedIndices Positions (in the input) of the objects that failed
+     * @param failureReasons Reason for the failure of each of these objects
+     * @param failedObjects The objects that failed
+     * @param failureExceptions Exception thrown for the failure of each of these objects, or null where none was thrown
+     */
+    public BulkOperationException(String message, int[] failedIndices, String[] failureReasons, Object[] failedObjects, Throwable[] failureExceptions)
+    {
+        super(getMessage(message, failedIndices, failureReasons), getDistinctExceptions(failureExceptions));
+        this.failedIndices = failedIndices;
+        this.failureReasons = failureReasons;
+        this.failedObjects = failedObjects;
+        this.failureExceptions = failureExceptions.clone();
+    }
+
+    /**
+     * Accessor for the exception of each failed object (in the same order as the failed positions). For a failure that didn't
+     * raise an exception, a JDOUserException with the reason and failed object is created (on first access).
+     * @return The exceptions
+     */
+    @Override
+    public synchronized Throwable[] getNestedExceptions()
+    {
+        for (int i = 0; i < failureExceptions.length; i++)
+        {
+            if (failureExceptions[i] == null)
+            {
+                failureExceptions[i] = new JDOUserException(failureReasons[i], failedObjects != null ? failedObjects[i] : null);
+            }
+        }
+        return failureExceptions.clone();
+    }
+
+    /**
+     * Accessor for the positions (in the input) of the objects that failed.
+     * @return The failed positions
+     */
+    public int[] getFailedIndices()
+    {
+        return failedIndices;
+    }
+
+    /**
+     * Accessor for the reason for each failure (in the same order as the failed positions).
+     * @return The reasons
+     */
+    public String[] getFailureReasons()
+    {
+        return failureReasons;
+    }
+
+    /**
+     * Accessor for the objects that failed (in the same order as the failed positions).
+     * @return The failed objects
+     */
+    public Object[] getFailedObjects()
+    {
+        return failedObjects;
+    }
+
+    private static Throwable[] getDistinctExceptions(Throwable[] failureExceptions)
+    {
+        // Consecutive failed objects (e.g of a chunk) can share an exception, so only include it once
+        List<Throwable> distinct = new ArrayList<>();
+        for (Throwable thr : failureExceptions)
+        {
+            if (thr != null && (distinct.isEmpty() || distinct.get(distinct.size() - 1) != thr))
+            {
+                distinct.add(thr);
+            }
+        }
+        return distinct.toArray(new Throwable[0]);
+    }
+
+    private static String getMessage(String message, int[] failedIndices, String[] failureReasons)
+    {
+        StringBuilder str = new StringBuilder(message);
+        str.append(" (").append(failedIndices.length).append(" failures :");
+        for (int i = 0; i < failedIndices.length && i < MAX_FAILURES_IN_MESSAGE; i++)
+        {
+            str.append(i > 0 ? ", [" : " [").append(failedIndices[i]).append("] ").append(failureReasons[i]);
+        }
+        if (failedIndices.length > MAX_FAILURES_IN_MESSAGE)
+        {
+            str.append(", ...");
+        }
+        return str.append(")").toString();
+    }
+}
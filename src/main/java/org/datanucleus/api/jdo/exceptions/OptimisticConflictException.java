@@ -0,0 +1,124 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo.exceptions;
+
+import javax.jdo.JDOOptimisticVerificationException;
+
+/**
+ * An <i>OptimisticConflictException</i> is a compact form of JDOOptimisticVerificationException, thrown on commit when the
+ * optimistic verification of some objects failed. Rather than a nested exception per failed object, the conflicts are
+ * provided as the identities of the failed objects together with the version that the transaction expected for each.
+ * Creation of the stack trace is optional (see {@link #newInstance(String, Object[], Object[], Object[], boolean)}), so
+ * that retry loops with frequent conflicts don't pay for it.
+ */
+public class OptimisticConflictException extends JDOOptimisticVerificationException
+{
+    private static final long serialVersionUID = -3387019426354871215L;
+
+    private final Object[] failedObjectIds;
+
+    private final Object[] expectedVersions;
+
+    private final transient Object[] failedObjects;
+
+    /**
+     * Constructor.
+     * @param message the localized error message
+     * @param failedObjectIds Identities of the objects that failed verification
+     * @param expectedVersions Version that the transaction expected for each of these objects (null where not known)
+     * @param failedObjects The objects that failed verification
+     */
+    public OptimisticConflictException(String message, Object[] failedObjectIds, Object[] expectedVersions, Object[] failedObjects)
+    {
+        super(message + " (" + failedObjectIds.length + " conflicts)", failedObjects.length == 1 ? failedObjects[0] : null);
+        this.failedObjectIds = failedObjectIds;
+        this.expectedVersions = expectedVersions;
+        this.failedObjects = failedObjects;
+    }
+
+    /**
+     * Method to create an exception for the specified conflicts.
+     * @param message the localized error message
+     * @param failedObjectIds Identities of the objects that failed verification
+     * @param expectedVersions Version that the transaction expected for each of these objects (null where not known)
+     * @param failedObjects The objects that failed verification
+     * @param captureStackTrace Whether to fill in the stack trace of the exception
+     * @return The exception
+     */
+    public static OptimisticConflictException newInstance(String message, Object[] failedObjectIds, Object[] expectedVersions, Object[] failedObjects,
+            boolean captureStackTrace)
+    {
+        return captureStackTrace ? new OptimisticConflictException(message, failedObjectIds, expectedVersions, failedObjects) :
+            new StacklessOptimisticConflictException(message, failedObjectIds, expectedVersions, failedObjects);
+    }
+
+    /**
+     * Accessor for the number of objects that failed verification.
+     * @return Number of conflicts
+     */
+    public int getNumberOfConflicts()
+    {
+        return failedObjectIds.length;
+    }
+
+    /**
+     * Accessor for the identities of the objects that failed verification.
+     * @return The identities
+     */
+    public Object[] getFailedObjectIds()
+    {
+        return failedObjectIds;
+    }
+
+    /**
+     * Accessor for the version that the transaction expected for each failed object (in the same order as the identities).
+     * @return The expected versions
+     */
+    public Object[] getExpectedVersions()
+    {
+        return expectedVersions;
+    }
+
+    /**
+     * Accessor for the objects that failed verification (in the same order as the identities).
+     * @return The failed objects
+     */
+    public Object[] getFailedObjects()
+    {
+        return failedObjects;
+    }
+
+    /**
+     * Variant that doesn't fill in its stack trace.
+     */
+    private static class StacklessOptimisticConflictException extends OptimisticConflictException
+    {
+        private static final long serialVersionUID = 6125072365406513729L;
+
+        StacklessOptimisticConflictException(String message, Object[] failedObjectIds, Object[] expectedVersions, Object[] failedObjects)
+        {
+            super(message, failedObjectIds, expectedVersions, failedObjects);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace()
+        {
+            return this;
+        }
+    }
+}
@@ -978,16 +978,19 @@ public class JDOAnnotationReader extends AbstractAnnotationReader
                     else if (converterCls != null)
                     {
                         TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                        if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                        synchronized (typeMgr)
                         {
-                            // Not yet cached an instance of this converter so create one
-                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
-                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, member.getType());
-                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
-
-                            // Register the TypeConverter under the name of the AttributeConverter class
-                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                            typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                            {
+                                // Not yet cached an instance of this converter so create one
+                                AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
+                                Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, member.getType());
+                                Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
+
+                                // Register the TypeConverter under the name of the AttributeConverter class
+                                JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                                typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            }
                         }
 
                         mmd.setTypeConverterName(converterCls.getName());
@@ -1296,17 +1299,20 @@ public class JDOAnnotationReader extends AbstractAnnotationReader
                     else if (converterCls != null)
                     {
                         TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                        if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                        synchronized (typeMgr)
                         {
-                            // Not yet cached an instance of this converter so create one
-                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
-                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, 
-                                ClassUtils.getCollectionElementType(member.getType(), member.getGenericType()));
-                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
-
-                            // Register the TypeConverter under the name of the AttributeConverter class
-                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                            typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                            {
+                                // Not yet cached an instance of this converter so create one
+                                AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
+                                Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, 
+                                    ClassUtils.getCollectionElementType(member.getType(), member.getGenericType()));
+                                Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
+
+                                // Register the TypeConverter under the name of the AttributeConverter class
+                                JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                                typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            }
                         }
 
                         elemmd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterCls.getName());
@@ -1442,17 +1448,20 @@ public class JDOAnnotationReader extends AbstractAnnotationReader
                     else if (converterCls != null)
                     {
                         TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                        if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                        synchronized (typeMgr)
                         {
-                            // Not yet cached an instance of this converter so create one
-                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
-                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, 
-                                ClassUtils.getMapKeyType(member.getType(), member.getGenericType()));
-                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
-
-                            // Register the TypeConverter under the name of the AttributeConverter class
-                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                            typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                            {
+                                // Not yet cached an instance of this converter so create one
+                                AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
+                                Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, 
+                                    ClassUtils.getMapKeyType(member.getType(), member.getGenericType()));
+                                Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
+
+                                // Register the TypeConverter under the name of the AttributeConverter class
+                                JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                                typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            }
                         }
 
                         keymd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterCls.getName());
@@ -1572,17 +1581,20 @@ public class JDOAnnotationReader extends AbstractAnnotationReader
                     else if (converterCls != null)
                     {
                         TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                        if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                        synchronized (typeMgr)
                         {
-                            // Not yet cached an instance of this converter so create one
-                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
-                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, 
-                                ClassUtils.getMapValueType(member.getType(), member.getGenericType()));
-                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
-
-                            // Register the TypeConverter under the name of the AttributeConverter class
-                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                            typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                            {
+                                // Not yet cached an instance of this converter so create one
+                                AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
+                                Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, 
+                                    ClassUtils.getMapValueType(member.getType(), member.getGenericType()));
+                                Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
+
+                                // Register the TypeConverter under the name of the AttributeConverter class
+                                JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                                typeMgr.registerConverter(converterCls.getName(), typeConv, attrType, dbType, false, null);
+                            }
                         }
 
                         valuemd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterCls.getName());
@@ -1801,16 +1813,19 @@ public class JDOAnnotationReader extends AbstractAnnotationReader
                 if (convertConverterCls != null)
                 {
                     TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                    if (typeMgr.getTypeConverterForName(convertConverterCls.getName()) == null)
+                    synchronized (typeMgr)
                     {
-                        // Not yet cached an instance of this converter so create one
-                        AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), convertConverterCls);
-                        Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(convertConverterCls, member.getType());
-                        Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(convertConverterCls, attrType, null);
-
-                        // Register the TypeConverter under the name of the AttributeConverter class
-                        JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                        typeMgr.registerConverter(convertConverterCls.getName(), typeConv, attrType, dbType, false, null);
+                        if (typeMgr.getTypeConverterForName(convertConverterCls.getName()) == null)
+                        {
+                            // Not yet cached an instance of this converter so create one
+                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), convertConverterCls);
+                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(convertConverterCls, member.getType());
+                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(convertConverterCls, attrType, null);
+
+                            // Register the TypeConverter under the name of the AttributeConverter class
+                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                            typeMgr.registerConverter(convertConverterCls.getName(), typeConv, attrType, dbType, false, null);
+                        }
                     }
 
                     mmd.setTypeConverterName(convertConverterCls.getName());
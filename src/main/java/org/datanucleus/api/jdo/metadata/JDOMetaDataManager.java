@@ -20,12 +20,16 @@ package org.datanucleus.api.jdo.metadata;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.datanucleus.ClassLoaderResolver;
 import org.datanucleus.NucleusContext;
@@ -36,6 +40,7 @@ import org.datanucleus.api.jdo.JDOPropertyNames;
 import org.datanucleus.enhancer.EnhancementHelper;
 import org.datanucleus.enhancer.EnhancementHelper.RegisterClassListener;
 import org.datanucleus.enhancer.EnhancementNucleusContextImpl;
+import org.datanucleus.exceptions.ClassNotResolvedException;
 import org.datanucleus.exceptions.NucleusException;
 import org.datanucleus.metadata.AbstractClassMetaData;
 import org.datanucleus.metadata.ClassMetaData;
@@ -93,6 +98,15 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
     /** Parser for XML MetaData. */
     protected XmlMetaDataParser xmlMetaDataParser = null;
 
+    /** Whether to read XML MetaData using the streaming (StAX) reader, without validation. */
+    protected boolean useStreamingXmlReader = false;
+
+    /** Streaming (StAX) reader for XML MetaData, when enabled. */
+    protected JDOXmlStreamMetaDataReader xmlStreamReader = null;
+
+    /** Whether to only populate classes from a JDO XML file when first requested, rather than all classes in the file at once. */
+    protected boolean lazyPopulation = false;
+
     /** Map of ClassMetaData from ORM files, keyed by the class name. */
     protected Map<String, AbstractClassMetaData> ormClassMetaDataByClass = new ConcurrentHashMap<String, AbstractClassMetaData>();
 
@@ -105,6 +119,12 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
     /** Listener for persistent class initialisations (since JDO uses a discovery process). */
     protected MetaDataRegisterClassListener registerListener;
 
+    /** Names of classes registered from a JDO XML file but not yet populated (when using lazy population). */
+    protected Set<String> unpopulatedClassNames = ConcurrentHashMap.newKeySet();
+
+    /** Annotation MetaData read ahead (in parallel) and awaiting registration, keyed by the class. */
+    protected Map<Class, FileMetaData> preparedAnnotationMetaData = new ConcurrentHashMap<>();
+
     /**
      * Constructor.
      * @param ctxt NucleusContext that this metadata manager operates in
@@ -114,6 +134,8 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
         super(ctxt);
 
         allowXmlLocationsFromJDO1_0 = ctxt.getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_METADATA_XML_JDO_1_0, false);
+        useStreamingXmlReader = ctxt.getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_METADATA_XML_STREAMING_PARSER, false);
+        lazyPopulation = ctxt.getConfiguration().getBooleanProperty(JDOPropertyNames.PROPERTY_METADATA_LAZY_POPULATION, false);
 
         // Do we want to use the JDO class initialisation listener ?
         boolean useMetadataListener = false;
@@ -134,7 +156,7 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
                 {
                     String mappingName = getORMMappingName();
                     NucleusLogger.METADATA.debug("MetaDataManager : Input=(XML,Annotations)" +
-                        ", XML-Validation=" + validateXML +
+                        ", XML-Validation=" + (useStreamingXmlReader ? "false(streaming)" : validateXML) +
                         ", XML-Suffices=(persistence=*." + getJDOFileSuffix() +
                         ", orm="+getORMFileSuffix() +
                         ", query=*." + getJDOQueryFileSuffix() + ")" +
@@ -144,7 +166,7 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
                 else
                 {
                     NucleusLogger.METADATA.debug("MetaDataManager : Input=(XML,Annotations)" +
-                        ", XML-Validation=" + validateXML +
+                        ", XML-Validation=" + (useStreamingXmlReader ? "false(streaming)" : validateXML) +
                         ", XML-Suffices=(persistence=*." + getJDOFileSuffix() +
                         ", query=*." + getJDOQueryFileSuffix() + ")" +
                         ", JDO-listener=" + useMetadataListener);
@@ -156,7 +178,7 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
                 {
                     String mappingName = getORMMappingName();
                     NucleusLogger.METADATA.debug("MetaDataManager : Input=(XML)" +
-                        ", XML-Validation=" + validateXML +
+                        ", XML-Validation=" + (useStreamingXmlReader ? "false(streaming)" : validateXML) +
                         ", XML-Suffices=(persistence=*." + getJDOFileSuffix() +
                         ", orm="+getORMFileSuffix() +
                         ", query=*." + getJDOQueryFileSuffix() + ")" +
@@ -166,7 +188,7 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
                 else
                 {
                     NucleusLogger.METADATA.debug("MetaDataManager : Input=(XML)" +
-                        ", XML-Validation=" + validateXML +
+                        ", XML-Validation=" + (useStreamingXmlReader ? "false(streaming)" : validateXML) +
                         ", XML-Suffices=(persistence=*." + getJDOFileSuffix() +
                         ", query=*." + getJDOQueryFileSuffix() + ")" +
                         ", JDO-listener=" + useMetadataListener);
@@ -225,6 +247,8 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
         super.close();
         ormClassMetaDataByClass.clear();
         ormClassMetaDataByClass = null;
+        preparedAnnotationMetaData.clear();
+        unpopulatedClassNames.clear();
     }
 
     @Override
@@ -233,15 +257,26 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
         super.unloadMetaDataForClass(className);
 
         ormClassMetaDataByClass.remove(className);
+        unpopulatedClassNames.remove(className);
     }
 
     /**
      * Utility to parse an XML file, using the "jdo" MetaData handler.
+     * If the streaming parser is enabled then the file is read using StAX, without validation.
      * @param fileURL URL of the file
      * @return The FileMetaData for this file
      */
     protected FileMetaData parseXmlFile(URL fileURL)
     {
+        if (useStreamingXmlReader)
+        {
+            if (xmlStreamReader == null)
+            {
+                xmlStreamReader = new JDOXmlStreamMetaDataReader(this);
+            }
+            return xmlStreamReader.read(fileURL);
+        }
+
         if (xmlMetaDataParser == null)
         {
             xmlMetaDataParser = new XmlMetaDataParser(this, nucleusContext.getPluginManager(), validateXML, supportXMLNamespaces);
@@ -366,7 +401,11 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
                 if (filemd != null)
                 {
                     // Class has had its metadata loaded
-                    utilisedFileMetaData.add(filemd);
+                    if (!lazyPopulation)
+                    {
+                        utilisedFileMetaData.add(filemd);
+                    }
+                    unpopulatedClassNames.remove(className);
 
                     // If not MetaData complete will also merge in annotations in populate()
 
@@ -407,6 +446,135 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
         }
     }
 
+    /**
+     * Load the annotations for the specified class, using any MetaData already read for it by
+     * {@link #prepareAnnotationsForClasses(Collection, ClassLoaderResolver, int)}.
+     * @param cls The class
+     * @param clr ClassLoader resolver
+     * @param register Whether to register the data
+     * @param populate Whether to populate the data
+     * @return The FileMetaData for the annotations (if any)
+     */
+    @Override
+    protected FileMetaData loadAnnotationsForClass(Class cls, ClassLoaderResolver clr, boolean register, boolean populate)
+    {
+        FileMetaData filemd = preparedAnnotationMetaData.remove(cls);
+        if (filemd == null)
+        {
+            return super.loadAnnotationsForClass(cls, clr, register, populate);
+        }
+
+        if (register)
+        {
+            registerFile("annotations:" + cls.getName(), filemd, clr);
+            if (populate)
+            {
+                populateFileMetaData(filemd, clr, cls.getClassLoader());
+            }
+        }
+        return filemd;
+    }
+
+    /**
+     * Method to read the annotations of the specified classes ahead of them being loaded, processing the classes in parallel.
+     * Each class is processed (class and member annotations) into its own FileMetaData, so no shared MetaData is touched.
+     * The results are held until the class is loaded (see {@link #loadAnnotationsForClass(Class, ClassLoaderResolver, boolean, boolean)}),
+     * at which point registration and population take place in the loading thread as normal.
+     * Any class that fails here is simply left to be processed (and the problem reported) when it is loaded.
+     * @param classNames Names of the classes (e.g from the persistence-unit)
+     * @param clr ClassLoader resolver
+     * @param parallelism Number of threads to use
+     */
+    public void prepareAnnotationsForClasses(Collection<String> classNames, ClassLoaderResolver clr, int parallelism)
+    {
+        if (!allowAnnotations || classNames == null || classNames.isEmpty())
+        {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<Class> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames)
+        {
+            if (classMetaDataByClass.containsKey(className))
+            {
+                continue;
+            }
+            try
+            {
+                Class cls = clr.classForName(className);
+                if (!cls.isAnnotation())
+                {
+                    classes.add(cls);
+                }
+            }
+            catch (ClassNotResolvedException cnre)
+            {
+                // Will be reported when the class is loaded
+            }
+        }
+        if (classes.isEmpty())
+        {
+            return;
+        }
+
+        // Process the first class in this thread so that any lazily created annotation components are created before going parallel
+        ThreadLocal<JDOAnnotationReader> readers = ThreadLocal.withInitial(() -> new JDOAnnotationReader(this));
+        prepareAnnotationsForClass(readers.get(), classes.get(0), clr);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            pool.submit(() -> classes.subList(1, classes.size()).parallelStream().forEach(cls -> prepareAnnotationsForClass(readers.get(), cls, clr))).get();
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException ee)
+        {
+            NucleusLogger.METADATA.debug("Exception reading annotations in parallel; remaining classes will be read when loaded", ee.getCause());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        if (NucleusLogger.METADATA.isDebugEnabled())
+        {
+            NucleusLogger.METADATA.debug("Read annotations for " + classes.size() + " classes using " + parallelism + " threads in " +
+                (System.currentTimeMillis() - startTime) + " ms, with " + preparedAnnotationMetaData.size() + " having MetaData");
+        }
+    }
+
+    /**
+     * Method to discard any annotation MetaData read ahead by {@link #prepareAnnotationsForClasses(Collection, ClassLoaderResolver, int)}
+     * but not since used.
+     */
+    public void discardPreparedAnnotations()
+    {
+        preparedAnnotationMetaData.clear();
+    }
+
+    private void prepareAnnotationsForClass(JDOAnnotationReader reader, Class cls, ClassLoaderResolver clr)
+    {
+        try
+        {
+            String packageName = ClassUtils.getPackageNameForClass(cls);
+            FileMetaData filemd = new FileMetaData();
+            filemd.setType(MetaDataFileType.ANNOTATIONS);
+            PackageMetaData pmd = filemd.newPackageMetaData(packageName != null ? packageName : "");
+            if (reader.getMetaDataForClass(cls, pmd, clr) != null)
+            {
+                preparedAnnotationMetaData.put(cls, filemd);
+            }
+        }
+        catch (Exception e)
+        {
+            NucleusLogger.METADATA.debug("Exception reading annotations for " + cls.getName() + " in parallel; will be read when loaded : " + e.getMessage());
+        }
+    }
+
     /**
      * Accessor for the MetaData for a named query for a class.
      * If the query is not found, will check all valid JDO file locations and try to load it.
@@ -752,8 +920,16 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
                         registerFile(url.toString(), filemd, clr);
                         if (populate)
                         {
-                            // Populate all classes in this file we've just parsed
-                            populateFileMetaData(filemd, clr, pc_class.getClassLoader());
+                            if (lazyPopulation)
+                            {
+                                // Leave all classes in this file registered but unpopulated, being populated when first requested
+                                addUnpopulatedClassesForFile(filemd);
+                            }
+                            else
+                            {
+                                // Populate all classes in this file we've just parsed
+                                populateFileMetaData(filemd, clr, pc_class.getClassLoader());
+                            }
                         }
                     }
 
@@ -778,6 +954,65 @@ public class JDOMetaDataManager extends MetaDataManagerImpl
         return null;
     }
 
+    /**
+     * Convenience method to note all classes in the provided (registered) file as not yet populated.
+     * @param filemd The FileMetaData
+     */
+    private void addUnpopulatedClassesForFile(FileMetaData filemd)
+    {
+        for (int i = 0; i < filemd.getNoOfPackages(); i++)
+        {
+            PackageMetaData pmd = filemd.getPackage(i);
+            for (int j = 0; j < pmd.getNoOfClasses(); j++)
+            {
+                unpopulatedClassNames.add(pmd.getClass(j).getFullClassName());
+            }
+        }
+    }
+
+    /**
+     * Method to populate/initialise any classes registered (under lazy population) but not yet used.
+     * Needed by operations that have to see the whole model, such as finding the subclasses of a class, since
+     * inheritance is only known once a class is populated.
+     */
+    protected void populateUnpopulatedClasses()
+    {
+        if (unpopulatedClassNames.isEmpty())
+        {
+            return;
+        }
+
+        ClassLoaderResolver clr = nucleusContext.getClassLoaderResolver(null);
+        Iterator<String> classNameIter = unpopulatedClassNames.iterator();
+        while (classNameIter.hasNext())
+        {
+            String className = classNameIter.next();
+            classNameIter.remove();
+            try
+            {
+                getMetaDataForClass(className, clr);
+            }
+            catch (Exception e)
+            {
+                NucleusLogger.METADATA.warn("Exception populating MetaData for " + className + " : " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String[] getSubclassesForClass(String className, boolean includeDescendents)
+    {
+        populateUnpopulatedClasses();
+        return super.getSubclassesForClass(className, includeDescendents);
+    }
+
+    @Override
+    public String[] getClassesImplementingInterface(String interfaceName, ClassLoaderResolver clr)
+    {
+        populateUnpopulatedClasses();
+        return super.getClassesImplementingInterface(interfaceName, clr);
+    }
+
     /**
      * Method to return the valid metadata locations to contain a particular package.
      * @param fileExtension File extension (e.g "jdo")
@@ -17,6 +17,9 @@ Contributors:
 **********************************************************************/
 package org.datanucleus.api.jdo.metadata;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.jdo.AttributeConverter;
 
 import org.xml.sax.Attributes;
@@ -96,6 +99,73 @@ import org.datanucleus.util.StringUtils;
  */
 public class JDOXmlMetaDataHandler extends AbstractXmlMetaDataHandler
 {
+    /**
+     * Elements that are understood by this handler, and whether each one pushes a component onto the stack
+     * (so needs popping at the end of the element).
+     */
+    private enum XmlElement
+    {
+        JDO("jdo", false),
+        ORM("orm", false),
+        JDOQUERY("jdoquery", false),
+        FETCH_PLAN("fetch-plan", true),
+        PACKAGE("package", true),
+        CLASS("class", true),
+        INTERFACE("interface", true),
+        PRIMARY_KEY("primary-key", true),
+        IMPLEMENTS("implements", true),
+        PROPERTY("property", true),
+        DATASTORE_IDENTITY("datastore-identity", true),
+        INHERITANCE("inheritance", true),
+        DISCRIMINATOR("discriminator", true),
+        QUERY("query", true),
+        SEQUENCE("sequence", true),
+        FIELD("field", true),
+        JOIN("join", true),
+        MAP("map", true),
+        ARRAY("array", true),
+        COLLECTION("collection", true),
+        COLUMN("column", true),
+        ELEMENT("element", true),
+        KEY("key", true),
+        VALUE("value", true),
+        FETCH_GROUP("fetch-group", true),
+        EXTENSION("extension", false),
+        VERSION("version", true),
+        INDEX("index", true),
+        UNIQUE("unique", true),
+        FOREIGN_KEY("foreign-key", true),
+        ORDER("order", true),
+        EMBEDDED("embedded", true),
+        UNMAPPED("unmapped", true);
+
+        private static final Map<String, XmlElement> ELEMENTS_BY_NAME = new HashMap<>();
+        static
+        {
+            for (XmlElement element : values())
+            {
+                ELEMENTS_BY_NAME.put(element.elementName, element);
+            }
+        }
+
+        final String elementName;
+        final boolean popsStack;
+
+        XmlElement(String elementName, boolean popsStack)
+        {
+            this.elementName = elementName;
+            this.popsStack = popsStack;
+        }
+
+        static XmlElement forName(String name)
+        {
+            return ELEMENTS_BY_NAME.get(name);
+        }
+    }
+
+    /** Canonical instances of attribute values found in this file, so repeated values share the same String. */
+    private final Map<String, String> attributeValues = new HashMap<>();
+
     /**
      * Constructor. Protected to prevent instantiation.
      * @param mgr the metadata manager
@@ -109,6 +179,35 @@ public class JDOXmlMetaDataHandler extends AbstractXmlMetaDataHandler
         pushStack(metadata);
     }
 
+    /**
+     * Accessor for an attribute value.
+     * Returns the canonical instance of the value for this file, so that the many repeated values (type names, column names,
+     * "true"/"false" etc) don't each hold their own String in the resultant metadata.
+     * @param attrs The attributes
+     * @param key The attribute name
+     * @return The attribute value (or null if not specified)
+     */
+    @Override
+    protected String getAttr(Attributes attrs, String key)
+    {
+        String value = super.getAttr(attrs, key);
+        if (value == null)
+        {
+            return null;
+        }
+        else if (value.equals("true"))
+        {
+            return "true";
+        }
+        else if (value.equals("false"))
+        {
+            return "false";
+        }
+
+        String canonical = attributeValues.putIfAbsent(value, value);
+        return (canonical != null) ? canonical : value;
+    }
+
     /**
      * Utility to create a new class component.
      * @param pmd The parent PackageMetaData
@@ -424,883 +523,920 @@ public class JDOXmlMetaDataHandler extends AbstractXmlMetaDataHandler
         }
         try
         {
-            if (localName.equals("jdo"))
-            {
-                FileMetaData filemd = (FileMetaData) getStack();
-                filemd.setType(MetaDataFileType.JDO_FILE);
-                filemd.setCatalog(getAttr(attrs, "catalog"));
-                filemd.setSchema(getAttr(attrs, "schema"));
-            }
-            else if (localName.equals("orm"))
-            {
-                FileMetaData filemd = (FileMetaData) getStack();
-                filemd.setType(MetaDataFileType.JDO_ORM_FILE);
-                filemd.setCatalog(getAttr(attrs, "catalog"));
-                filemd.setSchema(getAttr(attrs, "schema"));
-            }
-            else if (localName.equals("jdoquery"))
-            {
-                FileMetaData filemd = (FileMetaData) getStack();
-                filemd.setType(MetaDataFileType.JDO_QUERY_FILE);
-            }
-            else if (localName.equals("fetch-plan"))
+            XmlElement element = XmlElement.forName(localName);
+            if (element == null)
             {
-                FileMetaData filemd = (FileMetaData) metadata;
-                FetchPlanMetaData fpmd = filemd.newFetchPlanMetaData(getAttr(attrs, "name"));
-                fpmd.setMaxFetchDepth(getAttr(attrs, "max-fetch-depth"));
-                fpmd.setFetchSize(getAttr(attrs, "fetch-size"));
-                pushStack(fpmd);
+                throw unsupportedElement(qName);
             }
-            else if (localName.equals("package"))
-            {
-                FileMetaData filemd = (FileMetaData) getStack();
-                PackageMetaData pmd = filemd.newPackageMetaData(getAttr(attrs, "name"));
-                pmd.setCatalog(getAttr(attrs, "catalog"));
-                pmd.setSchema(getAttr(attrs, "schema"));
-                pushStack(pmd);
-            }
-            else if (localName.equals("class"))
-            {
-                PackageMetaData pmd = (PackageMetaData) getStack();
-                ClassMetaData cmd = newClassObject(pmd, attrs);
-                pmd.addClass(cmd);
 
-                pushStack(cmd);
-            }
-            else if (localName.equals("interface"))
+            switch (element)
             {
-                PackageMetaData pmd = (PackageMetaData) getStack();
-                InterfaceMetaData imd = newInterfaceObject(pmd, attrs);
-                pmd.addInterface(imd);
-                pushStack(imd);
-            }
-            else if (localName.equals("primary-key"))
-            {
-                MetaData md = getStack();
-                PrimaryKeyMetaData pkmd = new PrimaryKeyMetaData();
-                pkmd.setName(getAttr(attrs, "name"));
-                pkmd.setColumnName(getAttr(attrs, "column"));
-                if (md instanceof AbstractClassMetaData)
+                case JDO:
                 {
-                    ((AbstractClassMetaData) md).setPrimaryKeyMetaData(pkmd);
+                    FileMetaData filemd = (FileMetaData) getStack();
+                    filemd.setType(MetaDataFileType.JDO_FILE);
+                    filemd.setCatalog(getAttr(attrs, "catalog"));
+                    filemd.setSchema(getAttr(attrs, "schema"));
+                    break;
                 }
-                else if (md instanceof JoinMetaData)
+                case ORM:
                 {
-                    ((JoinMetaData) md).setPrimaryKeyMetaData(pkmd);
+                    FileMetaData filemd = (FileMetaData) getStack();
+                    filemd.setType(MetaDataFileType.JDO_ORM_FILE);
+                    filemd.setCatalog(getAttr(attrs, "catalog"));
+                    filemd.setSchema(getAttr(attrs, "schema"));
+                    break;
                 }
-                pushStack(pkmd);
-            }
-            else if (localName.equals("implements"))
-            {
-                ClassMetaData cmd = (ClassMetaData) getStack();
-                ImplementsMetaData imd = new ImplementsMetaData(getAttr(attrs, "name"));
-                cmd.addImplements(imd);
-                pushStack(imd);
-            }
-            else if (localName.equals("property"))
-            {
-                MetaData parent = getStack();
-                if (parent instanceof AbstractClassMetaData)
+                case JDOQUERY:
                 {
-                    AbstractClassMetaData acmd = (AbstractClassMetaData) parent;
-                    PropertyMetaData propmd = newPropertyObject(acmd, attrs);
-                    acmd.addMember(propmd);
-                    pushStack(propmd);
+                    FileMetaData filemd = (FileMetaData) getStack();
+                    filemd.setType(MetaDataFileType.JDO_QUERY_FILE);
+                    break;
                 }
-                else if (parent instanceof EmbeddedMetaData)
+                case FETCH_PLAN:
                 {
-                    EmbeddedMetaData emd = (EmbeddedMetaData) parent;
-                    PropertyMetaData propmd = newPropertyObject(emd, attrs);
-                    emd.addMember(propmd);
-                    pushStack(propmd);
+                    FileMetaData filemd = (FileMetaData) metadata;
+                    FetchPlanMetaData fpmd = filemd.newFetchPlanMetaData(getAttr(attrs, "name"));
+                    fpmd.setMaxFetchDepth(getAttr(attrs, "max-fetch-depth"));
+                    fpmd.setFetchSize(getAttr(attrs, "fetch-size"));
+                    pushStack(fpmd);
+                    break;
                 }
-                else if (parent instanceof ImplementsMetaData)
+                case PACKAGE:
                 {
-                    ImplementsMetaData implmd = (ImplementsMetaData) parent;
-                    PropertyMetaData propmd = newPropertyObject(implmd, attrs);
-                    implmd.addProperty(propmd);
-                    pushStack(propmd);
+                    FileMetaData filemd = (FileMetaData) getStack();
+                    PackageMetaData pmd = filemd.newPackageMetaData(getAttr(attrs, "name"));
+                    pmd.setCatalog(getAttr(attrs, "catalog"));
+                    pmd.setSchema(getAttr(attrs, "schema"));
+                    pushStack(pmd);
+                    break;
                 }
-                else if (parent instanceof FetchGroupMetaData)
+                case CLASS:
                 {
-                    FetchGroupMetaData fgmd = (FetchGroupMetaData) parent;
-                    FetchGroupMemberMetaData fgmmd = new FetchGroupMemberMetaData(fgmd, getAttr(attrs, "name"));
-                    fgmmd.setRecursionDepth(getAttr(attrs, "recursion-depth"));
-                    fgmmd.setProperty();
-                    fgmd.addMember(fgmmd);
-                    pushStack(fgmmd);
-                }
-            }
-            else if (localName.equals("datastore-identity"))
-            {
-                AbstractClassMetaData acmd = (AbstractClassMetaData) getStack();
-                DatastoreIdentityMetaData idmd = acmd.newDatastoreIdentityMetaData();
-                idmd.setColumnName(getAttr(attrs, "column"));
-                idmd.setValueStrategy(ValueGenerationStrategy.getIdentityStrategy(getAttr(attrs, "strategy")));
-                idmd.setSequence(getAttr(attrs, "sequence"));
-
-                pushStack(idmd);
-            }
-            else if (localName.equals("inheritance"))
-            {
-                MetaData parent = getStack();
-                AbstractClassMetaData acmd = (AbstractClassMetaData) parent;
-                InheritanceMetaData inhmd = acmd.newInheritanceMetaData();
-                inhmd.setStrategy(getAttr(attrs, "strategy"));
+                    PackageMetaData pmd = (PackageMetaData) getStack();
+                    ClassMetaData cmd = newClassObject(pmd, attrs);
+                    pmd.addClass(cmd);
 
-                pushStack(inhmd);
-            }
-            else if (localName.equals("discriminator"))
-            {
-                MetaData md = getStack();
-                if (md instanceof InheritanceMetaData)
-                {
-                    InheritanceMetaData inhmd = (InheritanceMetaData) md;
-                    DiscriminatorMetaData dismd = inhmd.newDiscriminatorMetaData();
-                    dismd.setColumnName(getAttr(attrs, "column"));
-                    dismd.setValue(getAttr(attrs, "value"));
-                    dismd.setStrategy(getAttr(attrs, "strategy"));
-                    dismd.setIndexed(getAttr(attrs, "indexed"));
-                    pushStack(dismd);
+                    pushStack(cmd);
+                    break;
                 }
-                else if (md instanceof EmbeddedMetaData)
+                case INTERFACE:
                 {
-                    EmbeddedMetaData embmd = (EmbeddedMetaData) md;
-                    DiscriminatorMetaData dismd = embmd.newDiscriminatorMetaData();
-                    dismd.setColumnName(getAttr(attrs, "column"));
-                    dismd.setValue(getAttr(attrs, "value"));
-                    dismd.setStrategy(getAttr(attrs, "strategy"));
-                    dismd.setIndexed(getAttr(attrs, "indexed"));
-                    pushStack(dismd);
+                    PackageMetaData pmd = (PackageMetaData) getStack();
+                    InterfaceMetaData imd = newInterfaceObject(pmd, attrs);
+                    pmd.addInterface(imd);
+                    pushStack(imd);
+                    break;
                 }
-            }
-            else if (localName.equals("query"))
-            {
-                MetaData emd = getStack();
-                String name = getAttr(attrs, "name");
-                String lang = getAttr(attrs, "language");
-                if (!StringUtils.isWhitespace(lang))
+                case PRIMARY_KEY:
                 {
-                    if (lang.equals(JDOQuery.JDOQL_QUERY_LANGUAGE)) // Convert to JDOQL
-                    {
-                        lang = QueryLanguage.JDOQL.name();
-                    }
-                    else if (lang.equals(JDOQuery.SQL_QUERY_LANGUAGE)) // Convert to SQL
+                    MetaData md = getStack();
+                    PrimaryKeyMetaData pkmd = new PrimaryKeyMetaData();
+                    pkmd.setName(getAttr(attrs, "name"));
+                    pkmd.setColumnName(getAttr(attrs, "column"));
+                    if (md instanceof AbstractClassMetaData)
                     {
-                        lang = QueryLanguage.SQL.name();
+                        ((AbstractClassMetaData) md).setPrimaryKeyMetaData(pkmd);
                     }
-                    else if (lang.equals(JDOQuery.JPQL_QUERY_LANGUAGE)) // Convert to JPQL
+                    else if (md instanceof JoinMetaData)
                     {
-                        lang = QueryLanguage.JPQL.name();
+                        ((JoinMetaData) md).setPrimaryKeyMetaData(pkmd);
                     }
+                    pushStack(pkmd);
+                    break;
                 }
-                if (emd instanceof ClassMetaData)
+                case IMPLEMENTS:
                 {
-                    ClassMetaData cmd = (ClassMetaData) emd;
-                    if (StringUtils.isWhitespace(name))
-                    {
-                        throw new InvalidClassMetaDataException("044154", cmd.getFullClassName());
-                    }
-                    QueryMetaData qmd = new QueryMetaData(name);
-                    qmd.setScope(cmd.getFullClassName());
-                    qmd.setLanguage(lang);
-                    qmd.setUnmodifiable(getAttr(attrs, "unmodifiable"));
-                    qmd.setResultClass(getAttr(attrs, "result-class"));
-                    qmd.setUnique(getAttr(attrs, "unique"));
-                    qmd.setFetchPlanName(getAttr(attrs, "fetch-plan"));
-                    cmd.addQuery(qmd);
-                    pushStack(qmd);
+                    ClassMetaData cmd = (ClassMetaData) getStack();
+                    ImplementsMetaData imd = new ImplementsMetaData(getAttr(attrs, "name"));
+                    cmd.addImplements(imd);
+                    pushStack(imd);
+                    break;
                 }
-                else if (emd instanceof InterfaceMetaData)
+                case PROPERTY:
                 {
-                    InterfaceMetaData imd = (InterfaceMetaData) emd;
-                    if (StringUtils.isWhitespace(name))
-                    {
-                        throw new InvalidClassMetaDataException("044154", imd.getFullClassName());
-                    }
-                    QueryMetaData qmd = new QueryMetaData(name);
-                    qmd.setScope(imd.getFullClassName());
-                    qmd.setLanguage(lang);
-                    qmd.setUnmodifiable(getAttr(attrs, "unmodifiable"));
-                    qmd.setResultClass(getAttr(attrs, "result-class"));
-                    qmd.setUnique(getAttr(attrs, "unique"));
-                    qmd.setFetchPlanName(getAttr(attrs, "fetch-plan"));
-                    imd.addQuery(qmd);
-                    pushStack(qmd);
-                }
-                else if (emd instanceof FileMetaData)
-                {
-                    FileMetaData filemd = (FileMetaData) emd;
-                    QueryMetaData qmd = filemd.newQueryMetaData(name);
-                    qmd.setLanguage(lang);
-                    qmd.setUnmodifiable(getAttr(attrs, "unmodifiable"));
-                    qmd.setResultClass(getAttr(attrs, "result-class"));
-                    qmd.setUnique(getAttr(attrs, "unique"));
-                    qmd.setFetchPlanName(getAttr(attrs, "fetch-plan"));
-                    pushStack(qmd);
-                }
-            }
-            else if (localName.equals("sequence"))
-            {
-                PackageMetaData pmd = (PackageMetaData) getStack();
-                SequenceMetaData seqmd = pmd.newSequenceMetaData(getAttr(attrs, "name"), getAttr(attrs, "strategy"));
-                seqmd.setFactoryClass(getAttr(attrs, "factory-class"));
-                seqmd.setDatastoreSequence(getAttr(attrs, "datastore-sequence"));
-                String seqSize = getAttr(attrs, "allocation-size");
-                if (seqSize != null)
-                {
-                    seqmd.setAllocationSize(seqSize);
+                    MetaData parent = getStack();
+                    if (parent instanceof AbstractClassMetaData)
+                    {
+                        AbstractClassMetaData acmd = (AbstractClassMetaData) parent;
+                        PropertyMetaData propmd = newPropertyObject(acmd, attrs);
+                        acmd.addMember(propmd);
+                        pushStack(propmd);
+                    }
+                    else if (parent instanceof EmbeddedMetaData)
+                    {
+                        EmbeddedMetaData emd = (EmbeddedMetaData) parent;
+                        PropertyMetaData propmd = newPropertyObject(emd, attrs);
+                        emd.addMember(propmd);
+                        pushStack(propmd);
+                    }
+                    else if (parent instanceof ImplementsMetaData)
+                    {
+                        ImplementsMetaData implmd = (ImplementsMetaData) parent;
+                        PropertyMetaData propmd = newPropertyObject(implmd, attrs);
+                        implmd.addProperty(propmd);
+                        pushStack(propmd);
+                    }
+                    else if (parent instanceof FetchGroupMetaData)
+                    {
+                        FetchGroupMetaData fgmd = (FetchGroupMetaData) parent;
+                        FetchGroupMemberMetaData fgmmd = new FetchGroupMemberMetaData(fgmd, getAttr(attrs, "name"));
+                        fgmmd.setRecursionDepth(getAttr(attrs, "recursion-depth"));
+                        fgmmd.setProperty();
+                        fgmd.addMember(fgmmd);
+                        pushStack(fgmmd);
+                    }
+                    break;
                 }
-                String seqStart = getAttr(attrs, "initial-value");
-                if (seqStart != null)
+                case DATASTORE_IDENTITY:
                 {
-                    seqmd.setInitialValue(seqStart);
+                    AbstractClassMetaData acmd = (AbstractClassMetaData) getStack();
+                    DatastoreIdentityMetaData idmd = acmd.newDatastoreIdentityMetaData();
+                    idmd.setColumnName(getAttr(attrs, "column"));
+                    idmd.setValueStrategy(ValueGenerationStrategy.getIdentityStrategy(getAttr(attrs, "strategy")));
+                    idmd.setSequence(getAttr(attrs, "sequence"));
+
+                    pushStack(idmd);
+                    break;
                 }
-                pushStack(seqmd);
-            }
-            else if (localName.equals("field"))
-            {
-                MetaData md = getStack();
-                if (md instanceof FetchGroupMetaData)
+                case INHERITANCE:
                 {
-                    FetchGroupMetaData fgmd = (FetchGroupMetaData) md;
-                    FetchGroupMemberMetaData fgmmd = new FetchGroupMemberMetaData(fgmd, getAttr(attrs, "name"));
-                    fgmmd.setRecursionDepth(getAttr(attrs, "recursion-depth"));
-                    fgmd.addMember(fgmmd);
-                    pushStack(fgmmd);
-                    return;
-                }
+                    MetaData parent = getStack();
+                    AbstractClassMetaData acmd = (AbstractClassMetaData) parent;
+                    InheritanceMetaData inhmd = acmd.newInheritanceMetaData();
+                    inhmd.setStrategy(getAttr(attrs, "strategy"));
 
-                FieldMetaData fmd = newFieldObject(md, attrs);
-                if (md instanceof ClassMetaData)
-                {
-                    ClassMetaData cmd = (ClassMetaData) md;
-                    cmd.addMember(fmd);
+                    pushStack(inhmd);
+                    break;
                 }
-                else if (md instanceof EmbeddedMetaData)
+                case DISCRIMINATOR:
                 {
-                    EmbeddedMetaData emd = (EmbeddedMetaData) md;
-                    emd.addMember(fmd);
+                    MetaData md = getStack();
+                    if (md instanceof InheritanceMetaData)
+                    {
+                        InheritanceMetaData inhmd = (InheritanceMetaData) md;
+                        DiscriminatorMetaData dismd = inhmd.newDiscriminatorMetaData();
+                        dismd.setColumnName(getAttr(attrs, "column"));
+                        dismd.setValue(getAttr(attrs, "value"));
+                        dismd.setStrategy(getAttr(attrs, "strategy"));
+                        dismd.setIndexed(getAttr(attrs, "indexed"));
+                        pushStack(dismd);
+                    }
+                    else if (md instanceof EmbeddedMetaData)
+                    {
+                        EmbeddedMetaData embmd = (EmbeddedMetaData) md;
+                        DiscriminatorMetaData dismd = embmd.newDiscriminatorMetaData();
+                        dismd.setColumnName(getAttr(attrs, "column"));
+                        dismd.setValue(getAttr(attrs, "value"));
+                        dismd.setStrategy(getAttr(attrs, "strategy"));
+                        dismd.setIndexed(getAttr(attrs, "indexed"));
+                        pushStack(dismd);
+                    }
+                    break;
                 }
-                else if (md instanceof ForeignKeyMetaData)
+                case QUERY:
                 {
-                    ForeignKeyMetaData fkmd = (ForeignKeyMetaData) md;
-                    fkmd.addMember(fmd.getName());
+                    MetaData emd = getStack();
+                    String name = getAttr(attrs, "name");
+                    String lang = getAttr(attrs, "language");
+                    if (!StringUtils.isWhitespace(lang))
+                    {
+                        if (lang.equals(JDOQuery.JDOQL_QUERY_LANGUAGE)) // Convert to JDOQL
+                        {
+                            lang = QueryLanguage.JDOQL.name();
+                        }
+                        else if (lang.equals(JDOQuery.SQL_QUERY_LANGUAGE)) // Convert to SQL
+                        {
+                            lang = QueryLanguage.SQL.name();
+                        }
+                        else if (lang.equals(JDOQuery.JPQL_QUERY_LANGUAGE)) // Convert to JPQL
+                        {
+                            lang = QueryLanguage.JPQL.name();
+                        }
+                    }
+                    if (emd instanceof ClassMetaData)
+                    {
+                        ClassMetaData cmd = (ClassMetaData) emd;
+                        if (StringUtils.isWhitespace(name))
+                        {
+                            throw new InvalidClassMetaDataException("044154", cmd.getFullClassName());
+                        }
+                        QueryMetaData qmd = new QueryMetaData(name);
+                        qmd.setScope(cmd.getFullClassName());
+                        qmd.setLanguage(lang);
+                        qmd.setUnmodifiable(getAttr(attrs, "unmodifiable"));
+                        qmd.setResultClass(getAttr(attrs, "result-class"));
+                        qmd.setUnique(getAttr(attrs, "unique"));
+                        qmd.setFetchPlanName(getAttr(attrs, "fetch-plan"));
+                        cmd.addQuery(qmd);
+                        pushStack(qmd);
+                    }
+                    else if (emd instanceof InterfaceMetaData)
+                    {
+                        InterfaceMetaData imd = (InterfaceMetaData) emd;
+                        if (StringUtils.isWhitespace(name))
+                        {
+                            throw new InvalidClassMetaDataException("044154", imd.getFullClassName());
+                        }
+                        QueryMetaData qmd = new QueryMetaData(name);
+                        qmd.setScope(imd.getFullClassName());
+                        qmd.setLanguage(lang);
+                        qmd.setUnmodifiable(getAttr(attrs, "unmodifiable"));
+                        qmd.setResultClass(getAttr(attrs, "result-class"));
+                        qmd.setUnique(getAttr(attrs, "unique"));
+                        qmd.setFetchPlanName(getAttr(attrs, "fetch-plan"));
+                        imd.addQuery(qmd);
+                        pushStack(qmd);
+                    }
+                    else if (emd instanceof FileMetaData)
+                    {
+                        FileMetaData filemd = (FileMetaData) emd;
+                        QueryMetaData qmd = filemd.newQueryMetaData(name);
+                        qmd.setLanguage(lang);
+                        qmd.setUnmodifiable(getAttr(attrs, "unmodifiable"));
+                        qmd.setResultClass(getAttr(attrs, "result-class"));
+                        qmd.setUnique(getAttr(attrs, "unique"));
+                        qmd.setFetchPlanName(getAttr(attrs, "fetch-plan"));
+                        pushStack(qmd);
+                    }
+                    break;
                 }
-                else if (md instanceof IndexMetaData)
+                case SEQUENCE:
                 {
-                    IndexMetaData imd = (IndexMetaData) md;
-                    imd.addMember(fmd.getName());
+                    PackageMetaData pmd = (PackageMetaData) getStack();
+                    SequenceMetaData seqmd = pmd.newSequenceMetaData(getAttr(attrs, "name"), getAttr(attrs, "strategy"));
+                    seqmd.setFactoryClass(getAttr(attrs, "factory-class"));
+                    seqmd.setDatastoreSequence(getAttr(attrs, "datastore-sequence"));
+                    String seqSize = getAttr(attrs, "allocation-size");
+                    if (seqSize != null)
+                    {
+                        seqmd.setAllocationSize(seqSize);
+                    }
+                    String seqStart = getAttr(attrs, "initial-value");
+                    if (seqStart != null)
+                    {
+                        seqmd.setInitialValue(seqStart);
+                    }
+                    pushStack(seqmd);
+                    break;
                 }
-                else if (md instanceof UniqueMetaData)
+                case FIELD:
                 {
-                    UniqueMetaData umd = (UniqueMetaData) md;
-                    umd.addMember(fmd.getName());
-                }
-                pushStack(fmd);
-            }
-            else if (localName.equals("join"))
-            {
-                MetaData parent = getStack();
-                String tableName = getAttr(attrs, "table");
-                String columnName = getAttr(attrs, "column");
-                String outer = getAttr(attrs, "outer");
-                IndexedValue indexed = IndexedValue.getIndexedValue(getAttr(attrs, "indexed"));
-                String unique = getAttr(attrs, "unique");
-                String deleteAction = getAttr(attrs, "delete-action");
+                    MetaData md = getStack();
+                    if (md instanceof FetchGroupMetaData)
+                    {
+                        FetchGroupMetaData fgmd = (FetchGroupMetaData) md;
+                        FetchGroupMemberMetaData fgmmd = new FetchGroupMemberMetaData(fgmd, getAttr(attrs, "name"));
+                        fgmmd.setRecursionDepth(getAttr(attrs, "recursion-depth"));
+                        fgmd.addMember(fgmmd);
+                        pushStack(fgmmd);
+                        break;
+                    }
 
-                JoinMetaData joinmd = null;
-                if (parent instanceof AbstractMemberMetaData)
-                {
-                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) parent;
-                    joinmd = fmd.newJoinMetaData();
-                }
-                else if (parent instanceof AbstractClassMetaData)
-                {
-                    AbstractClassMetaData cmd = (AbstractClassMetaData) parent;
-                    joinmd = new JoinMetaData();
-                    cmd.addJoin(joinmd);
-                }
-                else if (parent instanceof InheritanceMetaData)
-                {
-                    InheritanceMetaData inhmd = (InheritanceMetaData) parent;
-                    joinmd = inhmd.newJoinMetaData();
-                }
-                else
-                {
-                    throw new NucleusUserException("Error processing JDO XML metadata. Found \"join\" with parent " + StringUtils.toJVMIDString(parent) + " - not supported");
-                }
-                joinmd.setTable(tableName);
-                joinmd.setColumnName(columnName);
-                joinmd.setOuter(MetaDataUtils.getBooleanForString(outer, false));
-                joinmd.setIndexed(indexed);
-                joinmd.setUnique(unique);
-                joinmd.setDeleteAction(deleteAction);
-                pushStack(joinmd);
-            }
-            else if (localName.equals("map"))
-            {
-                AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
-                MapMetaData mapmd = fmd.newMapMetaData();
+                    FieldMetaData fmd = newFieldObject(md, attrs);
+                    if (md instanceof ClassMetaData)
+                    {
+                        ClassMetaData cmd = (ClassMetaData) md;
+                        cmd.addMember(fmd);
+                    }
+                    else if (md instanceof EmbeddedMetaData)
+                    {
+                        EmbeddedMetaData emd = (EmbeddedMetaData) md;
+                        emd.addMember(fmd);
+                    }
+                    else if (md instanceof ForeignKeyMetaData)
+                    {
+                        ForeignKeyMetaData fkmd = (ForeignKeyMetaData) md;
+                        fkmd.addMember(fmd.getName());
+                    }
+                    else if (md instanceof IndexMetaData)
+                    {
+                        IndexMetaData imd = (IndexMetaData) md;
+                        imd.addMember(fmd.getName());
+                    }
+                    else if (md instanceof UniqueMetaData)
+                    {
+                        UniqueMetaData umd = (UniqueMetaData) md;
+                        umd.addMember(fmd.getName());
+                    }
+                    pushStack(fmd);
+                    break;
+                }
+                case JOIN:
+                {
+                    MetaData parent = getStack();
+                    String tableName = getAttr(attrs, "table");
+                    String columnName = getAttr(attrs, "column");
+                    String outer = getAttr(attrs, "outer");
+                    IndexedValue indexed = IndexedValue.getIndexedValue(getAttr(attrs, "indexed"));
+                    String unique = getAttr(attrs, "unique");
+                    String deleteAction = getAttr(attrs, "delete-action");
 
-                mapmd.setKeyType(getAttr(attrs, "key-type"));
-                String embKeyStr = getAttr(attrs, "embedded-key");
-                if (!StringUtils.isWhitespace(embKeyStr))
-                {
-                    mapmd.setEmbeddedKey(Boolean.valueOf(embKeyStr));
-                }
-                String serKeyStr = getAttr(attrs, "serialized-key");
-                if (!StringUtils.isWhitespace(serKeyStr))
-                {
-                    mapmd.setSerializedKey(Boolean.valueOf(serKeyStr));
-                }
-                String depKeyStr = getAttr(attrs, "dependent-key");
-                if (!StringUtils.isWhitespace(depKeyStr))
-                {
-                    mapmd.setDependentKey(Boolean.valueOf(depKeyStr));
-                }
+                    JoinMetaData joinmd = null;
+                    if (parent instanceof AbstractMemberMetaData)
+                    {
+                        AbstractMemberMetaData fmd = (AbstractMemberMetaData) parent;
+                        joinmd = fmd.newJoinMetaData();
+                    }
+                    else if (parent instanceof AbstractClassMetaData)
+                    {
+                        AbstractClassMetaData cmd = (AbstractClassMetaData) parent;
+                        joinmd = new JoinMetaData();
+                        cmd.addJoin(joinmd);
+                    }
+                    else if (parent instanceof InheritanceMetaData)
+                    {
+                        InheritanceMetaData inhmd = (InheritanceMetaData) parent;
+                        joinmd = inhmd.newJoinMetaData();
+                    }
+                    else
+                    {
+                        throw new NucleusUserException("Error processing JDO XML metadata. Found \"join\" with parent " + StringUtils.toJVMIDString(parent) + " - not supported");
+                    }
+                    joinmd.setTable(tableName);
+                    joinmd.setColumnName(columnName);
+                    joinmd.setOuter(MetaDataUtils.getBooleanForString(outer, false));
+                    joinmd.setIndexed(indexed);
+                    joinmd.setUnique(unique);
+                    joinmd.setDeleteAction(deleteAction);
+                    pushStack(joinmd);
+                    break;
+                }
+                case MAP:
+                {
+                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
+                    MapMetaData mapmd = fmd.newMapMetaData();
 
-                mapmd.setValueType(getAttr(attrs, "value-type"));
-                String embValStr = getAttr(attrs, "embedded-value");
-                if (!StringUtils.isWhitespace(embValStr))
-                {
-                    mapmd.setEmbeddedValue(Boolean.valueOf(embValStr));
-                }
-                String serValStr = getAttr(attrs, "serialized-value");
-                if (!StringUtils.isWhitespace(serValStr))
-                {
-                    mapmd.setSerializedValue(Boolean.valueOf(serValStr));
-                }
-                String depValStr = getAttr(attrs, "dependent-value");
-                if (!StringUtils.isWhitespace(depValStr))
-                {
-                    mapmd.setDependentValue(Boolean.valueOf(depValStr));
-                }
+                    mapmd.setKeyType(getAttr(attrs, "key-type"));
+                    String embKeyStr = getAttr(attrs, "embedded-key");
+                    if (!StringUtils.isWhitespace(embKeyStr))
+                    {
+                        mapmd.setEmbeddedKey(Boolean.valueOf(embKeyStr));
+                    }
+                    String serKeyStr = getAttr(attrs, "serialized-key");
+                    if (!StringUtils.isWhitespace(serKeyStr))
+                    {
+                        mapmd.setSerializedKey(Boolean.valueOf(serKeyStr));
+                    }
+                    String depKeyStr = getAttr(attrs, "dependent-key");
+                    if (!StringUtils.isWhitespace(depKeyStr))
+                    {
+                        mapmd.setDependentKey(Boolean.valueOf(depKeyStr));
+                    }
 
-                pushStack(mapmd);
-            }
-            else if (localName.equals("array"))
-            {
-                AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
-                ArrayMetaData arrmd = fmd.newArrayMetaData();
-                arrmd.setElementType(getAttr(attrs, "element-type"));
-                String embElemStr = getAttr(attrs, "embedded-element");
-                if (!StringUtils.isWhitespace(embElemStr))
-                {
-                    arrmd.setEmbeddedElement(Boolean.valueOf(embElemStr));
-                }
-                String serElemStr = getAttr(attrs, "serialized-element");
-                if (!StringUtils.isWhitespace(serElemStr))
-                {
-                    arrmd.setSerializedElement(Boolean.valueOf(serElemStr));
-                }
-                String depElemStr = getAttr(attrs, "dependent-element");
-                if (!StringUtils.isWhitespace(depElemStr))
-                {
-                    arrmd.setDependentElement(Boolean.valueOf(depElemStr));
-                }
-                pushStack(arrmd);
-            }
-            else if (localName.equals("collection"))
-            {
-                AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
-                CollectionMetaData collmd = fmd.newCollectionMetaData();
-                collmd.setElementType(getAttr(attrs, "element-type"));
-                String embElemStr = getAttr(attrs, "embedded-element");
-                if (!StringUtils.isWhitespace(embElemStr))
-                {
-                    collmd.setEmbeddedElement(Boolean.valueOf(embElemStr));
-                }
-                String serElemStr = getAttr(attrs, "serialized-element");
-                if (!StringUtils.isWhitespace(serElemStr))
-                {
-                    collmd.setSerializedElement(Boolean.valueOf(serElemStr));
-                }
-                String depElemStr = getAttr(attrs, "dependent-element");
-                if (!StringUtils.isWhitespace(depElemStr))
-                {
-                    collmd.setDependentElement(Boolean.valueOf(depElemStr));
-                }
-                pushStack(collmd);
-            }
-            else if (localName.equals("column"))
-            {
-                MetaData md = getStack();
-                ColumnMetaData colmd = new ColumnMetaData();
-                colmd.setName(getAttr(attrs, "name"));
-                colmd.setTarget(getAttr(attrs, "target"));
-                colmd.setTargetMember(getAttr(attrs, "target-field"));
-                colmd.setJdbcType(getAttr(attrs, "jdbc-type"));
-                colmd.setSqlType(getAttr(attrs, "sql-type"));
-                colmd.setLength(getAttr(attrs, "length"));
-                colmd.setScale(getAttr(attrs, "scale"));
-                colmd.setAllowsNull(getAttr(attrs, "allows-null"));
-                colmd.setDefaultValue(getAttr(attrs, "default-value"));
-                colmd.setInsertValue(getAttr(attrs, "insert-value"));
-                String pos = getAttr(attrs, "position"); // JDO 3.1+
-                if (pos != null)
-                {
-                    colmd.setPosition(pos);
-                }
+                    mapmd.setValueType(getAttr(attrs, "value-type"));
+                    String embValStr = getAttr(attrs, "embedded-value");
+                    if (!StringUtils.isWhitespace(embValStr))
+                    {
+                        mapmd.setEmbeddedValue(Boolean.valueOf(embValStr));
+                    }
+                    String serValStr = getAttr(attrs, "serialized-value");
+                    if (!StringUtils.isWhitespace(serValStr))
+                    {
+                        mapmd.setSerializedValue(Boolean.valueOf(serValStr));
+                    }
+                    String depValStr = getAttr(attrs, "dependent-value");
+                    if (!StringUtils.isWhitespace(depValStr))
+                    {
+                        mapmd.setDependentValue(Boolean.valueOf(depValStr));
+                    }
 
-                if (md instanceof AbstractMemberMetaData)
-                {
-                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
-                    fmd.addColumn(colmd);
-                }
-                else if (md instanceof AbstractElementMetaData)
-                {
-                    AbstractElementMetaData elemd = (AbstractElementMetaData) md;
-                    elemd.addColumn(colmd);
-                }
-                else if (md instanceof JoinMetaData)
-                {
-                    JoinMetaData jnmd = (JoinMetaData) md;
-                    jnmd.addColumn(colmd);
-                }
-                else if (md instanceof DatastoreIdentityMetaData)
-                {
-                    DatastoreIdentityMetaData idmd = (DatastoreIdentityMetaData) md;
-                    idmd.setColumnMetaData(colmd);
-                }
-                else if (md instanceof ForeignKeyMetaData)
-                {
-                    ForeignKeyMetaData fkmd = (ForeignKeyMetaData) md;
-                    fkmd.addColumn(colmd);
-                }
-                else if (md instanceof IndexMetaData)
-                {
-                    IndexMetaData idxmd = (IndexMetaData) md;
-                    idxmd.addColumn(colmd.getName());
+                    pushStack(mapmd);
+                    break;
                 }
-                else if (md instanceof UniqueMetaData)
+                case ARRAY:
                 {
-                    UniqueMetaData unimd = (UniqueMetaData) md;
-                    unimd.addColumn(colmd.getName());
-                }
-                else if (md instanceof OrderMetaData)
-                {
-                    OrderMetaData ormd = (OrderMetaData) md;
-                    ormd.addColumn(colmd);
-                }
-                else if (md instanceof DiscriminatorMetaData)
-                {
-                    DiscriminatorMetaData dismd = (DiscriminatorMetaData) md;
-                    dismd.setColumnMetaData(colmd);
-                }
-                else if (md instanceof VersionMetaData)
-                {
-                    VersionMetaData vermd = (VersionMetaData) md;
-                    vermd.setColumnMetaData(colmd);
-                }
-                else if (md instanceof AbstractClassMetaData)
-                {
-                    AbstractClassMetaData cmd = (AbstractClassMetaData) md;
-                    cmd.addUnmappedColumn(colmd);
-                }
-                else if (md instanceof PrimaryKeyMetaData)
-                {
-                    PrimaryKeyMetaData pkmd = (PrimaryKeyMetaData) md;
-                    pkmd.addColumn(colmd);
+                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
+                    ArrayMetaData arrmd = fmd.newArrayMetaData();
+                    arrmd.setElementType(getAttr(attrs, "element-type"));
+                    String embElemStr = getAttr(attrs, "embedded-element");
+                    if (!StringUtils.isWhitespace(embElemStr))
+                    {
+                        arrmd.setEmbeddedElement(Boolean.valueOf(embElemStr));
+                    }
+                    String serElemStr = getAttr(attrs, "serialized-element");
+                    if (!StringUtils.isWhitespace(serElemStr))
+                    {
+                        arrmd.setSerializedElement(Boolean.valueOf(serElemStr));
+                    }
+                    String depElemStr = getAttr(attrs, "dependent-element");
+                    if (!StringUtils.isWhitespace(depElemStr))
+                    {
+                        arrmd.setDependentElement(Boolean.valueOf(depElemStr));
+                    }
+                    pushStack(arrmd);
+                    break;
                 }
-                pushStack(colmd);
-            }
-            else if (localName.equals("element"))
-            {
-                AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
-                ElementMetaData elemmd = new ElementMetaData();
-                elemmd.setTable(getAttr(attrs, "table"));
-                elemmd.setColumnName(getAttr(attrs, "column"));
-                elemmd.setDeleteAction(getAttr(attrs, "delete-action"));
-                elemmd.setUpdateAction(getAttr(attrs, "update-action"));
-                elemmd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
-                elemmd.setUnique(MetaDataUtils.getBooleanForString(getAttr(attrs, "unique"), false));
-                String mappedBy = getAttr(attrs, "mapped-by");
-                elemmd.setMappedBy(mappedBy);
-                if (!StringUtils.isWhitespace(mappedBy) && fmd.getMappedBy() == null)
+                case COLLECTION:
                 {
-                    // With collection/array this is the same as mapped-by on the field
-                    fmd.setMappedBy(mappedBy);
-                }
+                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
+                    CollectionMetaData collmd = fmd.newCollectionMetaData();
+                    collmd.setElementType(getAttr(attrs, "element-type"));
+                    String embElemStr = getAttr(attrs, "embedded-element");
+                    if (!StringUtils.isWhitespace(embElemStr))
+                    {
+                        collmd.setEmbeddedElement(Boolean.valueOf(embElemStr));
+                    }
+                    String serElemStr = getAttr(attrs, "serialized-element");
+                    if (!StringUtils.isWhitespace(serElemStr))
+                    {
+                        collmd.setSerializedElement(Boolean.valueOf(serElemStr));
+                    }
+                    String depElemStr = getAttr(attrs, "dependent-element");
+                    if (!StringUtils.isWhitespace(depElemStr))
+                    {
+                        collmd.setDependentElement(Boolean.valueOf(depElemStr));
+                    }
+                    pushStack(collmd);
+                    break;
+                }
+                case COLUMN:
+                {
+                    MetaData md = getStack();
+                    ColumnMetaData colmd = new ColumnMetaData();
+                    colmd.setName(getAttr(attrs, "name"));
+                    colmd.setTarget(getAttr(attrs, "target"));
+                    colmd.setTargetMember(getAttr(attrs, "target-field"));
+                    colmd.setJdbcType(getAttr(attrs, "jdbc-type"));
+                    colmd.setSqlType(getAttr(attrs, "sql-type"));
+                    colmd.setLength(getAttr(attrs, "length"));
+                    colmd.setScale(getAttr(attrs, "scale"));
+                    colmd.setAllowsNull(getAttr(attrs, "allows-null"));
+                    colmd.setDefaultValue(getAttr(attrs, "default-value"));
+                    colmd.setInsertValue(getAttr(attrs, "insert-value"));
+                    String pos = getAttr(attrs, "position"); // JDO 3.1+
+                    if (pos != null)
+                    {
+                        colmd.setPosition(pos);
+                    }
 
-                String converterAttr = getAttr(attrs, "converter");
-                String disableConverterAttr = getAttr(attrs, "use-default-conversion");
-                if (disableConverterAttr != null && Boolean.getBoolean(disableConverterAttr))
-                {
-                    // TODO Disable on the element?
-                }
-                else if (!StringUtils.isWhitespace(converterAttr))
-                {
-                    TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                    Class converterCls = clr.classForName(converterAttr);
-                    if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
-                    {
-                        // Not yet cached an instance of this converter so create one
-                        AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
-                        Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, null); // TODO element type
-                        Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
+                    if (md instanceof AbstractMemberMetaData)
+                    {
+                        AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
+                        fmd.addColumn(colmd);
+                    }
+                    else if (md instanceof AbstractElementMetaData)
+                    {
+                        AbstractElementMetaData elemd = (AbstractElementMetaData) md;
+                        elemd.addColumn(colmd);
+                    }
+                    else if (md instanceof JoinMetaData)
+                    {
+                        JoinMetaData jnmd = (JoinMetaData) md;
+                        jnmd.addColumn(colmd);
+                    }
+                    else if (md instanceof DatastoreIdentityMetaData)
+                    {
+                        DatastoreIdentityMetaData idmd = (DatastoreIdentityMetaData) md;
+                        idmd.setColumnMetaData(colmd);
+                    }
+                    else if (md instanceof ForeignKeyMetaData)
+                    {
+                        ForeignKeyMetaData fkmd = (ForeignKeyMetaData) md;
+                        fkmd.addColumn(colmd);
+                    }
+                    else if (md instanceof IndexMetaData)
+                    {
+                        IndexMetaData idxmd = (IndexMetaData) md;
+                        idxmd.addColumn(colmd.getName());
+                    }
+                    else if (md instanceof UniqueMetaData)
+                    {
+                        UniqueMetaData unimd = (UniqueMetaData) md;
+                        unimd.addColumn(colmd.getName());
+                    }
+                    else if (md instanceof OrderMetaData)
+                    {
+                        OrderMetaData ormd = (OrderMetaData) md;
+                        ormd.addColumn(colmd);
+                    }
+                    else if (md instanceof DiscriminatorMetaData)
+                    {
+                        DiscriminatorMetaData dismd = (DiscriminatorMetaData) md;
+                        dismd.setColumnMetaData(colmd);
+                    }
+                    else if (md instanceof VersionMetaData)
+                    {
+                        VersionMetaData vermd = (VersionMetaData) md;
+                        vermd.setColumnMetaData(colmd);
+                    }
+                    else if (md instanceof AbstractClassMetaData)
+                    {
+                        AbstractClassMetaData cmd = (AbstractClassMetaData) md;
+                        cmd.addUnmappedColumn(colmd);
+                    }
+                    else if (md instanceof PrimaryKeyMetaData)
+                    {
+                        PrimaryKeyMetaData pkmd = (PrimaryKeyMetaData) md;
+                        pkmd.addColumn(colmd);
+                    }
+                    pushStack(colmd);
+                    break;
+                }
+                case ELEMENT:
+                {
+                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
+                    ElementMetaData elemmd = new ElementMetaData();
+                    elemmd.setTable(getAttr(attrs, "table"));
+                    elemmd.setColumnName(getAttr(attrs, "column"));
+                    elemmd.setDeleteAction(getAttr(attrs, "delete-action"));
+                    elemmd.setUpdateAction(getAttr(attrs, "update-action"));
+                    elemmd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
+                    elemmd.setUnique(MetaDataUtils.getBooleanForString(getAttr(attrs, "unique"), false));
+                    String mappedBy = getAttr(attrs, "mapped-by");
+                    elemmd.setMappedBy(mappedBy);
+                    if (!StringUtils.isWhitespace(mappedBy) && fmd.getMappedBy() == null)
+                    {
+                        // With collection/array this is the same as mapped-by on the field
+                        fmd.setMappedBy(mappedBy);
+                    }
 
-                        // Register the TypeConverter under the name of the AttributeConverter class
-                        JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                        typeMgr.registerConverter(converterAttr, typeConv, attrType, dbType, false, null);
+                    String converterAttr = getAttr(attrs, "converter");
+                    String disableConverterAttr = getAttr(attrs, "use-default-conversion");
+                    if (disableConverterAttr != null && Boolean.getBoolean(disableConverterAttr))
+                    {
+                        // TODO Disable on the element?
                     }
+                    else if (!StringUtils.isWhitespace(converterAttr))
+                    {
+                        TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
+                        Class converterCls = clr.classForName(converterAttr);
+                        if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                        {
+                            // Not yet cached an instance of this converter so create one
+                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
+                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, null); // TODO element type
+                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
 
-                    elemmd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterAttr);
-                }
+                            // Register the TypeConverter under the name of the AttributeConverter class
+                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                            typeMgr.registerConverter(converterAttr, typeConv, attrType, dbType, false, null);
+                        }
 
-                fmd.setElementMetaData(elemmd);
-                pushStack(elemmd);
-            }
-            else if (localName.equals("key"))
-            {
-                AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
-                KeyMetaData keymd = new KeyMetaData();
-                keymd.setTable(getAttr(attrs, "table"));
-                keymd.setColumnName(getAttr(attrs, "column"));
-                keymd.setDeleteAction(getAttr(attrs, "delete-action"));
-                keymd.setUpdateAction(getAttr(attrs, "update-action"));
-                keymd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
-                keymd.setUnique(MetaDataUtils.getBooleanForString(getAttr(attrs, "unique"), false));
-                keymd.setMappedBy(getAttr(attrs, "mapped-by"));
+                        elemmd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterAttr);
+                    }
 
-                String converterAttr = getAttr(attrs, "converter");
-                String disableConverterAttr = getAttr(attrs, "use-default-conversion");
-                if (disableConverterAttr != null && Boolean.getBoolean(disableConverterAttr))
-                {
-                    // TODO Disable on the key?
-                }
-                else if (!StringUtils.isWhitespace(converterAttr))
-                {
-                    TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                    Class converterCls = clr.classForName(converterAttr);
-                    if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
-                    {
-                        // Not yet cached an instance of this converter so create one
-                        AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
-                        Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, null); // TODO key type
-                        Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
+                    fmd.setElementMetaData(elemmd);
+                    pushStack(elemmd);
+                    break;
+                }
+                case KEY:
+                {
+                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
+                    KeyMetaData keymd = new KeyMetaData();
+                    keymd.setTable(getAttr(attrs, "table"));
+                    keymd.setColumnName(getAttr(attrs, "column"));
+                    keymd.setDeleteAction(getAttr(attrs, "delete-action"));
+                    keymd.setUpdateAction(getAttr(attrs, "update-action"));
+                    keymd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
+                    keymd.setUnique(MetaDataUtils.getBooleanForString(getAttr(attrs, "unique"), false));
+                    keymd.setMappedBy(getAttr(attrs, "mapped-by"));
 
-                        // Register the TypeConverter under the name of the AttributeConverter class
-                        JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                        typeMgr.registerConverter(converterAttr, typeConv, attrType, dbType, false, null);
+                    String converterAttr = getAttr(attrs, "converter");
+                    String disableConverterAttr = getAttr(attrs, "use-default-conversion");
+                    if (disableConverterAttr != null && Boolean.getBoolean(disableConverterAttr))
+                    {
+                        // TODO Disable on the key?
                     }
+                    else if (!StringUtils.isWhitespace(converterAttr))
+                    {
+                        TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
+                        Class converterCls = clr.classForName(converterAttr);
+                        if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                        {
+                            // Not yet cached an instance of this converter so create one
+                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
+                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, null); // TODO key type
+                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
 
-                    keymd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterAttr);
-                }
+                            // Register the TypeConverter under the name of the AttributeConverter class
+                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                            typeMgr.registerConverter(converterAttr, typeConv, attrType, dbType, false, null);
+                        }
 
-                fmd.setKeyMetaData(keymd);
-                pushStack(keymd);
-            }
-            // New value
-            else if (localName.equals("value"))
-            {
-                AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
-                ValueMetaData valuemd = new ValueMetaData();
-                valuemd.setTable(getAttr(attrs, "table"));
-                valuemd.setColumnName(getAttr(attrs, "column"));
-                valuemd.setDeleteAction(getAttr(attrs, "delete-action"));
-                valuemd.setUpdateAction(getAttr(attrs, "update-action"));
-                valuemd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
-                valuemd.setUnique(MetaDataUtils.getBooleanForString(getAttr(attrs, "unique"), false));
-                valuemd.setMappedBy(getAttr(attrs, "mapped-by"));
+                        keymd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterAttr);
+                    }
 
-                String converterAttr = getAttr(attrs, "converter");
-                String disableConverterAttr = getAttr(attrs, "use-default-conversion");
-                if (disableConverterAttr != null && Boolean.getBoolean(disableConverterAttr))
-                {
-                    // TODO Disable on the value?
-                }
-                else if (!StringUtils.isWhitespace(converterAttr))
-                {
-                    TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
-                    Class converterCls = clr.classForName(converterAttr);
-                    if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
-                    {
-                        // Not yet cached an instance of this converter so create one
-                        AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
-                        Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, null); // TODO value type
-                        Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
+                    fmd.setKeyMetaData(keymd);
+                    pushStack(keymd);
+                    break;
+                }
+                // New value
+                case VALUE:
+                {
+                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
+                    ValueMetaData valuemd = new ValueMetaData();
+                    valuemd.setTable(getAttr(attrs, "table"));
+                    valuemd.setColumnName(getAttr(attrs, "column"));
+                    valuemd.setDeleteAction(getAttr(attrs, "delete-action"));
+                    valuemd.setUpdateAction(getAttr(attrs, "update-action"));
+                    valuemd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
+                    valuemd.setUnique(MetaDataUtils.getBooleanForString(getAttr(attrs, "unique"), false));
+                    valuemd.setMappedBy(getAttr(attrs, "mapped-by"));
 
-                        // Register the TypeConverter under the name of the AttributeConverter class
-                        JDOTypeConverter typeConv = new JDOTypeConverter(conv);
-                        typeMgr.registerConverter(converterAttr, typeConv, attrType, dbType, false, null);
+                    String converterAttr = getAttr(attrs, "converter");
+                    String disableConverterAttr = getAttr(attrs, "use-default-conversion");
+                    if (disableConverterAttr != null && Boolean.getBoolean(disableConverterAttr))
+                    {
+                        // TODO Disable on the value?
                     }
+                    else if (!StringUtils.isWhitespace(converterAttr))
+                    {
+                        TypeManager typeMgr = mmgr.getNucleusContext().getTypeManager();
+                        Class converterCls = clr.classForName(converterAttr);
+                        if (typeMgr.getTypeConverterForName(converterCls.getName()) == null)
+                        {
+                            // Not yet cached an instance of this converter so create one
+                            AttributeConverter conv = JDOTypeConverterUtils.createAttributeConverter(mmgr.getNucleusContext(), converterCls);
+                            Class attrType = JDOTypeConverterUtils.getAttributeTypeForAttributeConverter(converterCls, null); // TODO value type
+                            Class dbType = JDOTypeConverterUtils.getDatastoreTypeForAttributeConverter(converterCls, attrType, null);
 
-                    valuemd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterAttr);
-                }
+                            // Register the TypeConverter under the name of the AttributeConverter class
+                            JDOTypeConverter typeConv = new JDOTypeConverter(conv);
+                            typeMgr.registerConverter(converterAttr, typeConv, attrType, dbType, false, null);
+                        }
 
-                fmd.setValueMetaData(valuemd);
-                pushStack(valuemd);
-            }
-            // New fetch-group
-            else if (localName.equals("fetch-group"))
-            {
-                MetaData md = getStack();
-                FetchGroupMetaData fgmd = new FetchGroupMetaData(getAttr(attrs, "name"));
-                String postLoadStr = getAttr(attrs, "post-load");
-                if (!StringUtils.isWhitespace(postLoadStr))
-                {
-                    fgmd.setPostLoad(Boolean.valueOf(postLoadStr));
-                }
-                if (md instanceof FetchGroupMetaData)
-                {
-                    FetchGroupMetaData fgmdParent = (FetchGroupMetaData) md;
-                    fgmdParent.addFetchGroup(fgmd);
-                }
-                else if (md instanceof AbstractClassMetaData)
-                {
-                    AbstractClassMetaData cmd = (AbstractClassMetaData) md;
-                    cmd.addFetchGroup(fgmd);
+                        valuemd.addExtension(MetaData.EXTENSION_MEMBER_TYPE_CONVERTER_NAME, converterAttr);
+                    }
+
+                    fmd.setValueMetaData(valuemd);
+                    pushStack(valuemd);
+                    break;
                 }
-                else if (md instanceof FetchPlanMetaData)
+                // New fetch-group
+                case FETCH_GROUP:
                 {
-                    FetchPlanMetaData fpmd = (FetchPlanMetaData) md;
-                    fpmd.addFetchGroup(fgmd);
-                }
-                pushStack(fgmd);
-            }
-            else if (localName.equals("extension"))
-            {
-                MetaData md = getStack();
-                String vendorName = getAttr(attrs, "vendor-name");
-                if (StringUtils.isWhitespace(vendorName))
-                {
-                    throw new InvalidMetaDataException("044160", vendorName, getAttr(attrs, "key"), getAttr(attrs, "value"));
+                    MetaData md = getStack();
+                    FetchGroupMetaData fgmd = new FetchGroupMetaData(getAttr(attrs, "name"));
+                    String postLoadStr = getAttr(attrs, "post-load");
+                    if (!StringUtils.isWhitespace(postLoadStr))
+                    {
+                        fgmd.setPostLoad(Boolean.valueOf(postLoadStr));
+                    }
+                    if (md instanceof FetchGroupMetaData)
+                    {
+                        FetchGroupMetaData fgmdParent = (FetchGroupMetaData) md;
+                        fgmdParent.addFetchGroup(fgmd);
+                    }
+                    else if (md instanceof AbstractClassMetaData)
+                    {
+                        AbstractClassMetaData cmd = (AbstractClassMetaData) md;
+                        cmd.addFetchGroup(fgmd);
+                    }
+                    else if (md instanceof FetchPlanMetaData)
+                    {
+                        FetchPlanMetaData fpmd = (FetchPlanMetaData) md;
+                        fpmd.addFetchGroup(fgmd);
+                    }
+                    pushStack(fgmd);
+                    break;
                 }
-                if (vendorName != null && vendorName.equalsIgnoreCase(MetaData.VENDOR_NAME))
+                case EXTENSION:
                 {
-                    String extKey = getAttr(attrs, "key");
-                    if (extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANT) || extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_NAME) ||
-                        extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_JDBC_TYPE) || extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_LENGTH))
-                    {
-                        // Multitenancy TODO Put this within a <multitenancy> block and process like that
-                        AbstractClassMetaData cmd = (AbstractClassMetaData)md;
-                        MultitenancyMetaData mtmd = cmd.getMultitenancyMetaData();
-                        if (mtmd == null)
-                        {
-                            mtmd = cmd.newMultitenancyMetaData();
-                        }
-                        if (extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_NAME))
-                        {
-                            mtmd.setColumnName(getAttr(attrs, "value"));
-                        }
-                        else if (extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_LENGTH))
+                    MetaData md = getStack();
+                    String vendorName = getAttr(attrs, "vendor-name");
+                    if (StringUtils.isWhitespace(vendorName))
+                    {
+                        throw new InvalidMetaDataException("044160", vendorName, getAttr(attrs, "key"), getAttr(attrs, "value"));
+                    }
+                    if (vendorName != null && vendorName.equalsIgnoreCase(MetaData.VENDOR_NAME))
+                    {
+                        String extKey = getAttr(attrs, "key");
+                        if (extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANT) || extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_NAME) ||
+                            extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_JDBC_TYPE) || extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_LENGTH))
                         {
-                            ColumnMetaData colmd = mtmd.getColumnMetaData();
-                            if (colmd == null)
+                            // Multitenancy TODO Put this within a <multitenancy> block and process like that
+                            AbstractClassMetaData cmd = (AbstractClassMetaData)md;
+                            MultitenancyMetaData mtmd = cmd.getMultitenancyMetaData();
+                            if (mtmd == null)
+                            {
+                                mtmd = cmd.newMultitenancyMetaData();
+                            }
+                            if (extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_NAME))
+                            {
+                                mtmd.setColumnName(getAttr(attrs, "value"));
+                            }
+                            else if (extKey.equals(MetaData.EXTENSION_CLASS_MULTITENANCY_COLUMN_LENGTH))
                             {
-                                colmd = mtmd.newColumnMetaData();
+                                ColumnMetaData colmd = mtmd.getColumnMetaData();
+                                if (colmd == null)
+                                {
+                                    colmd = mtmd.newColumnMetaData();
+                                }
+                                colmd.setLength(getAttr(attrs, "value"));
                             }
-                            colmd.setLength(getAttr(attrs, "value"));
                         }
-                    }
-                    else if (extKey.equals(MetaData.EXTENSION_CLASS_SOFTDELETE) || extKey.equals(MetaData.EXTENSION_CLASS_SOFTDELETE_COLUMN_NAME))
-                    {
-                        // SoftDelete TODO Put this within a <soft-delete> block and process like that
-                        AbstractClassMetaData cmd = (AbstractClassMetaData)md;
-                        MultitenancyMetaData mtmd = cmd.getMultitenancyMetaData();
-                        if (mtmd == null)
+                        else if (extKey.equals(MetaData.EXTENSION_CLASS_SOFTDELETE) || extKey.equals(MetaData.EXTENSION_CLASS_SOFTDELETE_COLUMN_NAME))
                         {
-                            mtmd = cmd.newMultitenancyMetaData();
+                            // SoftDelete TODO Put this within a <soft-delete> block and process like that
+                            AbstractClassMetaData cmd = (AbstractClassMetaData)md;
+                            MultitenancyMetaData mtmd = cmd.getMultitenancyMetaData();
+                            if (mtmd == null)
+                            {
+                                mtmd = cmd.newMultitenancyMetaData();
+                            }
+                            if (extKey.equals(MetaData.EXTENSION_CLASS_SOFTDELETE_COLUMN_NAME))
+                            {
+                                mtmd.setColumnName(getAttr(attrs, "value"));
+                            }
                         }
-                        if (extKey.equals(MetaData.EXTENSION_CLASS_SOFTDELETE_COLUMN_NAME))
+                        else
                         {
-                            mtmd.setColumnName(getAttr(attrs, "value"));
+                            md.addExtension(extKey, getAttr(attrs, "value"));
                         }
                     }
-                    else
-                    {
-                        md.addExtension(extKey, getAttr(attrs, "value"));
-                    }
-                }
-            }
-            else if (localName.equals("version"))
-            {
-                MetaData md = getStack();
-                AbstractClassMetaData cmd = null;
-                String memberName = null;
-                if (md instanceof AbstractClassMetaData)
-                {
-                    cmd = (AbstractClassMetaData)md;
+                    break;
                 }
-                else if (md instanceof AbstractMemberMetaData)
+                case VERSION:
                 {
-                    AbstractMemberMetaData mmd = (AbstractMemberMetaData)md;
-                    cmd = mmd.getAbstractClassMetaData();
-                    memberName = mmd.getName();
-                }
+                    MetaData md = getStack();
+                    AbstractClassMetaData cmd = null;
+                    String memberName = null;
+                    if (md instanceof AbstractClassMetaData)
+                    {
+                        cmd = (AbstractClassMetaData)md;
+                    }
+                    else if (md instanceof AbstractMemberMetaData)
+                    {
+                        AbstractMemberMetaData mmd = (AbstractMemberMetaData)md;
+                        cmd = mmd.getAbstractClassMetaData();
+                        memberName = mmd.getName();
+                    }
 
-                if (cmd != null)
-                {
-                    VersionMetaData vermd = cmd.newVersionMetaData();
-                    String strategy = getAttr(attrs, "strategy");
-                    vermd.setStrategy(StringUtils.isWhitespace(strategy) ? "version-number" : strategy);
-                    vermd.setColumnName(getAttr(attrs, "column"));
-                    vermd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
-                    if (memberName != null)
+                    if (cmd != null)
                     {
-                        vermd.setMemberName(memberName);
+                        VersionMetaData vermd = cmd.newVersionMetaData();
+                        String strategy = getAttr(attrs, "strategy");
+                        vermd.setStrategy(StringUtils.isWhitespace(strategy) ? "version-number" : strategy);
+                        vermd.setColumnName(getAttr(attrs, "column"));
+                        vermd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
+                        if (memberName != null)
+                        {
+                            vermd.setMemberName(memberName);
+                        }
+                        pushStack(vermd);
                     }
-                    pushStack(vermd);
-                }
-            }
-            else if (localName.equals("index"))
-            {
-                MetaData md = getStack();
-                IndexMetaData idxmd = new IndexMetaData();
-                idxmd.setName(getAttr(attrs, "name"));
-                idxmd.setTable(getAttr(attrs, "table"));
-                String uniStr = getAttr(attrs, "unique");
-                if (!StringUtils.isWhitespace(uniStr))
-                {
-                    idxmd.setUnique(Boolean.valueOf(uniStr));
-                }
-                if (md instanceof AbstractClassMetaData)
-                {
-                    AbstractClassMetaData cmd = (AbstractClassMetaData) md;
-                    cmd.addIndex(idxmd);
-                }
-                else if (md instanceof AbstractMemberMetaData)
-                {
-                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
-                    fmd.setIndexMetaData(idxmd);
-                }
-                else if (md instanceof JoinMetaData)
-                {
-                    JoinMetaData jmd = (JoinMetaData) md;
-                    jmd.setIndexMetaData(idxmd);
-                }
-                else if (md instanceof AbstractElementMetaData)
-                {
-                    AbstractElementMetaData elmd = (AbstractElementMetaData) md;
-                    elmd.setIndexMetaData(idxmd);
-                }
-                else if (md instanceof OrderMetaData)
-                {
-                    OrderMetaData omd = (OrderMetaData) md;
-                    omd.setIndexMetaData(idxmd);
-                }
-                else if (md instanceof VersionMetaData)
-                {
-                    VersionMetaData vermd = (VersionMetaData) md;
-                    vermd.setIndexMetaData(idxmd);
-                }
-                else if (md instanceof DiscriminatorMetaData)
-                {
-                    DiscriminatorMetaData dismd = (DiscriminatorMetaData) md;
-                    dismd.setIndexMetaData(idxmd);
-                }
-                pushStack(idxmd);
-            }
-            else if (localName.equals("unique"))
-            {
-                MetaData md = getStack();
-                UniqueMetaData unimd = new UniqueMetaData();
-                unimd.setName(getAttr(attrs, "name"));
-                unimd.setTable(getAttr(attrs, "table"));
-                String defStr = getAttr(attrs, "deferred");
-                if (!StringUtils.isWhitespace(defStr))
-                {
-                    unimd.setDeferred(Boolean.valueOf(defStr));
-                }
-                if (md instanceof AbstractClassMetaData)
-                {
-                    AbstractClassMetaData cmd = (AbstractClassMetaData) md;
-                    cmd.addUniqueConstraint(unimd);
-                }
-                else if (md instanceof AbstractMemberMetaData)
-                {
-                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
-                    fmd.setUniqueMetaData(unimd);
-                }
-                else if (md instanceof JoinMetaData)
-                {
-                    JoinMetaData jmd = (JoinMetaData) md;
-                    jmd.setUniqueMetaData(unimd);
-                }
-                else if (md instanceof AbstractElementMetaData)
-                {
-                    AbstractElementMetaData elmd = (AbstractElementMetaData) md;
-                    elmd.setUniqueMetaData(unimd);
-                }
-                pushStack(unimd);
-            }
-            else if (localName.equals("foreign-key"))
-            {
-                MetaData md = getStack();
-                ForeignKeyMetaData fkmd = new ForeignKeyMetaData();
-                fkmd.setName(getAttr(attrs, "name"));
-                fkmd.setTable(getAttr(attrs, "table"));
-                fkmd.setUnique(getAttr(attrs, "unique"));
-                fkmd.setDeferred(getAttr(attrs, "deferred"));
-                fkmd.setDeleteAction(ForeignKeyAction.getForeignKeyAction(getAttr(attrs, "delete-action")));
-                fkmd.setUpdateAction(ForeignKeyAction.getForeignKeyAction(getAttr(attrs, "update-action")));
-                if (md instanceof AbstractClassMetaData)
-                {
-                    AbstractClassMetaData cmd = (AbstractClassMetaData) md;
-                    cmd.addForeignKey(fkmd);
-                }
-                else if (md instanceof AbstractMemberMetaData)
-                {
-                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
-                    fmd.setForeignKeyMetaData(fkmd);
-                }
-                else if (md instanceof JoinMetaData)
-                {
-                    JoinMetaData jmd = (JoinMetaData) md;
-                    jmd.setForeignKeyMetaData(fkmd);
-                }
-                else if (md instanceof AbstractElementMetaData)
-                {
-                    AbstractElementMetaData elmd = (AbstractElementMetaData) md;
-                    elmd.setForeignKeyMetaData(fkmd);
-                }
-                pushStack(fkmd);
-            }
-            else if (localName.equals("order"))
-            {
-                OrderMetaData ordmd = new OrderMetaData();
-                ordmd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
-                ordmd.setColumnName(getAttr(attrs, "column"));
-                ordmd.setMappedBy(getAttr(attrs, "mapped-by"));
-                AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
-                fmd.setOrderMetaData(ordmd);
-                pushStack(ordmd);
-            }
-            else if (localName.equals("embedded"))
-            {
-                MetaData md = getStack();
-                EmbeddedMetaData embmd = new EmbeddedMetaData();
-                embmd.setOwnerMember(getAttr(attrs, "owner-field"));
-                embmd.setNullIndicatorColumn(getAttr(attrs, "null-indicator-column"));
-                embmd.setNullIndicatorValue(getAttr(attrs, "null-indicator-value"));
-                if (md instanceof AbstractMemberMetaData)
-                {
-                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
-                    fmd.setEmbeddedMetaData(embmd);
+                    break;
                 }
-                else if (md instanceof KeyMetaData)
+                case INDEX:
                 {
-                    KeyMetaData kmd = (KeyMetaData) md;
-                    kmd.setEmbeddedMetaData(embmd);
-                }
-                else if (md instanceof ValueMetaData)
-                {
-                    ValueMetaData vmd = (ValueMetaData) md;
-                    vmd.setEmbeddedMetaData(embmd);
+                    MetaData md = getStack();
+                    IndexMetaData idxmd = new IndexMetaData();
+                    idxmd.setName(getAttr(attrs, "name"));
+                    idxmd.setTable(getAttr(attrs, "table"));
+                    String uniStr = getAttr(attrs, "unique");
+                    if (!StringUtils.isWhitespace(uniStr))
+                    {
+                        idxmd.setUnique(Boolean.valueOf(uniStr));
+                    }
+                    if (md instanceof AbstractClassMetaData)
+                    {
+                        AbstractClassMetaData cmd = (AbstractClassMetaData) md;
+                        cmd.addIndex(idxmd);
+                    }
+                    else if (md instanceof AbstractMemberMetaData)
+                    {
+                        AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
+                        fmd.setIndexMetaData(idxmd);
+                    }
+                    else if (md instanceof JoinMetaData)
+                    {
+                        JoinMetaData jmd = (JoinMetaData) md;
+                        jmd.setIndexMetaData(idxmd);
+                    }
+                    else if (md instanceof AbstractElementMetaData)
+                    {
+                        AbstractElementMetaData elmd = (AbstractElementMetaData) md;
+                        elmd.setIndexMetaData(idxmd);
+                    }
+                    else if (md instanceof OrderMetaData)
+                    {
+                        OrderMetaData omd = (OrderMetaData) md;
+                        omd.setIndexMetaData(idxmd);
+                    }
+                    else if (md instanceof VersionMetaData)
+                    {
+                        VersionMetaData vermd = (VersionMetaData) md;
+                        vermd.setIndexMetaData(idxmd);
+                    }
+                    else if (md instanceof DiscriminatorMetaData)
+                    {
+                        DiscriminatorMetaData dismd = (DiscriminatorMetaData) md;
+                        dismd.setIndexMetaData(idxmd);
+                    }
+                    pushStack(idxmd);
+                    break;
                 }
-                else if (md instanceof ElementMetaData)
+                case UNIQUE:
                 {
-                    ElementMetaData elmd = (ElementMetaData) md;
-                    elmd.setEmbeddedMetaData(embmd);
+                    MetaData md = getStack();
+                    UniqueMetaData unimd = new UniqueMetaData();
+                    unimd.setName(getAttr(attrs, "name"));
+                    unimd.setTable(getAttr(attrs, "table"));
+                    String defStr = getAttr(attrs, "deferred");
+                    if (!StringUtils.isWhitespace(defStr))
+                    {
+                        unimd.setDeferred(Boolean.valueOf(defStr));
+                    }
+                    if (md instanceof AbstractClassMetaData)
+                    {
+                        AbstractClassMetaData cmd = (AbstractClassMetaData) md;
+                        cmd.addUniqueConstraint(unimd);
+                    }
+                    else if (md instanceof AbstractMemberMetaData)
+                    {
+                        AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
+                        fmd.setUniqueMetaData(unimd);
+                    }
+                    else if (md instanceof JoinMetaData)
+                    {
+                        JoinMetaData jmd = (JoinMetaData) md;
+                        jmd.setUniqueMetaData(unimd);
+                    }
+                    else if (md instanceof AbstractElementMetaData)
+                    {
+                        AbstractElementMetaData elmd = (AbstractElementMetaData) md;
+                        elmd.setUniqueMetaData(unimd);
+                    }
+                    pushStack(unimd);
+                    break;
+                }
+                case FOREIGN_KEY:
+                {
+                    MetaData md = getStack();
+                    ForeignKeyMetaData fkmd = new ForeignKeyMetaData();
+                    fkmd.setName(getAttr(attrs, "name"));
+                    fkmd.setTable(getAttr(attrs, "table"));
+                    fkmd.setUnique(getAttr(attrs, "unique"));
+                    fkmd.setDeferred(getAttr(attrs, "deferred"));
+                    fkmd.setDeleteAction(ForeignKeyAction.getForeignKeyAction(getAttr(attrs, "delete-action")));
+                    fkmd.setUpdateAction(ForeignKeyAction.getForeignKeyAction(getAttr(attrs, "update-action")));
+                    if (md instanceof AbstractClassMetaData)
+                    {
+                        AbstractClassMetaData cmd = (AbstractClassMetaData) md;
+                        cmd.addForeignKey(fkmd);
+                    }
+                    else if (md instanceof AbstractMemberMetaData)
+                    {
+                        AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
+                        fmd.setForeignKeyMetaData(fkmd);
+                    }
+                    else if (md instanceof JoinMetaData)
+                    {
+                        JoinMetaData jmd = (JoinMetaData) md;
+                        jmd.setForeignKeyMetaData(fkmd);
+                    }
+                    else if (md instanceof AbstractElementMetaData)
+                    {
+                        AbstractElementMetaData elmd = (AbstractElementMetaData) md;
+                        elmd.setForeignKeyMetaData(fkmd);
+                    }
+                    pushStack(fkmd);
+                    break;
+                }
+                case ORDER:
+                {
+                    OrderMetaData ordmd = new OrderMetaData();
+                    ordmd.setIndexed(IndexedValue.getIndexedValue(getAttr(attrs, "indexed")));
+                    ordmd.setColumnName(getAttr(attrs, "column"));
+                    ordmd.setMappedBy(getAttr(attrs, "mapped-by"));
+                    AbstractMemberMetaData fmd = (AbstractMemberMetaData) getStack();
+                    fmd.setOrderMetaData(ordmd);
+                    pushStack(ordmd);
+                    break;
+                }
+                case EMBEDDED:
+                {
+                    MetaData md = getStack();
+                    EmbeddedMetaData embmd = new EmbeddedMetaData();
+                    embmd.setOwnerMember(getAttr(attrs, "owner-field"));
+                    embmd.setNullIndicatorColumn(getAttr(attrs, "null-indicator-column"));
+                    embmd.setNullIndicatorValue(getAttr(attrs, "null-indicator-value"));
+                    if (md instanceof AbstractMemberMetaData)
+                    {
+                        AbstractMemberMetaData fmd = (AbstractMemberMetaData) md;
+                        fmd.setEmbeddedMetaData(embmd);
+                    }
+                    else if (md instanceof KeyMetaData)
+                    {
+                        KeyMetaData kmd = (KeyMetaData) md;
+                        kmd.setEmbeddedMetaData(embmd);
+                    }
+                    else if (md instanceof ValueMetaData)
+                    {
+                        ValueMetaData vmd = (ValueMetaData) md;
+                        vmd.setEmbeddedMetaData(embmd);
+                    }
+                    else if (md instanceof ElementMetaData)
+                    {
+                        ElementMetaData elmd = (ElementMetaData) md;
+                        elmd.setEmbeddedMetaData(embmd);
+                    }
+                    pushStack(embmd);
+                    break;
                 }
-                pushStack(embmd);
-            }
-            else
-            {
-                String message = Localiser.msg("044037", qName);
-                NucleusLogger.METADATA.error(message);
-                throw new RuntimeException(message);
+                default:
+                    throw unsupportedElement(qName);
             }
         }
         catch (RuntimeException ex)
@@ -1324,28 +1460,31 @@ public class JDOXmlMetaDataHandler extends AbstractXmlMetaDataHandler
             localName = qName;
         }
 
+        XmlElement element = XmlElement.forName(localName);
+
         // Save the current string for elements that have a body value
         String currentString = getString().trim();
-        if (currentString.length() > 0)
+        if (currentString.length() > 0 && element == XmlElement.QUERY)
         {
-            MetaData md = getStack();
-            if (localName.equals("query"))
-            {
-                ((QueryMetaData) md).setQuery(currentString);
-            }
+            ((QueryMetaData) getStack()).setQuery(currentString);
         }
 
-        // Pop the tag
-        // If startElement pushes an element onto the stack need a remove here for that type
-        if (localName.equals("package") || localName.equals("fetch-plan") || localName.equals("class") || localName.equals("interface") || localName
-                .equals("implements") || localName.equals("property") || localName.equals("datastore-identity") || localName.equals("inheritance") || localName
-                .equals("primary-key") || localName.equals("version") || localName.equals("unmapped") || localName.equals("query") || localName
-                .equals("sequence") || localName.equals("field") || localName.equals("map") || localName.equals("element") || localName.equals("embedded") || localName
-                .equals("key") || localName.equals("value") || localName.equals("array") || localName.equals("collection") || localName.equals("join") || localName
-                .equals("index") || localName.equals("unique") || localName.equals("foreign-key") || localName.equals("order") || localName
-                .equals("fetch-group") || localName.equals("column") || localName.equals("discriminator"))
+        // Pop the tag (if startElement pushed an element onto the stack for this type)
+        if (element != null && element.popsStack)
         {
             popStack();
         }
     }
+
+    /**
+     * Convenience method to log and create the exception for an element that this handler doesn't support.
+     * @param qName Name of the element
+     * @return The exception to throw
+     */
+    private static RuntimeException unsupportedElement(String qName)
+    {
+        String message = Localiser.msg("044037", qName);
+        NucleusLogger.METADATA.error(message);
+        return new RuntimeException(message);
+    }
 }
\ No newline at end of file
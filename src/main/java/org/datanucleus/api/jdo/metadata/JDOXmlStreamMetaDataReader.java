@@ -0,0 +1,273 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo.metadata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.datanucleus.exceptions.NucleusException;
+import org.datanucleus.exceptions.NucleusUserException;
+import org.datanucleus.metadata.FileMetaData;
+import org.datanucleus.metadata.MetaDataManager;
+import org.datanucleus.util.NucleusLogger;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Pull-based (StAX) reader for JDO XML MetaData, as an alternative to the SAX parse via XmlMetaDataParser.
+ * Caters for "JDO", "ORM" and "JDOQUERY" XML MetaData.
+ * <p>
+ * The document is streamed and each element is passed to a {@link JDOXmlMetaDataHandler}, so the resultant FileMetaData is
+ * identical to that from the SAX parse. No DTD/XSD validation is performed, so this is intended for trusted metadata files;
+ * the only structural check is that the root element is one of "jdo", "orm" or "jdoquery", with any other misplaced
+ * element being rejected by the handler as it is encountered.
+ * </p>
+ * <p>
+ * Where the file declares a DOCTYPE, the attribute defaults from the bundled DTD for that file type are applied (as a SAX
+ * parser would do), but the DTD itself is never loaded from the declared location.
+ * </p>
+ */
+public class JDOXmlStreamMetaDataReader
+{
+    /** Factory for stream readers. Thread-safe once configured. */
+    private static final XMLInputFactory INPUT_FACTORY;
+    static
+    {
+        INPUT_FACTORY = XMLInputFactory.newInstance();
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+    }
+
+    /** Pattern for an attribute declaration with a default value in the bundled DTDs. */
+    private static final Pattern DTD_ATTRIBUTE_DEFAULT = Pattern.compile("<!ATTLIST\\s+(\\S+)\\s+(\\S+)\\s+\\S+\\s+'([^']*)'>");
+
+    /** Attribute defaults (keyed by element name, then attribute name), keyed by the root element of the file type. */
+    private static final Map<String, Map<String, Map<String, String>>> ATTRIBUTE_DEFAULTS_BY_ROOT = new ConcurrentHashMap<>();
+
+    protected final MetaDataManager mmgr;
+
+    /**
+     * Constructor.
+     * @param mmgr MetaData manager
+     */
+    public JDOXmlStreamMetaDataReader(MetaDataManager mmgr)
+    {
+        this.mmgr = mmgr;
+    }
+
+    /**
+     * Method to read the JDO XML MetaData at the specified URL.
+     * @param url URL of the file
+     * @return The FileMetaData for this file
+     * @throws NucleusException if an error occurs reading the file
+     */
+    public FileMetaData read(URL url)
+    {
+        if (url == null)
+        {
+            throw new NucleusException("Attempt to read JDO XML MetaData yet no URL was specified");
+        }
+
+        try (InputStream in = url.openStream())
+        {
+            return read(in, url.toString());
+        }
+        catch (IOException ioe)
+        {
+            throw new NucleusException("Error reading JDO XML MetaData at " + url, ioe);
+        }
+    }
+
+    /**
+     * Method to read JDO XML MetaData from the provided stream.
+     * @param in The input stream
+     * @param filename Name of the file that this stream is for (used for the FileMetaData and messages)
+     * @return The FileMetaData for this file
+     * @throws NucleusException if an error occurs reading the stream
+     */
+    public FileMetaData read(InputStream in, String filename)
+    {
+        long startTime = System.currentTimeMillis();
+        JDOXmlMetaDataHandler handler = new JDOXmlMetaDataHandler(mmgr, filename, null);
+
+        XMLStreamReader reader = null;
+        try
+        {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+
+            boolean rootFound = false;
+            boolean hasDoctype = false;
+            Map<String, Map<String, String>> attrDefaults = Collections.emptyMap();
+            AttributesImpl attrs = new AttributesImpl();
+            handler.startDocument();
+            while (reader.hasNext())
+            {
+                int event = reader.next();
+                switch (event)
+                {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String localName = reader.getLocalName();
+                        if (!rootFound)
+                        {
+                            if (!localName.equals("jdo") && !localName.equals("orm") && !localName.equals("jdoquery"))
+                            {
+                                throw new NucleusUserException("JDO XML MetaData file " + filename + " has root element \"" + localName +
+                                    "\" but should be one of \"jdo\", \"orm\" or \"jdoquery\"");
+                            }
+                            rootFound = true;
+                            if (hasDoctype)
+                            {
+                                attrDefaults = getAttributeDefaults(localName);
+                            }
+                        }
+
+                        attrs.clear();
+                        int numAttrs = reader.getAttributeCount();
+                        for (int i = 0; i < numAttrs; i++)
+                        {
+                            String attrName = reader.getAttributeLocalName(i);
+                            attrs.addAttribute(getNamespace(reader.getAttributeNamespace(i)), attrName, getQualifiedName(reader.getAttributePrefix(i), attrName),
+                                "CDATA", reader.getAttributeValue(i));
+                        }
+                        String qName = getQualifiedName(reader.getPrefix(), localName);
+                        Map<String, String> elemDefaults = attrDefaults.get(qName);
+                        if (elemDefaults != null)
+                        {
+                            for (Map.Entry<String, String> defaultEntry : elemDefaults.entrySet())
+                            {
+                                if (attrs.getIndex(defaultEntry.getKey()) < 0)
+                                {
+                                    attrs.addAttribute("", defaultEntry.getKey(), defaultEntry.getKey(), "CDATA", defaultEntry.getValue());
+                                }
+                            }
+                        }
+                        handler.startElement(getNamespace(reader.getNamespaceURI()), localName, qName, attrs);
+                        break;
+
+                    case XMLStreamConstants.END_ELEMENT:
+                        handler.endElement(getNamespace(reader.getNamespaceURI()), reader.getLocalName(), getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+                        break;
+
+                    case XMLStreamConstants.DTD:
+                        hasDoctype = true;
+                        break;
+
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        handler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+            handler.endDocument();
+
+            if (!rootFound)
+            {
+                throw new NucleusUserException("JDO XML MetaData file " + filename + " has no root element");
+            }
+        }
+        catch (XMLStreamException | SAXException e)
+        {
+            throw new NucleusException("Error reading JDO XML MetaData file " + filename + " : " + e.getMessage(), e);
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                try
+                {
+                    reader.close();
+                }
+                catch (XMLStreamException e)
+                {
+                    // Ignore
+                }
+            }
+        }
+
+        if (NucleusLogger.METADATA.isDebugEnabled())
+        {
+            NucleusLogger.METADATA.debug("Streamed JDO XML MetaData file " + filename + " in " + (System.currentTimeMillis() - startTime) + " ms");
+        }
+        return (FileMetaData) handler.getMetaData();
+    }
+
+    /**
+     * Accessor for the attribute defaults declared in the bundled DTD for the file type with the specified root element.
+     * @param rootElementName Name of the root element ("jdo", "orm" or "jdoquery")
+     * @return The attribute defaults, keyed by element name and then attribute name
+     */
+    private static Map<String, Map<String, String>> getAttributeDefaults(String rootElementName)
+    {
+        return ATTRIBUTE_DEFAULTS_BY_ROOT.computeIfAbsent(rootElementName, root ->
+        {
+            String dtdName = root.equals("orm") ? "jdo_orm_3_2.dtd" : (root.equals("jdoquery") ? "jdoquery_3_2.dtd" : "jdo_3_2.dtd");
+            Map<String, Map<String, String>> defaults = new HashMap<>();
+            try (InputStream dtdStream = JDOXmlStreamMetaDataReader.class.getResourceAsStream("/org/datanucleus/api/jdo/" + dtdName))
+            {
+                if (dtdStream != null)
+                {
+                    BufferedReader dtdReader = new BufferedReader(new InputStreamReader(dtdStream, StandardCharsets.UTF_8));
+                    String line;
+                    while ((line = dtdReader.readLine()) != null)
+                    {
+                        Matcher matcher = DTD_ATTRIBUTE_DEFAULT.matcher(line);
+                        if (matcher.find())
+                        {
+                            defaults.computeIfAbsent(matcher.group(1), k -> new HashMap<>()).put(matcher.group(2), matcher.group(3));
+                        }
+                    }
+                }
+            }
+            catch (IOException ioe)
+            {
+                NucleusLogger.METADATA.warn("Unable to read attribute defaults from " + dtdName, ioe);
+            }
+            return defaults;
+        });
+    }
+
+    private static String getNamespace(String namespaceURI)
+    {
+        return namespaceURI != null ? namespaceURI : "";
+    }
+
+    private static String getQualifiedName(String prefix, String localName)
+    {
+        return (prefix == null || prefix.length() == 0) ? localName : (prefix + ":" + localName);
+    }
+}
@@ -118,6 +118,10 @@ class Hollow extends LifeCycleState
         {
             throw new TransactionNotWritableException(Localiser.msg("027001"), sm.getInternalObjectId());
         }
+        if (LifeCycleStateFactory.isReadOnlyTransaction(tx))
+        {
+            throw new TransactionNotWritableException(Localiser.msg("011014", sm.getInternalObjectId()), sm.getInternalObjectId());
+        }
         return changeState(sm, tx.isActive() ? P_DIRTY : P_NONTRANS);
     }
 
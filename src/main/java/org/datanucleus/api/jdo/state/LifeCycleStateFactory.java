@@ -18,7 +18,11 @@ Contributors:
 **********************************************************************/
 package org.datanucleus.api.jdo.state;
 
+import java.util.Map;
+
+import org.datanucleus.api.jdo.JDOTransaction;
 import org.datanucleus.state.LifeCycleState;
+import org.datanucleus.transaction.Transaction;
 
 /**
  * Factory for life cycle states.
@@ -55,4 +59,20 @@ public abstract class LifeCycleStateFactory
     {
         return states[stateType];
     }
+
+    /**
+     * Convenience method to return whether the transaction is active and read-only (see JDOTransaction.setReadOnly).
+     * In a read-only transaction no before-images are saved, and any update of a field is rejected.
+     * @param tx The transaction
+     * @return Whether it is an active read-only transaction
+     */
+    static boolean isReadOnlyTransaction(Transaction tx)
+    {
+        if (!tx.isActive())
+        {
+            return false;
+        }
+        Map<String, Object> options = tx.getOptions();
+        return options != null && Boolean.TRUE.equals(options.get(JDOTransaction.OPTION_READ_ONLY));
+    }
 }
\ No newline at end of file
@@ -21,9 +21,11 @@ Contributors:
 package org.datanucleus.api.jdo.state;
 
 import org.datanucleus.FetchPlan;
+import org.datanucleus.api.jdo.exceptions.TransactionNotWritableException;
 import org.datanucleus.state.LifeCycleState;
 import org.datanucleus.state.DNStateManager;
 import org.datanucleus.transaction.Transaction;
+import org.datanucleus.util.Localiser;
 
 /**
  * Class representing the life cycle state of PersistentClean.
@@ -106,6 +108,10 @@ class PersistentClean extends LifeCycleState
     public LifeCycleState transitionWriteField(DNStateManager sm)
     {
         Transaction tx = sm.getExecutionContext().getTransaction();
+        if (LifeCycleStateFactory.isReadOnlyTransaction(tx))
+        {
+            throw new TransactionNotWritableException(Localiser.msg("011014", sm.getInternalObjectId()), sm.getInternalObjectId());
+        }
         if (tx.getRestoreValues())
         {
             sm.saveFields();
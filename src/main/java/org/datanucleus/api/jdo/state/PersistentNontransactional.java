@@ -114,8 +114,11 @@ class PersistentNontransactional extends LifeCycleState
 		}
         if (tx.isActive() && !tx.getOptimistic())
         {
-            // Save the fields for rollback.
-            sm.saveFields();
+            if (!LifeCycleStateFactory.isReadOnlyTransaction(tx))
+            {
+                // Save the fields for rollback. Not needed in a read-only transaction since nothing can be updated
+                sm.saveFields();
+            }
             sm.refreshLoadedFields();
             return changeState(sm, P_CLEAN);
         }
@@ -130,6 +133,10 @@ class PersistentNontransactional extends LifeCycleState
         {
             throw new TransactionNotWritableException(Localiser.msg("027001"), sm.getInternalObjectId());
         }
+        if (LifeCycleStateFactory.isReadOnlyTransaction(tx))
+        {
+            throw new TransactionNotWritableException(Localiser.msg("011014", sm.getInternalObjectId()), sm.getInternalObjectId());
+        }
         if (tx.isActive())
         {
             // Save the fields for rollback.
@@ -146,7 +153,20 @@ class PersistentNontransactional extends LifeCycleState
     public LifeCycleState transitionRetrieve(DNStateManager sm, boolean fgOnly)
     {
         Transaction tx = sm.getExecutionContext().getTransaction();
-        if (tx.isActive() && !tx.getOptimistic())
+        if (LifeCycleStateFactory.isReadOnlyTransaction(tx))
+        {
+            // No before-image needed since nothing can be updated
+            if (fgOnly)
+            {
+                sm.loadUnloadedFieldsInFetchPlan();
+            }
+            else
+            {
+                sm.loadUnloadedFields();
+            }
+            return tx.getOptimistic() ? this : changeState(sm, P_CLEAN);
+        }
+        else if (tx.isActive() && !tx.getOptimistic())
         {
             // Save the fields for rollback - TODO Omit this if no unloaded fields
             sm.saveFields();
@@ -192,7 +212,13 @@ class PersistentNontransactional extends LifeCycleState
     public LifeCycleState transitionRetrieve(DNStateManager sm, FetchPlan fetchPlan)
     {
         Transaction tx = sm.getExecutionContext().getTransaction();
-        if (tx.isActive() && !tx.getOptimistic())
+        if (LifeCycleStateFactory.isReadOnlyTransaction(tx))
+        {
+            // No before-image needed since nothing can be updated
+            sm.loadUnloadedFieldsOfClassInFetchPlan(fetchPlan);
+            return tx.getOptimistic() ? this : changeState(sm, P_CLEAN);
+        }
+        else if (tx.isActive() && !tx.getOptimistic())
         {
             // Save the fields for rollback - TODO Omit this if no unloaded fields
             sm.saveFields();
@@ -0,0 +1,131 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jdo.JDODataStoreException;
+import javax.jdo.JDOUserException;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.JDOPersistenceManager.FlushedInstanceAction;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.exceptions.NucleusDataStoreException;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for makePersistentAll(Iterable, int, FlushedInstanceAction), using a mock ExecutionContext.
+ */
+public class ChunkedMakePersistentTest extends TestCase
+{
+    private List<String> calls;
+
+    private Mock<Transaction> tx;
+
+    private Mock<ExecutionContext> ec;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        calls = new ArrayList<>();
+        tx = Mocks.mock(Transaction.class).returns("isActive", false).returns("getNontransactionalWrite", true);
+        Mock<ApiAdapter> api = Mocks.mock(ApiAdapter.class);
+        ec = Mocks.mock(ExecutionContext.class, calls).returns("getTransaction", tx.proxy).returns("getApiAdapter", api.proxy)
+            .answer("persistObjects", args -> args[0]);
+    }
+
+    public void testNontransactionalChunksEvicted()
+    {
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        assertEquals(3, pm.makePersistentAll(Arrays.asList(new Object(), new Object(), new Object()), 2, FlushedInstanceAction.EVICT));
+        assertEquals(Arrays.asList("persistObjects", "flush", "evictObject", "evictObject", "persistObjects", "flush", "evictObject"),
+            getCalls("persistObjects", "flush", "evictObject"));
+    }
+
+    public void testNontransactionalChunksMadeTransient()
+    {
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        assertEquals(2, pm.makePersistentAll(Arrays.asList(new Object(), new Object()), 1, FlushedInstanceAction.MAKE_TRANSIENT));
+        assertEquals(2, getCalls("makeObjectTransient").size());
+    }
+
+    public void testRetainInActiveTransaction()
+    {
+        tx.returns("isActive", true);
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        assertEquals(3, pm.makePersistentAll(Arrays.asList(new Object(), new Object(), new Object()), 2, FlushedInstanceAction.RETAIN));
+        assertEquals(Arrays.asList("persistObjects", "flush", "persistObjects", "flush"), getCalls("persistObjects", "flush", "evictObject"));
+    }
+
+    public void testEvictRejectedInActiveTransaction()
+    {
+        tx.returns("isActive", true);
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        for (FlushedInstanceAction action : new FlushedInstanceAction[] {FlushedInstanceAction.EVICT, FlushedInstanceAction.MAKE_TRANSIENT})
+        {
+            try
+            {
+                pm.makePersistentAll(Arrays.asList(new Object()), 1, action);
+                fail("Expected JDOUserException for " + action);
+            }
+            catch (JDOUserException ue)
+            {
+                // Expected
+            }
+        }
+        assertTrue(getCalls("persistObjects").isEmpty());
+    }
+
+    public void testDatastoreFailureTranslated()
+    {
+        ec.answer("persistObjects", args ->
+        {
+            throw new NucleusDataStoreException("Insert failed");
+        });
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        try
+        {
+            pm.makePersistentAll(Arrays.asList(new Object()), 1, FlushedInstanceAction.EVICT);
+            fail("Expected JDODataStoreException");
+        }
+        catch (JDODataStoreException dse)
+        {
+            // Expected
+        }
+    }
+
+    private List<String> getCalls(String... methodNames)
+    {
+        List<String> names = Arrays.asList(methodNames);
+        List<String> matching = new ArrayList<>();
+        for (String call : calls)
+        {
+            if (names.contains(call))
+            {
+                matching.add(call);
+            }
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,150 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.cache.StrongRefCache;
+import org.datanucleus.state.DNStateManager;
+
+/**
+ * Tests for the class-indexed Level 1 cache.
+ */
+public class ClassIndexedLevel1CacheTest extends TestCase
+{
+    public static class Base
+    {
+    }
+
+    public static class Sub extends Base
+    {
+    }
+
+    public static class Other
+    {
+    }
+
+    public void testStateManagersForClass()
+    {
+        ClassIndexedLevel1Cache cache = new ClassIndexedLevel1Cache();
+        DNStateManager base1 = newStateManager(new Base());
+        DNStateManager base2 = newStateManager(new Base());
+        DNStateManager sub1 = newStateManager(new Sub());
+        DNStateManager other1 = newStateManager(new Other());
+        cache.put("base1", base1);
+        cache.put("base2", base2);
+        cache.put("sub1", sub1);
+        cache.put("other1", other1);
+
+        List<DNStateManager> sms = cache.getStateManagersForClass(Base.class, false);
+        assertEquals(2, sms.size());
+        assertTrue(sms.contains(base1));
+        assertTrue(sms.contains(base2));
+
+        sms = cache.getStateManagersForClass(Base.class, true);
+        assertEquals(3, sms.size());
+        assertTrue(sms.contains(sub1));
+
+        sms = cache.getStateManagersForClass(Other.class, true);
+        assertEquals(1, sms.size());
+        assertSame(other1, sms.get(0));
+
+        assertTrue(cache.getStateManagersForClass(String.class, true).isEmpty());
+    }
+
+    public void testRemoveAndReplace()
+    {
+        ClassIndexedLevel1Cache cache = new ClassIndexedLevel1Cache();
+        DNStateManager base1 = newStateManager(new Base());
+        DNStateManager base2 = newStateManager(new Base());
+        cache.put("base1", base1);
+        cache.put("base2", base2);
+
+        cache.remove("base1");
+        List<DNStateManager> sms = cache.getStateManagersForClass(Base.class, false);
+        assertEquals(1, sms.size());
+        assertSame(base2, sms.get(0));
+
+        // Replacing the StateManager for an id unindexes the previous one
+        DNStateManager sub1 = newStateManager(new Sub());
+        cache.put("base2", sub1);
+        assertTrue(cache.getStateManagersForClass(Base.class, false).isEmpty());
+        assertEquals(1, cache.getStateManagersForClass(Sub.class, false).size());
+
+        cache.clear();
+        assertTrue(cache.getStateManagersForClass(Object.class, true).isEmpty());
+    }
+
+    public void testStateManagersForClassIsCopy()
+    {
+        ClassIndexedLevel1Cache cache = new ClassIndexedLevel1Cache();
+        DNStateManager base1 = newStateManager(new Base());
+        cache.put("base1", base1);
+        cache.put("base2", newStateManager(new Base()));
+
+        // Removing while iterating the result (as evictAll(Class) does) must not fail
+        for (DNStateManager sm : cache.getStateManagersForClass(Base.class, false))
+        {
+            cache.remove(sm == base1 ? "base1" : "base2");
+        }
+        assertTrue(cache.getStateManagersForClass(Base.class, false).isEmpty());
+    }
+
+    public void testCacheForExecutionContext()
+    {
+        ClassIndexedLevel1Cache cache = new ClassIndexedLevel1Cache();
+        assertSame(cache, ClassIndexedLevel1Cache.getCacheForExecutionContext(newExecutionContext(cache)));
+
+        // A pooled ExecutionContext that has been given a new cache uses that cache
+        ClassIndexedLevel1Cache newCache = new ClassIndexedLevel1Cache();
+        assertSame(newCache, ClassIndexedLevel1Cache.getCacheForExecutionContext(newExecutionContext(newCache)));
+
+        assertNull(ClassIndexedLevel1Cache.getCacheForExecutionContext(newExecutionContext(new StrongRefCache())));
+    }
+
+    private static DNStateManager newStateManager(Object pc)
+    {
+        return (DNStateManager) Proxy.newProxyInstance(DNStateManager.class.getClassLoader(), new Class[] {DNStateManager.class},
+            (proxy, method, args) ->
+            {
+                switch (method.getName())
+                {
+                    case "getObject":
+                        return pc;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "SM[" + pc.getClass().getSimpleName() + "]";
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    private static ExecutionContext newExecutionContext(Object l1Cache)
+    {
+        return (ExecutionContext) Proxy.newProxyInstance(ExecutionContext.class.getClassLoader(), new Class[] {ExecutionContext.class},
+            (proxy, method, args) -> "getLevel1Cache".equals(method.getName()) ? l1Cache : null);
+    }
+}
@@ -0,0 +1,146 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.Date;
+
+import javax.jdo.identity.ByteIdentity;
+import javax.jdo.identity.CharIdentity;
+import javax.jdo.identity.IntIdentity;
+import javax.jdo.identity.LongIdentity;
+import javax.jdo.identity.ObjectIdentity;
+import javax.jdo.identity.ShortIdentity;
+import javax.jdo.identity.SingleFieldIdentity;
+import javax.jdo.identity.StringIdentity;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.identity.ByteId;
+import org.datanucleus.identity.CharId;
+import org.datanucleus.identity.IntId;
+import org.datanucleus.identity.LongId;
+import org.datanucleus.identity.ObjectId;
+import org.datanucleus.identity.ShortId;
+import org.datanucleus.identity.SingleFieldId;
+import org.datanucleus.identity.StringId;
+
+/**
+ * Tests for the conversions between JDO SingleFieldIdentity and DataNucleus SingleFieldId in DataNucleusHelperJDO.
+ */
+public class DataNucleusHelperJDOTest extends TestCase
+{
+    /** Target class of the identities. */
+    public static class Target
+    {
+    }
+
+    public void testLongRoundTrip()
+    {
+        assertRoundTrip(new LongId(Target.class, Long.MAX_VALUE), LongIdentity.class, Long.valueOf(Long.MAX_VALUE));
+        assertRoundTrip(new LongIdentity(Target.class, -1L), LongId.class, Long.valueOf(-1L));
+    }
+
+    public void testIntRoundTrip()
+    {
+        assertRoundTrip(new IntId(Target.class, Integer.MIN_VALUE), IntIdentity.class, Integer.valueOf(Integer.MIN_VALUE));
+        assertRoundTrip(new IntIdentity(Target.class, 42), IntId.class, Integer.valueOf(42));
+    }
+
+    public void testShortRoundTrip()
+    {
+        assertRoundTrip(new ShortId(Target.class, (short) 12), ShortIdentity.class, Short.valueOf((short) 12));
+        assertRoundTrip(new ShortIdentity(Target.class, Short.MAX_VALUE), ShortId.class, Short.valueOf(Short.MAX_VALUE));
+    }
+
+    public void testByteRoundTrip()
+    {
+        assertRoundTrip(new ByteId(Target.class, (byte) 3), ByteIdentity.class, Byte.valueOf((byte) 3));
+        assertRoundTrip(new ByteIdentity(Target.class, Byte.MIN_VALUE), ByteId.class, Byte.valueOf(Byte.MIN_VALUE));
+    }
+
+    public void testCharRoundTrip()
+    {
+        assertRoundTrip(new CharId(Target.class, 'x'), CharIdentity.class, Character.valueOf('x'));
+        assertRoundTrip(new CharIdentity(Target.class, '\u00e9'), CharId.class, Character.valueOf('\u00e9'));
+    }
+
+    public void testStringRoundTrip()
+    {
+        assertRoundTrip(new StringId(Target.class, "Key 1"), StringIdentity.class, "Key 1");
+        assertRoundTrip(new StringIdentity(Target.class, "Key:with:delimiters"), StringId.class, "Key:with:delimiters");
+    }
+
+    public void testObjectRoundTrip()
+    {
+        Date key = new Date(1000L);
+        assertRoundTrip(new ObjectId(Target.class, key), ObjectIdentity.class, key);
+        assertRoundTrip(new ObjectIdentity(Target.class, key), ObjectId.class, key);
+    }
+
+    public void testObjectRoundTripFromStringForm()
+    {
+        // ObjectIdentity created from the "{keyClass}:{keyString}" form, so with a key of the specified key class rather than a String
+        ObjectIdentity sfid = new ObjectIdentity(Target.class, "java.lang.Integer:5");
+        assertEquals(Integer.valueOf(5), sfid.getKeyAsObject());
+        assertRoundTrip(sfid, ObjectId.class, Integer.valueOf(5));
+    }
+
+    public void testConversionsCachedPerType()
+    {
+        // Repeated conversions of each type, interleaved, use the converter of that type
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(DataNucleusHelperJDO.getSingleFieldIdentityForDataNucleusIdentity(new LongId(Target.class, i), Target.class) instanceof LongIdentity);
+            assertTrue(DataNucleusHelperJDO.getSingleFieldIdentityForDataNucleusIdentity(new StringId(Target.class, "" + i), Target.class) instanceof StringIdentity);
+            assertTrue(DataNucleusHelperJDO.getDataNucleusIdentityForSingleFieldIdentity(new IntIdentity(Target.class, i)) instanceof IntId);
+            assertTrue(DataNucleusHelperJDO.getDataNucleusIdentityForSingleFieldIdentity(new ObjectIdentity(Target.class, new Date(i))) instanceof ObjectId);
+        }
+    }
+
+    /**
+     * Convert the DataNucleus identity to JDO and back, checking the JDO type, target class and key.
+     */
+    private static void assertRoundTrip(SingleFieldId dnid, Class<? extends SingleFieldIdentity> jdoType, Object key)
+    {
+        SingleFieldIdentity sfid = DataNucleusHelperJDO.getSingleFieldIdentityForDataNucleusIdentity(dnid, Target.class);
+        assertSame(jdoType, sfid.getClass());
+        assertSame(Target.class, sfid.getTargetClass());
+        assertEquals(key, sfid.getKeyAsObject());
+
+        SingleFieldId converted = DataNucleusHelperJDO.getDataNucleusIdentityForSingleFieldIdentity(sfid);
+        assertSame(dnid.getClass(), converted.getClass());
+        assertEquals(dnid, converted);
+        assertEquals(key, converted.getKeyAsObject());
+    }
+
+    /**
+     * Convert the JDO identity to DataNucleus and back, checking the DataNucleus type, target class and key.
+     */
+    private static void assertRoundTrip(SingleFieldIdentity sfid, Class<? extends SingleFieldId> dnType, Object key)
+    {
+        SingleFieldId dnid = DataNucleusHelperJDO.getDataNucleusIdentityForSingleFieldIdentity(sfid);
+        assertSame(dnType, dnid.getClass());
+        assertEquals(Target.class.getName(), dnid.getTargetClassName());
+        assertEquals(key, dnid.getKeyAsObject());
+
+        SingleFieldIdentity converted = DataNucleusHelperJDO.getSingleFieldIdentityForDataNucleusIdentity(dnid, sfid.getTargetClass());
+        assertSame(sfid.getClass(), converted.getClass());
+        assertEquals(sfid, converted);
+        assertEquals(key, converted.getKeyAsObject());
+    }
+}
@@ -0,0 +1,212 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.jdo.FetchPlan;
+import javax.jdo.JDOFatalDataStoreException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+import javax.jdo.Transaction;
+import javax.jdo.identity.LongIdentity;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.api.jdo.JDODataStoreCache.PreloadTask;
+import org.datanucleus.api.jdo.Mocks.Mock;
+
+/**
+ * Tests for the background preload of the L2 cache, using a mock PM and query.
+ */
+public class DataStoreCachePreloadTest extends TestCase
+{
+    public static class Person
+    {
+        long id;
+
+        Person(long id)
+        {
+            this.id = id;
+        }
+    }
+
+    private Mock<PersistenceManager> pm;
+
+    private Mock<Query> query;
+
+    /** Parameters of each execution of the query. */
+    private List<Object[]> executions;
+
+    /** Ranges set on the query. */
+    private List<Long> rangeStarts;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        executions = new ArrayList<>();
+        rangeStarts = new ArrayList<>();
+        Mock<Transaction> tx = Mocks.mock(Transaction.class);
+        Mock<FetchPlan> fetchPlan = Mocks.mock(FetchPlan.class);
+        query = Mocks.mock(Query.class).answer("setRange", args ->
+        {
+            rangeStarts.add((Long) args[0]);
+            return null;
+        });
+        pm = Mocks.mock(PersistenceManager.class).returns("currentTransaction", tx.proxy).returns("getFetchPlan", fetchPlan.proxy)
+            .answer("getObjectId", args -> new LongIdentity(Person.class, ((Person) args[0]).id));
+    }
+
+    public void testPreloadByKey() throws Exception
+    {
+        // 5 objects in batches of 2
+        query.answer("execute", args ->
+        {
+            executions.add(args);
+            long lastKey = args.length > 0 ? (Long) args[0] : 0;
+            List<Person> results = new ArrayList<>();
+            for (long id = lastKey + 1; id <= Math.min(lastKey + 2, 5); id++)
+            {
+                results.add(new Person(id));
+            }
+            return results;
+        });
+
+        PreloadTask task = new PreloadTask("Person");
+        task.run(pm.proxy, query.proxy, "id", 2, null);
+
+        assertEquals(5L, task.getCompletion().get().longValue());
+        assertEquals(3, task.getBatchCount());
+        assertEquals(3, executions.size());
+
+        // Subsequent batches are selected by the last key of the previous batch, not by offset
+        assertEquals(0, executions.get(0).length);
+        assertEquals(Long.valueOf(2), executions.get(1)[0]);
+        assertEquals(Long.valueOf(4), executions.get(2)[0]);
+        for (Long start : rangeStarts)
+        {
+            assertEquals(0, start.longValue());
+        }
+        assertEquals(1, count(query.calls, "setFilter"));
+        assertEquals(1, count(pm.calls, "close"));
+    }
+
+    public void testPreloadByRange() throws Exception
+    {
+        query.answer("execute", args ->
+        {
+            long start = rangeStarts.get(rangeStarts.size() - 1);
+            return start < 4 ? Collections.nCopies(2, new Person(start)) : Collections.emptyList();
+        });
+
+        PreloadTask task = new PreloadTask("query");
+        task.run(pm.proxy, query.proxy, null, 2, null);
+
+        assertEquals(4L, task.getCompletion().get().longValue());
+        assertEquals(3, rangeStarts.size());
+        assertEquals(4, rangeStarts.get(2).longValue());
+        assertEquals(0, count(query.calls, "setFilter"));
+        assertEquals(1, count(pm.calls, "close"));
+    }
+
+    public void testFailureCompletesTask()
+    {
+        query.answer("execute", args ->
+        {
+            throw new StackOverflowError();
+        });
+
+        PreloadTask task = new PreloadTask("query");
+        task.run(pm.proxy, query.proxy, null, 2, null);
+
+        // Even an Error completes the task, and the PM is closed
+        assertTrue(task.isDone());
+        try
+        {
+            task.getCompletion().get();
+            fail("Expected ExecutionException");
+        }
+        catch (ExecutionException ee)
+        {
+            assertTrue(ee.getCause() instanceof StackOverflowError);
+        }
+        catch (InterruptedException ie)
+        {
+            fail("Interrupted");
+        }
+        assertEquals(1, count(pm.calls, "close"));
+    }
+
+    public void testPMClosedWhenPreloadCannotStart()
+    {
+        pm.answer("getExtent", args ->
+        {
+            throw new JDOFatalDataStoreException("No datastore");
+        });
+        JDODataStoreCache cache = new JDODataStoreCache(null, newPersistenceManagerFactory());
+        try
+        {
+            cache.preload(Person.class, false);
+            fail("Expected JDOFatalDataStoreException");
+        }
+        catch (JDOFatalDataStoreException e)
+        {
+            // Expected
+        }
+        assertEquals(1, count(pm.calls, "close"));
+    }
+
+    public void testStopPreloads() throws Exception
+    {
+        // Query that always returns a full batch, so the preload only ends when stopped
+        query.answer("execute", args -> Collections.nCopies(2, new Person(1)));
+        pm.returns("newQuery", query.proxy);
+        JDODataStoreCache cache = new JDODataStoreCache(null, newPersistenceManagerFactory());
+        PreloadTask task = cache.preload(query.proxy, 2);
+
+        cache.stopPreloads();
+        assertTrue(task.isCancelled());
+        assertTrue(task.isDone());
+        assertTrue(task.getCompletion().get(1, TimeUnit.SECONDS) >= 0);
+        assertEquals(1, count(pm.calls, "close"));
+    }
+
+    private JDOPersistenceManagerFactory newPersistenceManagerFactory()
+    {
+        return new JDOPersistenceManagerFactory()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public PersistenceManager getPersistenceManager()
+            {
+                return pm.proxy;
+            }
+        };
+    }
+
+    private static int count(List<String> calls, String methodName)
+    {
+        return (int) calls.stream().filter(methodName::equals).count();
+    }
+}
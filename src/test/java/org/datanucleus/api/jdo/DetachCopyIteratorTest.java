@@ -0,0 +1,135 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.jdo.JDODataStoreException;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.exceptions.NucleusDataStoreException;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for detachCopyIterator/detachCopyStream, using a mock ExecutionContext.
+ */
+public class DetachCopyIteratorTest extends TestCase
+{
+    /** Calls to detach and evict objects, in order. */
+    private List<String> calls;
+
+    /** States that objects were detached with. */
+    private Set<Object> detachStates;
+
+    private Mock<ApiAdapter> api;
+
+    private JDOPersistenceManager pm;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        calls = new ArrayList<>();
+        detachStates = Collections.newSetFromMap(new IdentityHashMap<>());
+        Mock<Transaction> tx = Mocks.mock(Transaction.class).returns("isActive", true);
+        api = Mocks.mock(ApiAdapter.class);
+        Mock<ExecutionContext> ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx.proxy).returns("getApiAdapter", api.proxy)
+            .answer("detachObjectCopy", args ->
+            {
+                calls.add("detach " + args[1]);
+                detachStates.add(args[0]);
+                return "Detached " + args[1];
+            })
+            .answer("evictObject", args -> calls.add("evict " + args[0]));
+        pm = Mocks.newPersistenceManager(ec.proxy);
+    }
+
+    public void testDetachedAsIterated()
+    {
+        Iterator<String> iter = pm.detachCopyIterator(Arrays.asList("Object 1", null, "Object 2"));
+        assertTrue(calls.isEmpty());
+
+        // Each object is detached and then evicted when pulled from the iterator
+        assertEquals("Detached Object 1", iter.next());
+        assertEquals(Arrays.asList("detach Object 1", "evict Object 1"), calls);
+        assertNull(iter.next());
+        assertEquals("Detached Object 2", iter.next());
+        assertEquals(Arrays.asList("detach Object 1", "evict Object 1", "detach Object 2", "evict Object 2"), calls);
+        assertFalse(iter.hasNext());
+
+        // Each object has its own DetachState
+        assertEquals(2, detachStates.size());
+    }
+
+    public void testDirtyObjectsNotEvicted()
+    {
+        api.returns("isDirty", true);
+        Iterator<String> iter = pm.detachCopyIterator(Arrays.asList("Object 1"));
+        assertEquals("Detached Object 1", iter.next());
+        assertEquals(Arrays.asList("detach Object 1"), calls);
+    }
+
+    public void testStream()
+    {
+        List<String> detacheds = pm.detachCopyStream(Arrays.asList("Object 1", "Object 2")).limit(1).collect(Collectors.toList());
+        assertEquals(Arrays.asList("Detached Object 1"), detacheds);
+
+        // Objects not consumed are not detached
+        assertEquals(Arrays.asList("detach Object 1", "evict Object 1"), calls);
+    }
+
+    public void testIterationFailureTranslated()
+    {
+        Iterable<String> failing = () -> new Iterator<String>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return true;
+            }
+
+            @Override
+            public String next()
+            {
+                throw new NucleusDataStoreException("Result loading failed");
+            }
+        };
+        Iterator<String> iter = pm.detachCopyIterator(failing);
+        try
+        {
+            iter.next();
+            fail("Expected JDODataStoreException");
+        }
+        catch (JDODataStoreException dse)
+        {
+            // Expected
+        }
+        assertTrue(calls.isEmpty());
+    }
+}
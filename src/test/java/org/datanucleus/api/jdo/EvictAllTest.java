@@ -0,0 +1,122 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jdo.JDOException;
+import javax.jdo.JDOUserException;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.api.jdo.exceptions.BulkOperationException;
+import org.datanucleus.exceptions.NucleusUserException;
+import org.datanucleus.state.DNStateManager;
+
+/**
+ * Tests for the aggregated failures of evictAll(Collection), using a mock ExecutionContext.
+ */
+public class EvictAllTest extends TestCase
+{
+    private static final String NOT_PERSISTABLE = "Not persistable";
+
+    private static final String DETACHED = "Detached";
+
+    private static final String NOT_MANAGED = "Not managed";
+
+    private static final String EVICT_FAILS = "Evict fails";
+
+    private static final String EVICTED = "Evicted";
+
+    /** Objects that evictObject was called for. */
+    private List<Object> evicted;
+
+    private JDOPersistenceManager pm;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        evicted = new ArrayList<>();
+        Mock<ApiAdapter> api = Mocks.mock(ApiAdapter.class).answer("isPersistable", args -> args[0] != NOT_PERSISTABLE)
+            .answer("isDetached", args -> args[0] == DETACHED);
+        Mock<DNStateManager> sm = Mocks.mock(DNStateManager.class);
+        Mock<ExecutionContext> ec = Mocks.mock(ExecutionContext.class).returns("getApiAdapter", api.proxy)
+            .answer("findStateManager", args -> args[0] == NOT_MANAGED ? null : sm.proxy)
+            .answer("evictObject", args ->
+            {
+                evicted.add(args[0]);
+                if (args[0] == EVICT_FAILS)
+                {
+                    throw new NucleusUserException("Evict failed");
+                }
+                return null;
+            });
+        pm = Mocks.newPersistenceManager(ec.proxy);
+    }
+
+    public void testSuccess()
+    {
+        pm.evictAll(Arrays.asList(EVICTED, null, EVICTED));
+        assertEquals(Arrays.asList(EVICTED, EVICTED), evicted);
+    }
+
+    public void testAggregatedFailures()
+    {
+        List<Object> pcs = Arrays.asList(NOT_PERSISTABLE, EVICTED, DETACHED, NOT_MANAGED, EVICT_FAILS);
+        try
+        {
+            pm.evictAll(pcs);
+            fail("Expected BulkOperationException");
+        }
+        catch (BulkOperationException boe)
+        {
+            // Positions, reasons and objects of each failure
+            assertTrue(Arrays.equals(new int[] {0, 2, 3, 4}, boe.getFailedIndices()));
+            assertTrue(Arrays.equals(new Object[] {NOT_PERSISTABLE, DETACHED, NOT_MANAGED, EVICT_FAILS}, boe.getFailedObjects()));
+            assertEquals(4, boe.getFailureReasons().length);
+            assertEquals("Evict failed", boe.getFailureReasons()[3]);
+            assertTrue(boe.getMessage().contains("4 failures"));
+
+            // Only the failure that threw an exception is the cause
+            assertTrue(boe.getCause() instanceof JDOUserException);
+
+            // Still one nested exception per failed object, with its failed object, as for the JDOUserException previously thrown
+            Throwable[] nested = boe.getNestedExceptions();
+            assertEquals(4, nested.length);
+            for (int i = 0; i < 3; i++)
+            {
+                assertTrue(nested[i] instanceof JDOUserException);
+                assertSame(boe.getFailedObjects()[i], ((JDOException) nested[i]).getFailedObject());
+                assertEquals(boe.getFailureReasons()[i], nested[i].getMessage());
+            }
+            assertSame(boe.getCause(), nested[3]);
+
+            // Same exceptions returned each time
+            assertSame(nested[0], boe.getNestedExceptions()[0]);
+        }
+
+        // Objects failing the up front checks aren't passed to evictObject
+        assertEquals(Arrays.asList(EVICTED, EVICT_FAILS), evicted);
+    }
+}
@@ -0,0 +1,202 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jdo.JDOOptimisticVerificationException;
+import javax.jdo.JDOUserException;
+import javax.jdo.PersistenceManager;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.exceptions.NucleusException;
+import org.datanucleus.exceptions.NucleusOptimisticException;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for executeInTransaction retrying on optimistic failure, using a mock ExecutionContext.
+ */
+public class ExecuteInTransactionTest extends TestCase
+{
+    private List<String> calls;
+
+    private Mock<ExecutionContext> ec;
+
+    /** Objects that fail optimistic verification on commit. */
+    private Object[] conflictingPcs;
+
+    /** Number of commits still to fail optimistic verification. */
+    private int commitsToFail;
+
+    private boolean active;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        calls = new ArrayList<>();
+        conflictingPcs = new Object[] {new Object(), new Object()};
+        Mock<Transaction> tx = Mocks.mock(Transaction.class, calls).answer("isActive", args -> active).answer("begin", args ->
+        {
+            active = true;
+            return null;
+        }).answer("rollback", args ->
+        {
+            active = false;
+            return null;
+        }).answer("commit", args ->
+        {
+            if (commitsToFail > 0)
+            {
+                commitsToFail--;
+                NucleusOptimisticException[] failures = new NucleusOptimisticException[conflictingPcs.length];
+                for (int i = 0; i < conflictingPcs.length; i++)
+                {
+                    failures[i] = new NucleusOptimisticException("Conflict " + i, conflictingPcs[i]);
+                }
+                throw new NucleusException("Commit failed", failures);
+            }
+            active = false;
+            return null;
+        });
+        Mock<ApiAdapter> api = Mocks.mock(ApiAdapter.class).returns("isPersistable", true).returns("isPersistent", true)
+            .answer("getIdForObject", args -> "id");
+        ec = Mocks.mock(ExecutionContext.class, calls).returns("getTransaction", tx.proxy).returns("getApiAdapter", api.proxy);
+    }
+
+    public void testRetryUntilCommitted()
+    {
+        commitsToFail = 2;
+        RetryPolicy policy = new RetryPolicy(5, 0, 0);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = newPersistenceManagerFactory().executeInTransaction(pm ->
+        {
+            assertTrue(pm.currentTransaction().isActive());
+            return "Attempt " + attempts.incrementAndGet();
+        }, policy);
+
+        assertEquals("Attempt 3", result);
+        assertEquals(3, count("begin"));
+        assertEquals(3, count("commit"));
+        assertEquals(2, count("rollback"));
+        assertEquals(1, policy.getExecutions());
+        assertEquals(2, policy.getRetries());
+        assertEquals(0, policy.getExhausted());
+
+        // Only the conflicting objects are evicted before each retry, and the same PM is used (and closed at the end)
+        assertEquals(2 * conflictingPcs.length, count("evictObject"));
+        assertEquals(1, count("close"));
+    }
+
+    public void testAttemptsExhausted()
+    {
+        commitsToFail = Integer.MAX_VALUE;
+        RetryPolicy policy = new RetryPolicy(3, 0, 0);
+        AtomicInteger attempts = new AtomicInteger();
+        try
+        {
+            newPersistenceManagerFactory().executeInTransaction(pm -> attempts.incrementAndGet(), policy);
+            fail("Expected JDOOptimisticVerificationException");
+        }
+        catch (JDOOptimisticVerificationException jove)
+        {
+            // Expected
+        }
+
+        assertEquals(3, attempts.get());
+        assertEquals(2, policy.getRetries());
+        assertEquals(1, policy.getExhausted());
+        assertFalse(active);
+        assertEquals(1, count("close"));
+    }
+
+    public void testOtherFailureNotRetried()
+    {
+        RetryPolicy policy = new RetryPolicy(3, 0, 0);
+        AtomicInteger attempts = new AtomicInteger();
+        try
+        {
+            newPersistenceManagerFactory().executeInTransaction(pm ->
+            {
+                attempts.incrementAndGet();
+                throw new JDOUserException("Invalid input");
+            }, policy);
+            fail("Expected JDOUserException");
+        }
+        catch (JDOUserException jue)
+        {
+            // Expected
+        }
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.getRetries());
+        assertEquals(1, count("rollback"));
+        assertFalse(active);
+        assertEquals(1, count("close"));
+    }
+
+    public void testBackoff()
+    {
+        RetryPolicy policy = new RetryPolicy(5, 10, 50);
+        for (int i = 0; i < 100; i++)
+        {
+            // Random up to a limit doubling with each attempt, capped at the maximum
+            assertTrue(policy.getBackoffMillis(1) <= 10);
+            assertTrue(policy.getBackoffMillis(2) <= 20);
+            assertTrue(policy.getBackoffMillis(4) <= 50);
+            assertTrue(policy.getBackoffMillis(100) <= 50);
+            assertTrue(policy.getBackoffMillis(100) >= 0);
+        }
+        assertEquals(0, new RetryPolicy(3, 0, 0).getBackoffMillis(1));
+
+        try
+        {
+            new RetryPolicy(0, 10, 50);
+            fail("Expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException iae)
+        {
+            // Expected
+        }
+    }
+
+    private JDOPersistenceManagerFactory newPersistenceManagerFactory()
+    {
+        return new Mocks.MockPersistenceManagerFactory(ec.proxy)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public PersistenceManager getPersistenceManager()
+            {
+                return new JDOPersistenceManager(this, null, null);
+            }
+        };
+    }
+
+    private int count(String methodName)
+    {
+        return (int) calls.stream().filter(methodName::equals).count();
+    }
+}
@@ -0,0 +1,120 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.identity.LongId;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for the batching of getObjectsById, using a mock ExecutionContext.
+ */
+public class GetObjectsByIdTest extends TestCase
+{
+    public static class Person
+    {
+        long id;
+    }
+
+    private List<String> calls;
+
+    private List<Object[]> findIds;
+
+    private Mock<ExecutionContext> ec;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        calls = new ArrayList<>();
+        findIds = new ArrayList<>();
+        Mock<Transaction> tx = Mocks.mock(Transaction.class).returns("isActive", true);
+        ec = Mocks.mock(ExecutionContext.class, calls).returns("getTransaction", tx.proxy).answer("findObjectsById", args ->
+        {
+            Object[] ids = (Object[]) args[0];
+            findIds.add(ids);
+            Object[] objs = new Object[ids.length];
+            for (int i = 0; i < ids.length; i++)
+            {
+                objs[i] = "Object " + ids[i];
+            }
+            return objs;
+        });
+    }
+
+    public void testNoBatchingWithoutValidation()
+    {
+        JDOPersistenceManager pm = newPersistenceManager(100);
+        Object[] ids = new Object[] {new LongId(Person.class, 1), new LongId(Person.class, 2), new LongId(Person.class, 3)};
+        Object[] objs = pm.getObjectsById(false, ids);
+
+        // Without validation the objects are found (hollow) in a single call, without checking the cache or querying
+        assertEquals(1, findIds.size());
+        assertEquals(3, findIds.get(0).length);
+        assertFalse(calls.contains("getObjectFromCache"));
+        assertFalse(calls.contains("getMetaDataManager"));
+        assertEquals(3, objs.length);
+        for (int i = 0; i < ids.length; i++)
+        {
+            assertEquals("Object " + ids[i], objs[i]);
+        }
+
+        assertEquals(2, pm.getObjectsById(Collections.nCopies(2, ids[0]), false).size());
+        assertEquals(2, findIds.size());
+        assertFalse(calls.contains("getObjectFromCache"));
+    }
+
+    public void testNoBatchingWhenDisabled()
+    {
+        JDOPersistenceManager pm = newPersistenceManager(0);
+        Object[] ids = new Object[] {new LongId(Person.class, 1), new LongId(Person.class, 2)};
+        Object[] objs = pm.getObjectsById(true, ids);
+
+        assertEquals(1, findIds.size());
+        assertFalse(calls.contains("getObjectFromCache"));
+        assertEquals("Object " + ids[1], objs[1]);
+    }
+
+    public void testCachedObjectsFoundAsNormal()
+    {
+        // All objects in the cache, so no query is needed and the objects are found (validated) as normal
+        ec.answer("getObjectFromCache", args -> "Cached " + args[0]);
+        JDOPersistenceManager pm = newPersistenceManager(100);
+        Object[] ids = new Object[] {new LongId(Person.class, 1), new LongId(Person.class, 2)};
+        Object[] objs = pm.getObjectsById(true, ids);
+
+        assertTrue(calls.contains("getObjectFromCache"));
+        assertEquals(1, findIds.size());
+        assertEquals(2, findIds.get(0).length);
+        assertEquals("Object " + ids[0], objs[0]);
+    }
+
+    private JDOPersistenceManager newPersistenceManager(int batchSize)
+    {
+        JDOPersistenceManagerFactory pmf = Mocks.newPersistenceManagerFactory(ec.proxy);
+        pmf.getConfiguration().setProperty(JDOPropertyNames.PROPERTY_GET_OBJECTS_BY_ID_BATCH_SIZE, batchSize);
+        return new JDOPersistenceManager(pmf, null, null);
+    }
+}
@@ -0,0 +1,169 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jdo.JDODataStoreException;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.PersistenceNucleusContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.exceptions.NucleusDataStoreException;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for ingestAll, using a mock ExecutionContext.
+ */
+public class IngestAllTest extends TestCase
+{
+    /** Calls on the ExecutionContext and transactions, with whether callbacks were suppressed for persist/flush calls. */
+    private List<String> calls;
+
+    private boolean txActive;
+
+    private Mock<Transaction> tx;
+
+    private Mock<ExecutionContext> ec;
+
+    private JDOCallbackHandler callbackHandler;
+
+    private JDOPersistenceManager pm;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        calls = new ArrayList<>();
+        tx = Mocks.mock(Transaction.class).answer("isActive", args -> txActive).answer("begin", args -> txActive = true)
+            .answer("commit", args -> txActive = false).answer("rollback", args -> txActive = false);
+        Mock<ApiAdapter> api = Mocks.mock(ApiAdapter.class);
+        ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx.proxy).returns("getApiAdapter", api.proxy)
+            .answer("getCallbackHandler", args -> callbackHandler)
+            .answer("persistObjects", args ->
+            {
+                calls.add("persistObjects" + (callbackHandler.isSuppressed() ? " suppressed" : ""));
+                return args[0];
+            })
+            .answer("flush", args ->
+            {
+                calls.add("flush" + (callbackHandler.isSuppressed() ? " suppressed" : ""));
+                return null;
+            })
+            .answer("evictObject", args -> calls.add("evictObject"));
+
+        JDOPersistenceManagerFactory pmf = Mocks.newPersistenceManagerFactory(ec.proxy);
+        Mock<PersistenceNucleusContext> nucCtx = Mocks.mock(PersistenceNucleusContext.class).returns("getConfiguration", pmf.getConfiguration());
+        ec.returns("getNucleusContext", nucCtx.proxy);
+        callbackHandler = new JDOCallbackHandler(ec.proxy);
+        pm = new JDOPersistenceManager(pmf, null, null);
+
+        // Record the use of the PM's transaction, rather than the underlying transaction directly
+        pm.jdotx = new JDOTransaction(pm, tx.proxy)
+        {
+            @Override
+            public void begin()
+            {
+                calls.add("begin");
+                super.begin();
+            }
+
+            @Override
+            public void commit()
+            {
+                calls.add("commit");
+                super.commit();
+            }
+
+            @Override
+            public void rollback()
+            {
+                calls.add("rollback");
+                super.rollback();
+            }
+        };
+    }
+
+    public void testTransactionPerChunk()
+    {
+        assertEquals(3, pm.ingestAll(Arrays.asList(new Object(), new Object(), new Object()), 2));
+
+        // Each chunk committed in its own transaction of the PM, with callbacks only suppressed while writing the chunk
+        assertEquals(Arrays.asList("begin", "persistObjects suppressed", "commit", "evictObject", "evictObject",
+            "begin", "persistObjects suppressed", "commit", "evictObject"), calls);
+        assertFalse(callbackHandler.isSuppressed());
+        assertFalse(txActive);
+    }
+
+    public void testFailedChunkRolledBack()
+    {
+        tx.answer("commit", args ->
+        {
+            throw new NucleusDataStoreException("Commit failed");
+        });
+        try
+        {
+            pm.ingestAll(Arrays.asList(new Object(), new Object()), 1);
+            fail("Expected JDODataStoreException");
+        }
+        catch (JDODataStoreException dse)
+        {
+            // Expected
+        }
+        assertEquals(Arrays.asList("begin", "persistObjects suppressed", "commit", "rollback"), calls);
+        assertFalse(callbackHandler.isSuppressed());
+        assertFalse(txActive);
+    }
+
+    public void testActiveTransaction()
+    {
+        txActive = true;
+        assertEquals(3, pm.ingestAll(Arrays.asList(new Object(), new Object(), new Object()), 2));
+
+        // Other changes of the transaction flushed with callbacks first, then each chunk flushed with callbacks suppressed
+        assertEquals(Arrays.asList("flush", "persistObjects suppressed", "flush suppressed", "evictObject", "evictObject",
+            "persistObjects suppressed", "flush suppressed", "evictObject"), calls);
+        assertFalse(callbackHandler.isSuppressed());
+        assertTrue(txActive);
+    }
+
+    public void testSuppressionRestoredAfterFailure()
+    {
+        txActive = true;
+        ec.answer("persistObjects", args ->
+        {
+            throw new NucleusDataStoreException("Insert failed");
+        });
+        try
+        {
+            pm.ingestAll(Arrays.asList(new Object()), 1);
+            fail("Expected JDODataStoreException");
+        }
+        catch (JDODataStoreException dse)
+        {
+            // Expected
+        }
+        assertFalse(callbackHandler.isSuppressed());
+        assertTrue(txActive);
+    }
+}
@@ -0,0 +1,186 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for the registry of open PersistenceManagers of a PMF.
+ */
+public class JDOPersistenceManagerRegistryTest extends TestCase
+{
+    private JDOPersistenceManagerFactory pmf;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        Transaction tx = Mocks.mock(Transaction.class).proxy;
+        ExecutionContext ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx).proxy;
+        pmf = Mocks.newPersistenceManagerFactory(ec);
+    }
+
+    public void testAddRemove()
+    {
+        JDOPersistenceManagerRegistry registry = new JDOPersistenceManagerRegistry(false);
+        assertFalse(registry.isWeak());
+        List<JDOPersistenceManager> pms = newPersistenceManagers(50);
+        for (JDOPersistenceManager pm : pms)
+        {
+            registry.add(pm);
+        }
+        assertEquals(50, registry.getPersistenceManagers().size());
+        assertTrue(registry.getPersistenceManagers().containsAll(pms));
+
+        registry.remove(pms.get(0));
+        registry.remove(pms.get(0));
+        assertEquals(49, registry.getPersistenceManagers().size());
+        assertFalse(registry.getPersistenceManagers().contains(pms.get(0)));
+
+        registry.clear();
+        assertTrue(registry.getPersistenceManagers().isEmpty());
+    }
+
+    public void testWeakAddRemove()
+    {
+        JDOPersistenceManagerRegistry registry = new JDOPersistenceManagerRegistry(true);
+        assertTrue(registry.isWeak());
+        List<JDOPersistenceManager> pms = newPersistenceManagers(10);
+        for (JDOPersistenceManager pm : pms)
+        {
+            registry.add(pm);
+        }
+        assertEquals(10, registry.getPersistenceManagers().size());
+
+        // Removal matches the PM by identity, not by the reference that was registered
+        registry.remove(pms.get(3));
+        assertEquals(9, registry.getPersistenceManagers().size());
+        assertFalse(registry.getPersistenceManagers().contains(pms.get(3)));
+
+        registry.clear();
+        assertTrue(registry.getPersistenceManagers().isEmpty());
+    }
+
+    public void testSnapshotUnaffectedByUpdates()
+    {
+        JDOPersistenceManagerRegistry registry = new JDOPersistenceManagerRegistry(false);
+        List<JDOPersistenceManager> pms = newPersistenceManagers(5);
+        for (JDOPersistenceManager pm : pms)
+        {
+            registry.add(pm);
+        }
+
+        // The PMs returned are a copy, so the registry can be updated (e.g by closing each PM) while processing them
+        List<JDOPersistenceManager> snapshot = registry.getPersistenceManagers();
+        for (JDOPersistenceManager pm : snapshot)
+        {
+            registry.remove(pm);
+        }
+        assertEquals(5, snapshot.size());
+        assertTrue(registry.getPersistenceManagers().isEmpty());
+    }
+
+    public void testWeakReferencesCollected() throws Exception
+    {
+        JDOPersistenceManagerRegistry registry = new JDOPersistenceManagerRegistry(true);
+        JDOPersistenceManager retainedPM = newPersistenceManagers(1).get(0);
+        registry.add(retainedPM);
+        addPersistenceManagers(registry, 10);
+
+        // PMs dropped without being closed are not held by the registry
+        for (int i = 0; i < 50 && registry.getPersistenceManagers().size() > 1; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+        List<JDOPersistenceManager> pms = registry.getPersistenceManagers();
+        assertEquals(1, pms.size());
+        assertSame(retainedPM, pms.get(0));
+
+        // Adding sweeps the cleared references
+        JDOPersistenceManager pm = newPersistenceManagers(1).get(0);
+        registry.add(pm);
+        assertEquals(2, registry.getPersistenceManagers().size());
+    }
+
+    public void testConcurrentAddRemove() throws Exception
+    {
+        JDOPersistenceManagerRegistry registry = new JDOPersistenceManagerRegistry(false);
+        List<JDOPersistenceManager> retainedPMs = newPersistenceManagers(8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (JDOPersistenceManager retainedPM : retainedPMs)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    for (JDOPersistenceManager pm : newPersistenceManagers(100))
+                    {
+                        registry.add(pm);
+                        registry.remove(pm);
+                    }
+                    registry.add(retainedPM);
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        List<JDOPersistenceManager> pms = registry.getPersistenceManagers();
+        assertEquals(8, pms.size());
+        assertTrue(pms.containsAll(retainedPMs));
+    }
+
+    /**
+     * Method to register PMs without retaining them (in a separate method so that no local variable of the test refers to them).
+     */
+    private void addPersistenceManagers(JDOPersistenceManagerRegistry registry, int num)
+    {
+        for (JDOPersistenceManager pm : newPersistenceManagers(num))
+        {
+            registry.add(pm);
+        }
+    }
+
+    private List<JDOPersistenceManager> newPersistenceManagers(int num)
+    {
+        List<JDOPersistenceManager> pms = new ArrayList<>();
+        for (int i = 0; i < num; i++)
+        {
+            pms.add(new JDOPersistenceManager(pmf, null, null));
+        }
+        return pms;
+    }
+}
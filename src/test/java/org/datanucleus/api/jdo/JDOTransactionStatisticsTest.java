@@ -0,0 +1,186 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.jdo.JDOOptimisticVerificationException;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.exceptions.NucleusException;
+import org.datanucleus.exceptions.NucleusOptimisticException;
+import org.datanucleus.transaction.Transaction;
+import org.datanucleus.transaction.TransactionEventListener;
+
+/**
+ * Tests for the PMF-level transaction statistics.
+ */
+public class JDOTransactionStatisticsTest extends TestCase
+{
+    public void testCountsAndRates()
+    {
+        JDOTransactionStatistics stats = new JDOTransactionStatistics();
+        JDOTransactionStatistics.TransactionListener listener = stats.newTransactionListener();
+
+        // Committed transaction with 2 flushes of 3 objects
+        listener.transactionStarted();
+        listener.transactionFlushed();
+        listener.objectFlushed();
+        listener.objectFlushed();
+        listener.transactionFlushed();
+        listener.objectFlushed();
+        listener.transactionCommitted();
+
+        // Rolled back transaction
+        listener.transactionStarted();
+        listener.transactionRolledBack();
+
+        // Transaction failing optimistic verification
+        listener.transactionStarted();
+        stats.optimisticFailure();
+        listener.transactionRolledBack();
+
+        assertEquals(3, stats.getTransactionsStarted());
+        assertEquals(1, stats.getTransactionsCommitted());
+        assertEquals(2, stats.getTransactionsRolledBack());
+        assertEquals(1, stats.getOptimisticFailures());
+        assertEquals(2, stats.getFlushes());
+        assertEquals(3, stats.getObjectsFlushed());
+        assertEquals(2.0, stats.getAverageFlushesPerCommit(), 0.0001);
+        assertEquals(3.0, stats.getAverageObjectsFlushedPerCommit(), 0.0001);
+        assertEquals(2.0 / 3, stats.getRollbackRate(), 0.0001);
+        assertEquals(0.5, stats.getOptimisticFailureRate(), 0.0001);
+        assertTrue(stats.getAverageCommitLatencyMillis() >= 0);
+        assertEquals(stats.getAverageCommitLatencyMillis(), stats.getMaxCommitLatencyMillis(), 0.0001);
+
+        stats.reset();
+        assertEquals(0, stats.getTransactionsStarted());
+        assertEquals(0, stats.getTransactionsCommitted());
+        assertEquals(0, stats.getObjectsFlushed());
+        assertEquals(0.0, stats.getMaxCommitLatencyMillis(), 0.0);
+        assertEquals(0.0, stats.getAverageCommitLatencyMillis(), 0.0);
+        assertEquals(0.0, stats.getRollbackRate(), 0.0);
+    }
+
+    public void testConcurrentRecording() throws Exception
+    {
+        JDOTransactionStatistics stats = new JDOTransactionStatistics();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            // Each thread records the transactions of its own PM
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    JDOTransactionStatistics.TransactionListener listener = stats.newTransactionListener();
+                    for (int j = 0; j < 1000; j++)
+                    {
+                        listener.transactionStarted();
+                        listener.transactionFlushed();
+                        listener.objectFlushed();
+                        listener.transactionCommitted();
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8000, stats.getTransactionsStarted());
+        assertEquals(8000, stats.getTransactionsCommitted());
+        assertEquals(8000, stats.getFlushes());
+        assertEquals(8000, stats.getObjectsFlushed());
+    }
+
+    public void testPersistenceManagerRecordsTransactions()
+    {
+        JDOTransactionStatistics stats = new JDOTransactionStatistics();
+        List<TransactionEventListener> listeners = new ArrayList<>();
+        Mock<Transaction> tx = Mocks.mock(Transaction.class).answer("bindTransactionEventListener", args ->
+        {
+            listeners.add((TransactionEventListener) args[0]);
+            return null;
+        });
+        ExecutionContext ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx.proxy).proxy;
+        JDOPersistenceManager pm = new JDOPersistenceManager(newPersistenceManagerFactory(ec, stats), null, null);
+
+        // The PM binds a listener to its transaction, recording into the statistics of the PMF
+        assertEquals(1, listeners.size());
+        listeners.get(0).transactionStarted();
+        listeners.get(0).transactionCommitted();
+        assertEquals(1, stats.getTransactionsStarted());
+        assertEquals(1, stats.getTransactionsCommitted());
+
+        // Optimistic failures are counted on commit
+        tx.answer("commit", args ->
+        {
+            NucleusOptimisticException[] failures = new NucleusOptimisticException[] {
+                new NucleusOptimisticException("Failure 1", new Object()), new NucleusOptimisticException("Failure 2", new Object())};
+            throw new NucleusException("Commit failed", failures);
+        });
+        try
+        {
+            pm.currentTransaction().commit();
+            fail("Expected JDOOptimisticVerificationException");
+        }
+        catch (JDOOptimisticVerificationException jove)
+        {
+            // Expected
+        }
+        assertEquals(1, stats.getOptimisticFailures());
+    }
+
+    public void testNoStatisticsWhenNotEnabled()
+    {
+        Mock<Transaction> tx = Mocks.mock(Transaction.class);
+        ExecutionContext ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx.proxy).proxy;
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec);
+        assertNull(pm.getPersistenceManagerFactory().getTransactionStatistics());
+        assertFalse(tx.calls.contains("bindTransactionEventListener"));
+    }
+
+    private static JDOPersistenceManagerFactory newPersistenceManagerFactory(ExecutionContext ec, JDOTransactionStatistics stats)
+    {
+        return new Mocks.MockPersistenceManagerFactory(ec)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public JDOTransactionStatistics getTransactionStatistics()
+            {
+                return stats;
+            }
+        };
+    }
+}
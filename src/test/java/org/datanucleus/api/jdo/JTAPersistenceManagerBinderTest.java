@@ -0,0 +1,262 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Transaction;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the binding of PMs to JTA transactions, using a mock TransactionSynchronizationRegistry.
+ */
+public class JTAPersistenceManagerBinderTest extends TestCase
+{
+    private static final Object PMF_KEY = "pmf";
+
+    public void testNoTransaction()
+    {
+        MockRegistry registry = new MockRegistry();
+        JTAPersistenceManagerBinder binder = new JTAPersistenceManagerBinder(registry);
+        assertNull(binder.getPersistenceManager(PMF_KEY, () -> new MockPM().pm));
+    }
+
+    public void testSamePMForTransaction()
+    {
+        MockRegistry registry = new MockRegistry();
+        registry.begin();
+        JTAPersistenceManagerBinder binder = new JTAPersistenceManagerBinder(registry);
+
+        List<MockPM> created = new ArrayList<>();
+        PersistenceManager pm1 = binder.getPersistenceManager(PMF_KEY, () -> newPM(created));
+        PersistenceManager pm2 = binder.getPersistenceManager(PMF_KEY, () -> newPM(created));
+        assertSame(pm1, pm2);
+        assertEquals(1, created.size());
+        assertEquals(1, registry.syncs.size());
+
+        // A PM closed by the user within the transaction is replaced
+        pm1.close();
+        PersistenceManager pm3 = binder.getPersistenceManager(PMF_KEY, () -> newPM(created));
+        assertNotSame(pm1, pm3);
+        assertEquals(2, created.size());
+    }
+
+    public void testCloseOnCompletionWhenTransactionEnded()
+    {
+        MockRegistry registry = new MockRegistry();
+        registry.begin();
+        JTAPersistenceManagerBinder binder = new JTAPersistenceManagerBinder(registry);
+        MockPM mockPM = new MockPM();
+        PersistenceManager pm = binder.getPersistenceManager(PMF_KEY, () -> mockPM.pm);
+        assertSame(mockPM.pm, pm);
+
+        // DataNucleus has already completed its transaction, so the PM is closed straight away
+        registry.complete(Status.STATUS_COMMITTED);
+        assertTrue(mockPM.closed);
+        assertEquals(0, mockPM.failedCloses);
+    }
+
+    public void testCloseDeferredWhileTransactionActive()
+    {
+        MockRegistry registry = new MockRegistry();
+        registry.begin();
+        JTAPersistenceManagerBinder binder = new JTAPersistenceManagerBinder(registry);
+        MockPM mockPM = new MockPM();
+        mockPM.txActive = true;
+        List<Integer> userSyncStatuses = new ArrayList<>();
+        mockPM.sync = new Synchronization()
+        {
+            public void beforeCompletion()
+            {
+            }
+
+            public void afterCompletion(int status)
+            {
+                userSyncStatuses.add(status);
+            }
+        };
+        binder.getPersistenceManager(PMF_KEY, () -> mockPM.pm);
+
+        // Interposed synchronization called while the DataNucleus transaction is still active
+        registry.complete(Status.STATUS_COMMITTED);
+        assertFalse(mockPM.closed);
+        assertEquals(0, mockPM.failedCloses);
+        assertNotNull(mockPM.sync);
+
+        // DataNucleus then completes its transaction and calls the synchronization of the PM transaction
+        mockPM.txActive = false;
+        mockPM.sync.afterCompletion(Status.STATUS_COMMITTED);
+        assertTrue(mockPM.closed);
+        assertEquals(0, mockPM.failedCloses);
+        assertEquals(1, userSyncStatuses.size());
+        assertEquals(Status.STATUS_COMMITTED, userSyncStatuses.get(0).intValue());
+    }
+
+    public void testCloseNotAttemptedWhenTransactionStillActive()
+    {
+        MockPM mockPM = new MockPM();
+        mockPM.txActive = true;
+        JTAPersistenceManagerBinder.closeWhenTransactionEnded(mockPM.pm);
+
+        // Synchronization called with the transaction still active, so leaves the PM open rather than failing
+        mockPM.sync.afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertFalse(mockPM.closed);
+        assertEquals(0, mockPM.failedCloses);
+    }
+
+    private static PersistenceManager newPM(List<MockPM> created)
+    {
+        MockPM mockPM = new MockPM();
+        created.add(mockPM);
+        return mockPM.pm;
+    }
+
+    /**
+     * Mock PM with a transaction, where close fails (like a real PM) while the transaction is active.
+     */
+    private static class MockPM
+    {
+        boolean closed;
+        boolean txActive;
+        int failedCloses;
+        Synchronization sync;
+
+        final Transaction tx = (Transaction) Proxy.newProxyInstance(Transaction.class.getClassLoader(), new Class[] {Transaction.class},
+            (proxy, method, args) ->
+            {
+                switch (method.getName())
+                {
+                    case "isActive":
+                        return txActive;
+                    case "getSynchronization":
+                        return sync;
+                    case "setSynchronization":
+                        sync = (Synchronization) args[0];
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+
+        final PersistenceManager pm = (PersistenceManager) Proxy.newProxyInstance(PersistenceManager.class.getClassLoader(),
+            new Class[] {PersistenceManager.class},
+            (proxy, method, args) ->
+            {
+                switch (method.getName())
+                {
+                    case "isClosed":
+                        return closed;
+                    case "currentTransaction":
+                        return tx;
+                    case "close":
+                        if (txActive)
+                        {
+                            failedCloses++;
+                            throw new javax.jdo.JDOUserException("Transaction active on close");
+                        }
+                        closed = true;
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "MockPM";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    /**
+     * Mock TransactionSynchronizationRegistry for a single transaction at a time.
+     */
+    private static class MockRegistry implements TransactionSynchronizationRegistry
+    {
+        Object txKey;
+        final Map<Object, Object> resources = new HashMap<>();
+        final List<Synchronization> syncs = new ArrayList<>();
+        int status = Status.STATUS_NO_TRANSACTION;
+
+        void begin()
+        {
+            txKey = new Object();
+            status = Status.STATUS_ACTIVE;
+        }
+
+        void complete(int completionStatus)
+        {
+            for (Synchronization sync : syncs)
+            {
+                sync.beforeCompletion();
+            }
+            status = completionStatus;
+            for (Synchronization sync : syncs)
+            {
+                sync.afterCompletion(completionStatus);
+            }
+            txKey = null;
+            resources.clear();
+            syncs.clear();
+        }
+
+        public Object getTransactionKey()
+        {
+            return txKey;
+        }
+
+        public void putResource(Object key, Object value)
+        {
+            resources.put(key, value);
+        }
+
+        public Object getResource(Object key)
+        {
+            return resources.get(key);
+        }
+
+        public void registerInterposedSynchronization(Synchronization sync)
+        {
+            syncs.add(sync);
+        }
+
+        public int getTransactionStatus()
+        {
+            return status;
+        }
+
+        public void setRollbackOnly()
+        {
+            status = Status.STATUS_MARKED_ROLLBACK;
+        }
+
+        public boolean getRollbackOnly()
+        {
+            return status == Status.STATUS_MARKED_ROLLBACK;
+        }
+    }
+}
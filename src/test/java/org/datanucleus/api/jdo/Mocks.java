@@ -0,0 +1,233 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.PersistenceNucleusContext;
+
+/**
+ * Mock objects for tests of the JDO API layer without a datastore. Each mock is a dynamic proxy of an interface, that records the
+ * methods invoked on it and answers them from a map of method name to answer (otherwise returning null, or the default value for a
+ * primitive type).
+ */
+class Mocks
+{
+    /**
+     * Mock of an interface, recording its invocations.
+     * @param <T> The interface
+     */
+    static class Mock<T>
+    {
+        final T proxy;
+
+        final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+        final List<String> calls;
+
+        Mock(Class<T> type, List<String> calls)
+        {
+            this.calls = calls;
+            this.proxy = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, (p, method, args) -> invoke(p, method, args)));
+        }
+
+        /**
+         * Method to set the answer of the specified method (whatever its arguments).
+         * @param methodName Name of the method
+         * @param answer The answer, given the arguments of the invocation
+         * @return This mock
+         */
+        Mock<T> answer(String methodName, Function<Object[], Object> answer)
+        {
+            answers.put(methodName, answer);
+            return this;
+        }
+
+        /**
+         * Method to set the value returned by the specified method (whatever its arguments).
+         * @param methodName Name of the method
+         * @param value The value to return
+         * @return This mock
+         */
+        Mock<T> returns(String methodName, Object value)
+        {
+            return answer(methodName, args -> value);
+        }
+
+        private Object invoke(Object p, Method method, Object[] args)
+        {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class)
+            {
+                switch (name)
+                {
+                    case "hashCode":
+                        return System.identityHashCode(p);
+                    case "equals":
+                        return p == args[0];
+                    default:
+                        return "Mock[" + method.getDeclaringClass().getSimpleName() + "]";
+                }
+            }
+
+            calls.add(name);
+            Function<Object[], Object> answer = answers.get(name);
+            if (answer != null)
+            {
+                return answer.apply(args != null ? args : new Object[0]);
+            }
+            return getDefaultValue(method.getReturnType());
+        }
+    }
+
+    private Mocks()
+    {
+    }
+
+    /**
+     * Method to create a mock of the specified interface, recording the invocations in its own list.
+     * @param type The interface
+     * @return The mock
+     */
+    static <T> Mock<T> mock(Class<T> type)
+    {
+        return new Mock<>(type, new ArrayList<>());
+    }
+
+    /**
+     * Method to create a mock of the specified interface, recording the invocations in the supplied list (so that the order of
+     * invocations across mocks can be checked).
+     * @param type The interface
+     * @param calls List to record the names of invoked methods in
+     * @return The mock
+     */
+    static <T> Mock<T> mock(Class<T> type, List<String> calls)
+    {
+        return new Mock<>(type, calls);
+    }
+
+    /**
+     * Method to create a PM using the specified (mock) ExecutionContext. The PMF has a real NucleusContext (without a datastore),
+     * other than its provision of ExecutionContexts.
+     * @param ec The ExecutionContext
+     * @return The PM
+     */
+    static JDOPersistenceManager newPersistenceManager(ExecutionContext ec)
+    {
+        return new JDOPersistenceManager(newPersistenceManagerFactory(ec), null, null);
+    }
+
+    /**
+     * Method to create a PMF whose PMs use the specified (mock) ExecutionContext.
+     * @param ec The ExecutionContext
+     * @return The PMF
+     */
+    static JDOPersistenceManagerFactory newPersistenceManagerFactory(ExecutionContext ec)
+    {
+        return new MockPersistenceManagerFactory(ec);
+    }
+
+    /**
+     * PMF with a real NucleusContext (without a datastore), other than providing the specified (mock) ExecutionContext to its PMs.
+     * Can be extended by tests to override other behaviour of the PMF.
+     */
+    static class MockPersistenceManagerFactory extends JDOPersistenceManagerFactory
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ExecutionContext ec;
+
+        private transient PersistenceNucleusContext mockContext;
+
+        MockPersistenceManagerFactory(ExecutionContext ec)
+        {
+            this.ec = ec;
+        }
+
+        @Override
+        public PersistenceNucleusContext getNucleusContext()
+        {
+            if (mockContext == null)
+            {
+                PersistenceNucleusContext nucCtx = super.getNucleusContext();
+                mockContext = (PersistenceNucleusContext) Proxy.newProxyInstance(PersistenceNucleusContext.class.getClassLoader(),
+                    new Class[] {PersistenceNucleusContext.class}, (p, method, args) ->
+                    {
+                        if ("getExecutionContext".equals(method.getName()))
+                        {
+                            return ec;
+                        }
+                        try
+                        {
+                            return method.invoke(nucCtx, args);
+                        }
+                        catch (InvocationTargetException ite)
+                        {
+                            throw ite.getCause();
+                        }
+                    });
+            }
+            return mockContext;
+        }
+    }
+
+    static Object getDefaultValue(Class type)
+    {
+        if (type == boolean.class)
+        {
+            return Boolean.FALSE;
+        }
+        else if (type == int.class)
+        {
+            return 0;
+        }
+        else if (type == long.class)
+        {
+            return 0L;
+        }
+        else if (type == short.class)
+        {
+            return (short) 0;
+        }
+        else if (type == byte.class)
+        {
+            return (byte) 0;
+        }
+        else if (type == char.class)
+        {
+            return (char) 0;
+        }
+        else if (type == float.class)
+        {
+            return 0f;
+        }
+        else if (type == double.class)
+        {
+            return 0d;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,147 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import javax.jdo.JDODataStoreException;
+import javax.jdo.JDOOptimisticVerificationException;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.api.jdo.exceptions.OptimisticConflictException;
+import org.datanucleus.exceptions.NucleusDataStoreException;
+import org.datanucleus.exceptions.NucleusException;
+import org.datanucleus.exceptions.NucleusOptimisticException;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for the compact reporting of optimistic conflicts on commit, using a mock transaction whose commit fails verification.
+ */
+public class OptimisticConflictTest extends TestCase
+{
+    /** Objects whose versions conflict on commit. */
+    private final Object[] failedObjects = new Object[] {"Object 1", "Object 2"};
+
+    private Mock<Transaction> tx;
+
+    private JDOPersistenceManagerFactory pmf;
+
+    private JDOPersistenceManager pm;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        tx = Mocks.mock(Transaction.class);
+        failCommit(new NucleusException("Commit failed", new Throwable[] {new NucleusOptimisticException("Optimistic verification failed", new Throwable[] {
+            new NucleusOptimisticException("Version conflict", failedObjects[0]), new NucleusOptimisticException("Version conflict", failedObjects[1])})}));
+        Mock<ApiAdapter> api = Mocks.mock(ApiAdapter.class).returns("isPersistable", true)
+            .answer("getIdForObject", args -> "Id of " + args[0]).answer("getVersionForObject", args -> "Version of " + args[0]);
+        Mock<ExecutionContext> ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx.proxy).returns("getApiAdapter", api.proxy);
+        pmf = Mocks.newPersistenceManagerFactory(ec.proxy);
+        pmf.getConfiguration().setProperty(JDOPropertyNames.PROPERTY_OPTIMISTIC_COMPACT_CONFLICTS, "true");
+        pmf.getConfiguration().setProperty(JDOPropertyNames.PROPERTY_OPTIMISTIC_CAPTURE_STACK_TRACE, "false");
+        pm = new JDOPersistenceManager(pmf, null, null);
+    }
+
+    public void testCompactConflicts()
+    {
+        OptimisticConflictException oce = (OptimisticConflictException) commit();
+
+        // All conflicts in the one exception, with no nested exception or stack trace
+        assertEquals(2, oce.getNumberOfConflicts());
+        assertEquals("Id of Object 1", oce.getFailedObjectIds()[0]);
+        assertEquals("Id of Object 2", oce.getFailedObjectIds()[1]);
+        assertEquals("Version of Object 1", oce.getExpectedVersions()[0]);
+        assertEquals("Version of Object 2", oce.getExpectedVersions()[1]);
+        assertSame(failedObjects[0], oce.getFailedObjects()[0]);
+        assertSame(failedObjects[1], oce.getFailedObjects()[1]);
+        assertNull(oce.getFailedObject());
+        assertNull(oce.getNestedExceptions());
+        assertEquals(0, oce.getStackTrace().length);
+        assertTrue(oce.getMessage().startsWith("Commit failed"));
+        assertTrue(oce.getMessage().endsWith("(2 conflicts)"));
+    }
+
+    public void testCompactConflictsWithStackTrace()
+    {
+        pmf.getConfiguration().setProperty(JDOPropertyNames.PROPERTY_OPTIMISTIC_CAPTURE_STACK_TRACE, "true");
+        OptimisticConflictException oce = (OptimisticConflictException) commit();
+        assertEquals(2, oce.getNumberOfConflicts());
+        assertTrue(oce.getStackTrace().length > 0);
+    }
+
+    public void testSingleConflict()
+    {
+        failCommit(new NucleusException("Commit failed", new Throwable[] {new NucleusOptimisticException("Version conflict", failedObjects[0])}));
+        OptimisticConflictException oce = (OptimisticConflictException) commit();
+        assertEquals(1, oce.getNumberOfConflicts());
+        assertSame(failedObjects[0], oce.getFailedObject());
+        assertTrue(oce.getMessage().endsWith("(1 conflicts)"));
+    }
+
+    public void testNestedExceptionsWhenNotCompact()
+    {
+        pmf.getConfiguration().setProperty(JDOPropertyNames.PROPERTY_OPTIMISTIC_COMPACT_CONFLICTS, "false");
+        JDOOptimisticVerificationException jove = commit();
+        assertFalse(jove instanceof OptimisticConflictException);
+        Throwable[] nested = jove.getNestedExceptions();
+        assertEquals(2, nested.length);
+        assertSame(failedObjects[0], ((JDOOptimisticVerificationException) nested[0]).getFailedObject());
+        assertSame(failedObjects[1], ((JDOOptimisticVerificationException) nested[1]).getFailedObject());
+    }
+
+    public void testOtherFailuresNotCompacted()
+    {
+        failCommit(new NucleusException("Commit failed", new Throwable[] {new NucleusDataStoreException("Insert failed"),
+            new NucleusOptimisticException("Version conflict", failedObjects[0])}));
+        try
+        {
+            pm.currentTransaction().commit();
+            fail("Expected JDODataStoreException");
+        }
+        catch (JDODataStoreException dse)
+        {
+            // Not all optimistic failures, so reported as normal
+        }
+    }
+
+    private void failCommit(NucleusException ne)
+    {
+        tx.answer("commit", args ->
+        {
+            throw ne;
+        });
+    }
+
+    private JDOOptimisticVerificationException commit()
+    {
+        try
+        {
+            pm.currentTransaction().commit();
+            fail("Expected JDOOptimisticVerificationException");
+            return null;
+        }
+        catch (JDOOptimisticVerificationException jove)
+        {
+            return jove;
+        }
+    }
+}
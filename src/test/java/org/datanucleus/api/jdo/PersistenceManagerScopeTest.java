@@ -0,0 +1,244 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.jdo.JDOUserException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Transaction;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.api.jdo.Mocks.Mock;
+
+/**
+ * Tests for the PM proxy delegating to a PM bound to a scope (runInPersistenceManagerScope/executeInPersistenceManagerScope).
+ */
+public class PersistenceManagerScopeTest extends TestCase
+{
+    /** Mocks of the PMs created by the PMF. */
+    private List<Mock<PersistenceManager>> pms;
+
+    /** Exception to throw when closing a PM (if any). */
+    private RuntimeException closeFailure;
+
+    private JDOPersistenceManagerFactory pmf;
+
+    private JDOPersistenceManagerProxy proxy;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        pms = new ArrayList<>();
+        pmf = new JDOPersistenceManagerFactory()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public PersistenceManager getPersistenceManager()
+            {
+                boolean[] closed = new boolean[1];
+                boolean[] active = new boolean[1];
+                Mock<PersistenceManager> pm = Mocks.mock(PersistenceManager.class).answer("isClosed", args -> closed[0]).answer("close", args ->
+                {
+                    if (closeFailure != null)
+                    {
+                        throw closeFailure;
+                    }
+                    closed[0] = true;
+                    return null;
+                });
+                Mock<Transaction> tx = Mocks.mock(Transaction.class, pm.calls).answer("isActive", args -> active[0])
+                    .answer("begin", args -> active[0] = true).answer("rollback", args -> active[0] = false);
+                pm.returns("currentTransaction", tx.proxy);
+                pms.add(pm);
+                return pm.proxy;
+            }
+        };
+        pmf.setTransactionType("RESOURCE_LOCAL");
+        proxy = new JDOPersistenceManagerProxy(pmf);
+    }
+
+    public void testDelegateBoundToScope()
+    {
+        pmf.runInPersistenceManagerScope(() ->
+        {
+            // PM created on first use, and the same PM used for the rest of the scope
+            assertTrue(pms.isEmpty());
+            PersistenceManager pm = proxy.getPM();
+            assertSame(pm, proxy.getPM());
+            assertEquals(1, pms.size());
+        });
+
+        // PM closed at the end of the scope
+        assertEquals(1, pms.size());
+        assertEquals(1, count(pms.get(0), "close"));
+
+        // Outside of a scope the proxy uses the thread-local PM
+        PersistenceManager pm = proxy.getPM();
+        assertEquals(2, pms.size());
+        assertSame(pms.get(1).proxy, pm);
+        proxy.close();
+        assertEquals(1, count(pms.get(1), "close"));
+    }
+
+    public void testNoPMCreatedIfUnused()
+    {
+        assertEquals("result", pmf.executeInPersistenceManagerScope(() -> "result"));
+        assertTrue(pms.isEmpty());
+
+        // Closing the proxy without a delegate doesn't create a PM just to close it
+        proxy.close();
+        assertTrue(pms.isEmpty());
+    }
+
+    public void testNestedScopeJoinsEnclosingScope()
+    {
+        PersistenceManager pm = pmf.executeInPersistenceManagerScope(() ->
+        {
+            PersistenceManager outerPM = proxy.getPM();
+            PersistenceManager innerPM = pmf.executeInPersistenceManagerScope(() -> proxy.getPM());
+            assertSame(outerPM, innerPM);
+            assertFalse(outerPM.isClosed());
+            return outerPM;
+        });
+        assertTrue(pm.isClosed());
+        assertEquals(1, pms.size());
+    }
+
+    public void testProxyCloseInScope()
+    {
+        pmf.runInPersistenceManagerScope(() ->
+        {
+            PersistenceManager pm1 = proxy.getPM();
+            proxy.close();
+            assertTrue(pm1.isClosed());
+
+            // Next use in the scope creates a new PM
+            PersistenceManager pm2 = proxy.getPM();
+            assertNotSame(pm1, pm2);
+        });
+
+        assertEquals(2, pms.size());
+        assertEquals(1, count(pms.get(0), "close"));
+        assertEquals(1, count(pms.get(1), "close"));
+    }
+
+    public void testPMClosedWhenTaskFails()
+    {
+        try
+        {
+            pmf.runInPersistenceManagerScope(() ->
+            {
+                proxy.getPM();
+                throw new IllegalStateException("Task failed");
+            });
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException ise)
+        {
+            // Expected
+        }
+        assertEquals(1, pms.size());
+        assertEquals(1, count(pms.get(0), "close"));
+    }
+
+    public void testActiveTransactionRolledBackOnClose()
+    {
+        pmf.runInPersistenceManagerScope(() -> proxy.getPM().currentTransaction().begin());
+
+        // Transaction left active by the task is rolled back before the PM is closed
+        List<String> calls = pms.get(0).calls;
+        assertEquals(1, count(pms.get(0), "rollback"));
+        assertTrue(calls.indexOf("rollback") < calls.indexOf("close"));
+        assertTrue(pms.get(0).proxy.isClosed());
+    }
+
+    public void testCloseFailureSuppressedByTaskFailure()
+    {
+        closeFailure = new JDOUserException("Close failed");
+        IllegalStateException taskFailure = new IllegalStateException("Task failed");
+        try
+        {
+            pmf.runInPersistenceManagerScope(() ->
+            {
+                proxy.getPM().currentTransaction().begin();
+                throw taskFailure;
+            });
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException ise)
+        {
+            // Failure of the task is thrown, with the failure to close added to it
+            assertSame(taskFailure, ise);
+            assertEquals(1, ise.getSuppressed().length);
+            assertSame(closeFailure, ise.getSuppressed()[0]);
+        }
+        assertEquals(1, count(pms.get(0), "rollback"));
+    }
+
+    public void testCloseFailureThrownWhenTaskSucceeds()
+    {
+        closeFailure = new JDOUserException("Close failed");
+        try
+        {
+            pmf.executeInPersistenceManagerScope(() -> proxy.getPM());
+            fail("Expected JDOUserException");
+        }
+        catch (JDOUserException ue)
+        {
+            assertSame(closeFailure, ue);
+        }
+    }
+
+    public void testScopeNotInheritedByOtherThreads() throws Exception
+    {
+        AtomicReference<PersistenceManager> otherThreadPM = new AtomicReference<>();
+        pmf.runInPersistenceManagerScope(() ->
+        {
+            PersistenceManager scopePM = proxy.getPM();
+            Thread thread = new Thread(() ->
+            {
+                otherThreadPM.set(proxy.getPM());
+                proxy.close();
+            });
+            thread.start();
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                fail("Interrupted");
+            }
+            assertNotSame(scopePM, otherThreadPM.get());
+            assertFalse(scopePM.isClosed());
+        });
+        assertEquals(2, pms.size());
+        assertTrue(otherThreadPM.get().isClosed());
+    }
+
+    private static int count(Mock<PersistenceManager> pm, String methodName)
+    {
+        return (int) pm.calls.stream().filter(methodName::equals).count();
+    }
+}
@@ -0,0 +1,169 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.PersistenceNucleusContext;
+import org.datanucleus.PropertyNames;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.api.jdo.exceptions.TransactionNotWritableException;
+import org.datanucleus.api.jdo.state.LifeCycleStateFactory;
+import org.datanucleus.state.DNStateManager;
+import org.datanucleus.state.LifeCycleState;
+import org.datanucleus.transaction.Transaction;
+import org.datanucleus.transaction.TransactionEventListener;
+
+/**
+ * Tests for the lifecycle transitions of objects in a read-only (datastore) transaction, using a mock StateManager, and for the
+ * read-only datastore setting of the PM during a read-only transaction.
+ */
+public class ReadOnlyTransactionTest extends TestCase
+{
+    private Map<String, Object> txOptions;
+
+    private Mock<DNStateManager> sm;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        txOptions = new HashMap<>();
+        txOptions.put(JDOTransaction.OPTION_READ_ONLY, Boolean.TRUE);
+        Mock<Transaction> tx = Mocks.mock(Transaction.class).returns("isActive", true).returns("getOptimistic", false)
+            .returns("getRestoreValues", true).answer("getOptions", args -> txOptions);
+        JDOAdapter api = new JDOAdapter();
+        Mock<PersistenceNucleusContext> nucCtx = Mocks.mock(PersistenceNucleusContext.class).returns("getApiAdapter", api);
+        Mock<ExecutionContext> ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx.proxy)
+            .returns("getNucleusContext", nucCtx.proxy).returns("getApiAdapter", api);
+        sm = Mocks.mock(DNStateManager.class).returns("getExecutionContext", ec.proxy).returns("getInternalObjectId", "1");
+    }
+
+    public void testReadHollow()
+    {
+        LifeCycleState state = getState(LifeCycleState.HOLLOW).transitionReadField(sm.proxy, false);
+        assertEquals(LifeCycleState.P_CLEAN, state.getStateType());
+        assertFalse(sm.calls.contains("saveFields"));
+    }
+
+    public void testReadNontransactionalRefreshesWithoutBeforeImage()
+    {
+        LifeCycleState state = getState(LifeCycleState.P_NONTRANS).transitionReadField(sm.proxy, true);
+
+        // Fields loaded before the transaction may be stale, so are refreshed, but there is no before-image
+        assertEquals(LifeCycleState.P_CLEAN, state.getStateType());
+        assertTrue(sm.calls.contains("refreshLoadedFields"));
+        assertFalse(sm.calls.contains("saveFields"));
+    }
+
+    public void testReadNontransactionalSavesBeforeImageWhenNotReadOnly()
+    {
+        txOptions.clear();
+        LifeCycleState state = getState(LifeCycleState.P_NONTRANS).transitionReadField(sm.proxy, true);
+        assertEquals(LifeCycleState.P_CLEAN, state.getStateType());
+        assertTrue(sm.calls.contains("refreshLoadedFields"));
+        assertTrue(sm.calls.contains("saveFields"));
+    }
+
+    public void testRetrieveNontransactional()
+    {
+        LifeCycleState state = getState(LifeCycleState.P_NONTRANS).transitionRetrieve(sm.proxy, false);
+        assertEquals(LifeCycleState.P_CLEAN, state.getStateType());
+        assertTrue(sm.calls.contains("loadUnloadedFields"));
+        assertFalse(sm.calls.contains("saveFields"));
+    }
+
+    public void testWriteNotPermitted()
+    {
+        for (int stateType : new int[] {LifeCycleState.HOLLOW, LifeCycleState.P_NONTRANS, LifeCycleState.P_CLEAN})
+        {
+            try
+            {
+                getState(stateType).transitionWriteField(sm.proxy);
+                fail("Expected TransactionNotWritableException for state " + stateType);
+            }
+            catch (TransactionNotWritableException e)
+            {
+                assertEquals("1", e.getFailedObject());
+            }
+        }
+        assertFalse(sm.calls.contains("saveFields"));
+    }
+
+    public void testWriteCleanWhenNotReadOnly()
+    {
+        txOptions.put(JDOTransaction.OPTION_READ_ONLY, Boolean.FALSE);
+        LifeCycleState state = getState(LifeCycleState.P_CLEAN).transitionWriteField(sm.proxy);
+        assertEquals(LifeCycleState.P_DIRTY, state.getStateType());
+        assertTrue(sm.calls.contains("saveFields"));
+    }
+
+    public void testDatastoreReadOnlyOnlyDuringTransaction()
+    {
+        List<TransactionEventListener> listeners = new ArrayList<>();
+        Mock<Transaction> tx = Mocks.mock(Transaction.class).answer("bindTransactionEventListener", args -> listeners.add((TransactionEventListener) args[0]))
+            .answer("removeTransactionEventListener", args -> listeners.remove(args[0]));
+        Map<String, Object> ecProps = new HashMap<>();
+        Mock<ExecutionContext> ec = Mocks.mock(ExecutionContext.class).returns("getTransaction", tx.proxy)
+            .answer("setProperty", args -> ecProps.put((String) args[0], args[1]))
+            .answer("getBooleanProperty", args -> (Boolean) ecProps.get(args[0]));
+        JDOTransaction jdoTx = new JDOTransaction(Mocks.newPersistenceManager(ec.proxy), tx.proxy);
+
+        // Setting read-only doesn't change the PM outside of a transaction
+        jdoTx.setReadOnly(true);
+        assertEquals(1, listeners.size());
+        assertTrue(ecProps.isEmpty());
+
+        // Datastore is read-only for the duration of each transaction, whether it commits or rolls back
+        for (int i = 0; i < 2; i++)
+        {
+            listeners.get(0).transactionStarted();
+            assertEquals(Boolean.TRUE, ecProps.get(PropertyNames.PROPERTY_DATASTORE_READONLY));
+            if (i == 0)
+            {
+                listeners.get(0).transactionCommitted();
+            }
+            else
+            {
+                listeners.get(0).transactionRolledBack();
+            }
+            listeners.get(0).transactionEnded();
+            assertEquals(Boolean.FALSE, ecProps.get(PropertyNames.PROPERTY_DATASTORE_READONLY));
+        }
+
+        // Datastore that was already read-only stays read-only
+        ecProps.put(PropertyNames.PROPERTY_DATASTORE_READONLY, Boolean.TRUE);
+        listeners.get(0).transactionStarted();
+        listeners.get(0).transactionEnded();
+        assertEquals(Boolean.TRUE, ecProps.get(PropertyNames.PROPERTY_DATASTORE_READONLY));
+
+        jdoTx.setReadOnly(false);
+        assertTrue(listeners.isEmpty());
+    }
+
+    private static LifeCycleState getState(int stateType)
+    {
+        return LifeCycleStateFactory.getLifeCycleState(stateType);
+    }
+}
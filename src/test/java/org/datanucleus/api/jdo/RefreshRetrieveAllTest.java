@@ -0,0 +1,161 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.state.DNStateManager;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for refreshAll/retrieveAll loading objects with a query per class, using a mock ExecutionContext.
+ * The query per class is replaced by recording the objects to be loaded.
+ */
+public class RefreshRetrieveAllTest extends TestCase
+{
+    private List<String> calls;
+
+    private Mock<ExecutionContext> ec;
+
+    private Map<Object, Mock<DNStateManager>> smsByObject;
+
+    /** Objects passed for loading by query. */
+    private List<Object> queriedPcs;
+
+    /** Objects that the query doesn't find. */
+    private Set<Object> missingPcs;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        calls = new ArrayList<>();
+        smsByObject = new IdentityHashMap<>();
+        queriedPcs = new ArrayList<>();
+        missingPcs = Collections.newSetFromMap(new IdentityHashMap<>());
+        Mock<Transaction> tx = Mocks.mock(Transaction.class).returns("isActive", true);
+        Mock<ApiAdapter> api = Mocks.mock(ApiAdapter.class).returns("isPersistent", true).returns("isDirty", false);
+        ec = Mocks.mock(ExecutionContext.class, calls).returns("getTransaction", tx.proxy).returns("getApiAdapter", api.proxy)
+            .answer("findStateManager", args -> getStateManager(args[0]).proxy);
+    }
+
+    public void testRefreshAllDoesNotEvict()
+    {
+        Object[] pcs = new Object[] {new Object(), new Object(), new Object()};
+        missingPcs.add(pcs[2]);
+        newPersistenceManager().refreshAll(pcs);
+
+        assertEquals(3, queriedPcs.size());
+        for (Object pc : pcs)
+        {
+            // Fields marked as not loaded so the query reloads them, but no evict (and so no clear callbacks)
+            List<String> smCalls = getStateManager(pc).calls;
+            assertTrue(smCalls.contains("clearLoadedFlags"));
+            assertFalse(smCalls.contains("evict"));
+        }
+
+        // Only the object not found by the query is refreshed individually
+        assertEquals(1, count("refreshObject"));
+    }
+
+    public void testRetrieveAllSkipsLoadedObjects()
+    {
+        Object[] pcs = new Object[] {new Object(), new Object(), new Object()};
+        getStateManager(pcs[0]).returns("getAllFieldsLoaded", true);
+        getStateManager(pcs[1]).returns("getAllFieldsLoaded", false);
+        getStateManager(pcs[2]).returns("getAllFieldsLoaded", false);
+        newPersistenceManager().retrieveAll(false, pcs);
+
+        assertEquals(2, queriedPcs.size());
+        assertFalse(queriedPcs.contains(pcs[0]));
+        assertEquals(1, count("retrieveObjects"));
+    }
+
+    public void testRetrieveAllNothingToLoad()
+    {
+        Object[] pcs = new Object[] {new Object(), new Object()};
+        for (Object pc : pcs)
+        {
+            getStateManager(pc).returns("getAllFieldsLoaded", true);
+        }
+        newPersistenceManager().retrieveAll(false, pcs);
+
+        assertTrue(queriedPcs.isEmpty());
+        assertEquals(1, count("retrieveObjects"));
+    }
+
+    private Mock<DNStateManager> getStateManager(Object pc)
+    {
+        return smsByObject.computeIfAbsent(pc, k -> Mocks.mock(DNStateManager.class));
+    }
+
+    private JDOPersistenceManager newPersistenceManager()
+    {
+        JDOPersistenceManagerFactory pmf = Mocks.newPersistenceManagerFactory(ec.proxy);
+        pmf.getConfiguration().setProperty(JDOPropertyNames.PROPERTY_REFRESH_RETRIEVE_ALL_BATCH_BY_CLASS, "true");
+        return new JDOPersistenceManager(pmf, null, null)
+        {
+            @Override
+            Map<Class, Map<Object, Object>> groupObjectsByClassAndKey(Collection pcs, List<Object> ungroupedPcs)
+            {
+                Map<Object, Object> pcsByKey = new HashMap<>();
+                int key = 0;
+                for (Object pc : pcs)
+                {
+                    pcsByKey.put(key++, pc);
+                }
+                return Collections.singletonMap(Object.class, pcsByKey);
+            }
+
+            @Override
+            Set<Object> loadGroupedObjects(Map<Class, Map<Object, Object>> pcsByClass, boolean allFields)
+            {
+                Set<Object> loadedPcs = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Map<Object, Object> classPcs : pcsByClass.values())
+                {
+                    for (Object pc : classPcs.values())
+                    {
+                        queriedPcs.add(pc);
+                        if (!missingPcs.contains(pc))
+                        {
+                            loadedPcs.add(pc);
+                        }
+                    }
+                }
+                return loadedPcs;
+            }
+        };
+    }
+
+    private int count(String methodName)
+    {
+        return (int) calls.stream().filter(methodName::equals).count();
+    }
+}
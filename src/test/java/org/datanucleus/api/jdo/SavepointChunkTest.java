@@ -0,0 +1,174 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ExecutionContext;
+import org.datanucleus.api.ApiAdapter;
+import org.datanucleus.api.jdo.Mocks.Mock;
+import org.datanucleus.api.jdo.exceptions.BulkOperationException;
+import org.datanucleus.exceptions.NucleusDataStoreException;
+import org.datanucleus.state.DNStateManager;
+import org.datanucleus.transaction.Transaction;
+
+/**
+ * Tests for makePersistentAllWithSavepoints/deletePersistentAllWithSavepoints, using a mock ExecutionContext.
+ */
+public class SavepointChunkTest extends TestCase
+{
+    private List<String> calls;
+
+    private Mock<ExecutionContext> ec;
+
+    private Mock<ApiAdapter> api;
+
+    private Map<Object, Mock<DNStateManager>> smsByObject;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        calls = new ArrayList<>();
+        smsByObject = new IdentityHashMap<>();
+        Mock<Transaction> tx = Mocks.mock(Transaction.class, calls).returns("isActive", true);
+        api = Mocks.mock(ApiAdapter.class);
+        ec = Mocks.mock(ExecutionContext.class, calls).returns("getTransaction", tx.proxy).returns("getApiAdapter", api.proxy)
+            .answer("findStateManager", args -> smsByObject.computeIfAbsent(args[0], k -> Mocks.mock(DNStateManager.class)).proxy);
+    }
+
+    public void testFlushBeforeEachSavepoint()
+    {
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        long num = pm.makePersistentAllWithSavepoints(Arrays.asList(new Object(), new Object(), new Object()), 2);
+        assertEquals(3, num);
+
+        // Outstanding changes are flushed before each savepoint is set, so a rollback to the savepoint can't lose them
+        int setSavepoints = 0;
+        for (int i = 0; i < calls.size(); i++)
+        {
+            if ("setSavepoint".equals(calls.get(i)))
+            {
+                setSavepoints++;
+                assertEquals("flush", getPreviousCall(i, "flush", "persistObjects"));
+            }
+        }
+        assertEquals(2, setSavepoints);
+        assertEquals(2, count("releaseSavepoint"));
+        assertEquals(0, count("rollbackToSavepoint"));
+    }
+
+    public void testFailedDeleteChunkReturnedToHollow()
+    {
+        Object[] pcs = new Object[] {new Object(), new Object(), new Object()};
+        ec.answer("deleteObjects", args ->
+        {
+            if (Arrays.asList((Object[]) args[0]).contains(pcs[2]))
+            {
+                throw new NucleusDataStoreException("Delete failed");
+            }
+            return null;
+        });
+        api.returns("isDeleted", true).returns("isNew", false);
+
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        try
+        {
+            pm.deletePersistentAllWithSavepoints(Arrays.asList(pcs), 2);
+            fail("Expected BulkOperationException");
+        }
+        catch (BulkOperationException boe)
+        {
+            assertTrue(Arrays.equals(new int[] {2}, boe.getFailedIndices()));
+        }
+        assertEquals(1, count("rollbackToSavepoint"));
+
+        // Object of the failed chunk still exists in the datastore, so is rolled back to hollow rather than disconnected
+        List<String> smCalls = smsByObject.get(pcs[2]).calls;
+        assertTrue(smCalls.contains("preRollback"));
+        assertTrue(smCalls.contains("evict"));
+        assertFalse(smCalls.contains("disconnect"));
+        assertEquals(0, count("removeObjectFromLevel1Cache"));
+
+        // Objects of the successful chunk are untouched
+        assertNull(smsByObject.get(pcs[0]));
+        assertNull(smsByObject.get(pcs[1]));
+    }
+
+    public void testFailedPersistChunkDisconnected()
+    {
+        Object[] pcs = new Object[] {new Object(), new Object()};
+        ec.answer("persistObjects", args ->
+        {
+            throw new NucleusDataStoreException("Insert failed");
+        });
+        api.returns("isDeleted", false).returns("isNew", true);
+
+        JDOPersistenceManager pm = Mocks.newPersistenceManager(ec.proxy);
+        try
+        {
+            pm.makePersistentAllWithSavepoints(Arrays.asList(pcs), 1);
+            fail("Expected BulkOperationException");
+        }
+        catch (BulkOperationException boe)
+        {
+            assertTrue(Arrays.equals(new int[] {0, 1}, boe.getFailedIndices()));
+        }
+        assertEquals(2, count("rollbackToSavepoint"));
+
+        // New objects don't exist in the datastore after the rollback, so are disconnected
+        for (Object pc : pcs)
+        {
+            List<String> smCalls = smsByObject.get(pc).calls;
+            assertTrue(smCalls.contains("disconnect"));
+            assertFalse(smCalls.contains("preRollback"));
+        }
+    }
+
+    private String getPreviousCall(int index, String... methodNames)
+    {
+        List<String> names = Arrays.asList(methodNames);
+        for (int i = index - 1; i >= 0; i--)
+        {
+            if (names.contains(calls.get(i)))
+            {
+                return calls.get(i);
+            }
+        }
+        return null;
+    }
+
+    private int count(String methodName)
+    {
+        int num = 0;
+        for (String call : calls)
+        {
+            if (call.equals(methodName))
+            {
+                num++;
+            }
+        }
+        return num;
+    }
+}
@@ -0,0 +1,151 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.cache.CachedPC;
+import org.datanucleus.identity.LongId;
+
+/**
+ * Tests for the per-class statistics recorded by StatisticsLevel2Cache.
+ */
+public class StatisticsLevel2CacheTest extends TestCase
+{
+    public static class Person
+    {
+        long id;
+    }
+
+    public static class Employee extends Person
+    {
+    }
+
+    public static class Address
+    {
+        long id;
+    }
+
+    private StatisticsLevel2Cache cache;
+
+    private JDOLevel2CacheStatistics stats;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        cache = new StatisticsLevel2Cache(new JDOPersistenceManagerFactory().getNucleusContext());
+        stats = cache.getStatistics();
+    }
+
+    public void testStatisticsPerClass()
+    {
+        LongId person1 = new LongId(Person.class, 1);
+        LongId person2 = new LongId(Person.class, 2);
+        LongId address1 = new LongId(Address.class, 1);
+        cache.put(person1, newCachedPC(Person.class, 2));
+        cache.put(person2, newCachedPC(Person.class, 2));
+        cache.put(address1, newCachedPC(Address.class, 1));
+
+        assertNotNull(cache.get(person1));
+        assertNotNull(cache.get(person2));
+        assertNotNull(cache.get(address1));
+        assertNull(cache.get(new LongId(Person.class, 3)));
+        assertEquals(1, cache.getAll(Arrays.asList(person1, new LongId(Address.class, 2))).size());
+
+        JDOLevel2CacheStatistics.ClassStatistics personStats = stats.getStatisticsForClass(Person.class.getName());
+        assertEquals(2, personStats.getPuts());
+        assertEquals(3, personStats.getHits());
+        assertEquals(1, personStats.getMisses());
+        assertEquals(0.75, personStats.getHitRatio(), 0.0001);
+        JDOLevel2CacheStatistics.ClassStatistics addressStats = stats.getStatisticsForClass(Address.class.getName());
+        assertEquals(1, addressStats.getPuts());
+        assertEquals(1, addressStats.getHits());
+        assertEquals(1, addressStats.getMisses());
+
+        assertEquals(3, stats.getPuts());
+        assertEquals(4, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(4.0 / 6, stats.getHitRatio(), 0.0001);
+        assertEquals(0, stats.getPinnedCount());
+        assertTrue(Arrays.asList(stats.getClassNames()).containsAll(Arrays.asList(Person.class.getName(), Address.class.getName())));
+        assertEquals(2, stats.getClassStatistics().length);
+
+        stats.reset();
+        assertNull(stats.getStatisticsForClass(Person.class.getName()));
+        assertEquals(0, stats.getHits());
+    }
+
+    public void testApproximateMemory()
+    {
+        LongId person1 = new LongId(Person.class, 1);
+        LongId person2 = new LongId(Person.class, 2);
+        cache.put(person1, newCachedPC(Person.class, 2));
+        cache.put(person2, newCachedPC(Person.class, 2));
+        JDOLevel2CacheStatistics.ClassStatistics personStats = stats.getStatisticsForClass(Person.class.getName());
+        long bytesPerObject = personStats.getApproximateMemoryBytes() / 2;
+        assertTrue(bytesPerObject > 0);
+
+        // Replacing an object with one with more loaded fields only adds the difference
+        cache.put(person1, newCachedPC(Person.class, 4));
+        long bytesPerField = (personStats.getApproximateMemoryBytes() - 2 * bytesPerObject) / 2;
+        assertTrue(bytesPerField > 0);
+
+        cache.evict(person1);
+        assertEquals(1, personStats.getEvictions());
+        assertEquals(bytesPerObject, personStats.getApproximateMemoryBytes());
+
+        // Evicting an object that isn't cached isn't counted
+        cache.evict(person1);
+        assertEquals(1, personStats.getEvictions());
+
+        cache.evictAll();
+        assertEquals(0, personStats.getApproximateMemoryBytes());
+        assertEquals(0, stats.getApproximateMemoryBytes());
+    }
+
+    public void testEvictAllOfClass()
+    {
+        cache.put(new LongId(Person.class, 1), newCachedPC(Person.class, 2));
+        cache.put(new LongId(Employee.class, 2), newCachedPC(Employee.class, 2));
+        cache.put(new LongId(Address.class, 1), newCachedPC(Address.class, 2));
+
+        cache.evictAll(Person.class, false);
+        assertEquals(0, stats.getStatisticsForClass(Person.class.getName()).getApproximateMemoryBytes());
+        assertTrue(stats.getStatisticsForClass(Employee.class.getName()).getApproximateMemoryBytes() > 0);
+
+        cache.evictAll(Person.class, true);
+        assertEquals(0, stats.getStatisticsForClass(Employee.class.getName()).getApproximateMemoryBytes());
+        assertTrue(stats.getStatisticsForClass(Address.class.getName()).getApproximateMemoryBytes() > 0);
+    }
+
+    public void testDataStoreCacheStatistics()
+    {
+        assertSame(stats, new JDODataStoreCache(cache, null).getStatistics());
+        assertNull(new JDODataStoreCache(null, null).getStatistics());
+    }
+
+    private static CachedPC newCachedPC(Class cls, int numLoadedFields)
+    {
+        boolean[] loadedFields = new boolean[5];
+        Arrays.fill(loadedFields, 0, numLoadedFields, true);
+        return new CachedPC(cls, loadedFields, null, null);
+    }
+}
@@ -0,0 +1,102 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo.metadata;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ClassLoaderResolver;
+import org.datanucleus.PersistenceNucleusContextImpl;
+import org.datanucleus.api.jdo.JDOPropertyNames;
+import org.datanucleus.metadata.AbstractClassMetaData;
+
+/**
+ * Tests for lazy population of the classes defined in a shared JDO XML file (package.jdo alongside this test).
+ */
+public class LazyPopulationTest extends TestCase
+{
+    public static class Person
+    {
+        String name;
+    }
+
+    public static class Employee extends Person
+    {
+        double salary;
+    }
+
+    public static class Address
+    {
+        String street;
+    }
+
+    private ClassLoaderResolver clr;
+
+    public void testLazyPopulation()
+    {
+        JDOMetaDataManager mgr = newMetaDataManager(true);
+
+        // Only the requested class is populated, with the other classes in the file registered for later
+        AbstractClassMetaData cmd = mgr.getMetaDataForClass(Person.class, clr);
+        assertNotNull(cmd);
+        assertTrue(cmd.isPopulated());
+        assertFalse(mgr.unpopulatedClassNames.contains(Person.class.getName()));
+        assertTrue(mgr.unpopulatedClassNames.contains(Employee.class.getName()));
+        assertTrue(mgr.unpopulatedClassNames.contains(Address.class.getName()));
+
+        // Other classes of the file are populated when requested
+        AbstractClassMetaData addressCmd = mgr.getMetaDataForClass(Address.class, clr);
+        assertNotNull(addressCmd);
+        assertTrue(addressCmd.isPopulated());
+        assertNotNull(addressCmd.getMetaDataForMember("street"));
+    }
+
+    public void testSubclassesFoundWithLazyPopulation()
+    {
+        JDOMetaDataManager mgr = newMetaDataManager(true);
+        assertNotNull(mgr.getMetaDataForClass(Person.class, clr));
+
+        // Inheritance is only known once populated, so the pending classes are populated first
+        String[] subclassNames = mgr.getSubclassesForClass(Person.class.getName(), true);
+        assertNotNull(subclassNames);
+        assertTrue(Arrays.asList(subclassNames).contains(Employee.class.getName()));
+        assertTrue(mgr.unpopulatedClassNames.isEmpty());
+    }
+
+    public void testEagerPopulation()
+    {
+        JDOMetaDataManager mgr = newMetaDataManager(false);
+        assertNotNull(mgr.getMetaDataForClass(Person.class, clr));
+        assertTrue(mgr.unpopulatedClassNames.isEmpty());
+
+        String[] subclassNames = mgr.getSubclassesForClass(Person.class.getName(), true);
+        assertTrue(Arrays.asList(subclassNames).contains(Employee.class.getName()));
+    }
+
+    private JDOMetaDataManager newMetaDataManager(boolean lazy)
+    {
+        Map<String, Object> props = new HashMap<>();
+        props.put(JDOPropertyNames.PROPERTY_METADATA_LAZY_POPULATION, Boolean.toString(lazy));
+        PersistenceNucleusContextImpl nucCtx = new PersistenceNucleusContextImpl("JDO", props);
+        clr = nucCtx.getClassLoaderResolver(null);
+        return new JDOMetaDataManager(nucCtx);
+    }
+}
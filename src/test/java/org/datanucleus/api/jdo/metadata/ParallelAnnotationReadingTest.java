@@ -0,0 +1,149 @@
+/**********************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+Contributors:
+    ...
+**********************************************************************/
+package org.datanucleus.api.jdo.metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.ClassLoaderResolver;
+import org.datanucleus.PersistenceNucleusContextImpl;
+import org.datanucleus.metadata.AbstractClassMetaData;
+import org.datanucleus.metadata.FileMetaData;
+
+/**
+ * Tests for reading the annotations of persistence-unit classes in parallel ahead of loading them.
+ */
+public class ParallelAnnotationReadingTest extends TestCase
+{
+    @PersistenceCapable
+    public static class Product
+    {
+        @PrimaryKey
+        long id;
+
+        @Persistent
+        String name;
+    }
+
+    @PersistenceCapable
+    public static class Book extends Product
+    {
+        @Persistent
+        String isbn;
+    }
+
+    @PersistenceCapable
+    public static class Supplier
+    {
+        @PrimaryKey
+        long id;
+    }
+
+    /** Class without any JDO annotations. */
+    public static class Unannotated
+    {
+        long id;
+    }
+
+    private JDOMetaDataManager mgr;
+
+    private ClassLoaderResolver clr;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        PersistenceNucleusContextImpl nucCtx = new PersistenceNucleusContextImpl("JDO", new HashMap<>());
+        mgr = new JDOMetaDataManager(nucCtx);
+        clr = nucCtx.getClassLoaderResolver(null);
+    }
+
+    public void testPrepareAnnotations()
+    {
+        List<String> classNames = Arrays.asList(Product.class.getName(), Book.class.getName(), Supplier.class.getName(),
+            Unannotated.class.getName(), "org.datanucleus.NoSuchClass");
+        mgr.prepareAnnotationsForClasses(classNames, clr, 4);
+
+        // Only the annotated classes have MetaData, and unknown classes are left to be reported when loaded
+        assertEquals(3, mgr.preparedAnnotationMetaData.size());
+        assertNull(mgr.preparedAnnotationMetaData.get(Unannotated.class));
+        for (Class cls : new Class[] {Product.class, Book.class, Supplier.class})
+        {
+            FileMetaData filemd = mgr.preparedAnnotationMetaData.get(cls);
+            assertNotNull(filemd);
+            assertEquals(1, filemd.getNoOfPackages());
+            AbstractClassMetaData cmd = filemd.getPackage(0).getClass(0);
+            assertEquals(cls.getName(), cmd.getFullClassName());
+        }
+        assertNotNull(mgr.preparedAnnotationMetaData.get(Product.class).getPackage(0).getClass(0).getMetaDataForMember("name"));
+        assertNotNull(mgr.preparedAnnotationMetaData.get(Book.class).getPackage(0).getClass(0).getMetaDataForMember("isbn"));
+    }
+
+    public void testPreparedAnnotationsUsedOnLoad()
+    {
+        mgr.prepareAnnotationsForClasses(Arrays.asList(Product.class.getName(), Supplier.class.getName()), clr, 2);
+        FileMetaData preparedFilemd = mgr.preparedAnnotationMetaData.get(Product.class);
+
+        // Loading the class takes the MetaData read ahead, rather than reading the annotations again
+        assertSame(preparedFilemd, mgr.loadAnnotationsForClass(Product.class, clr, false, false));
+        assertNull(mgr.preparedAnnotationMetaData.get(Product.class));
+
+        // Class that wasn't read ahead is read as normal
+        FileMetaData filemd = mgr.loadAnnotationsForClass(Book.class, clr, false, false);
+        assertNotNull(filemd);
+        assertEquals(Book.class.getName(), filemd.getPackage(0).getClass(0).getFullClassName());
+
+        mgr.discardPreparedAnnotations();
+        assertTrue(mgr.preparedAnnotationMetaData.isEmpty());
+    }
+
+    public void testSameMetaDataAsSequential()
+    {
+        List<String> classNames = new ArrayList<>();
+        for (Class cls : new Class[] {Product.class, Book.class, Supplier.class})
+        {
+            classNames.add(cls.getName());
+        }
+        mgr.prepareAnnotationsForClasses(classNames, clr, 3);
+
+        PersistenceNucleusContextImpl nucCtx = new PersistenceNucleusContextImpl("JDO", new HashMap<>());
+        JDOMetaDataManager sequentialMgr = new JDOMetaDataManager(nucCtx);
+        for (Class cls : new Class[] {Product.class, Book.class, Supplier.class})
+        {
+            AbstractClassMetaData parallelCmd = mgr.preparedAnnotationMetaData.get(cls).getPackage(0).getClass(0);
+            AbstractClassMetaData sequentialCmd = sequentialMgr.loadAnnotationsForClass(cls, clr, false, false).getPackage(0).getClass(0);
+            assertEquals(sequentialCmd.getNoOfMembers(), parallelCmd.getNoOfMembers());
+            assertEquals(sequentialCmd.getFullClassName(), parallelCmd.getFullClassName());
+        }
+    }
+
+    public void testNothingPreparedWhenAnnotationsDisabled()
+    {
+        mgr.setAllowAnnotations(false);
+        mgr.prepareAnnotationsForClasses(Arrays.asList(Product.class.getName()), clr, 2);
+        assertTrue(mgr.preparedAnnotationMetaData.isEmpty());
+    }
+}
@@ -23,7 +23,10 @@ import junit.framework.TestCase;
 import org.datanucleus.NucleusContext;
 import org.datanucleus.PersistenceNucleusContextImpl;
 import org.datanucleus.api.jdo.metadata.JDOMetaDataManager;
+import org.datanucleus.metadata.ClassMetaData;
+import org.datanucleus.metadata.FileMetaData;
 import org.datanucleus.metadata.MetaData;
+import org.datanucleus.metadata.PackageMetaData;
 import org.datanucleus.metadata.xml.XmlMetaDataParser;
 
 public class JDOXmlMetaDataHandlerTest extends TestCase
@@ -44,4 +47,24 @@ public class JDOXmlMetaDataHandlerTest extends TestCase
         assertNotNull(md);
     }
 
+    public void testParseClassesShareAttributeValues()
+    {
+        NucleusContext nucCtx = new PersistenceNucleusContextImpl("JDO", null);
+        XmlMetaDataParser parser = new XmlMetaDataParser(new JDOMetaDataManager(nucCtx), nucCtx.getPluginManager(), true, true);
+        FileMetaData filemd = (FileMetaData) parser.parseXmlMetaDataURL(getClass().getResource("/org/datanucleus/api/jdo/metadata/xml/package3.jdo"), "jdo");
+        assertNotNull(filemd);
+        assertEquals(1, filemd.getNoOfPackages());
+
+        PackageMetaData pmd = filemd.getPackage(0);
+        assertEquals(2, pmd.getNoOfClasses());
+        ClassMetaData cmd1 = pmd.getClass(0);
+        ClassMetaData cmd2 = pmd.getClass(1);
+        assertEquals("Customer", cmd1.getName());
+        assertEquals("Supplier", cmd2.getName());
+        assertEquals(1, cmd1.getNoOfQueries());
+
+        // Repeated attribute values should be the same String instance
+        assertEquals("SALES", cmd1.getSchema());
+        assertSame(cmd1.getSchema(), cmd2.getSchema());
+    }
 }
@@ -0,0 +1,90 @@
+/******************************************************************
+Copyright (c) 2026 Andy Jefferson and others. All rights reserved.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ 
+
+Contributors:
+    ...
+*****************************************************************/
+package org.datanucleus.api.jdo.metadata.xml;
+
+import java.net.URL;
+
+import junit.framework.TestCase;
+
+import org.datanucleus.NucleusContext;
+import org.datanucleus.PersistenceNucleusContextImpl;
+import org.datanucleus.api.jdo.metadata.JDOMetaDataManager;
+import org.datanucleus.api.jdo.metadata.JDOXmlStreamMetaDataReader;
+import org.datanucleus.metadata.ClassMetaData;
+import org.datanucleus.metadata.FileMetaData;
+import org.datanucleus.metadata.PackageMetaData;
+import org.datanucleus.metadata.xml.XmlMetaDataParser;
+
+/**
+ * Tests for the streaming (StAX) reader of JDO XML MetaData, comparing against the SAX parse.
+ */
+public class JDOXmlStreamMetaDataReaderTest extends TestCase
+{
+    private static final String[] FILES = {"package1.jdo", "package2.jdo", "package3.jdo"};
+
+    public void testReadMatchesSaxParse()
+    {
+        NucleusContext nucCtx = new PersistenceNucleusContextImpl("JDO", null);
+        JDOMetaDataManager mmgr = new JDOMetaDataManager(nucCtx);
+        XmlMetaDataParser parser = new XmlMetaDataParser(mmgr, nucCtx.getPluginManager(), false, true);
+        JDOXmlStreamMetaDataReader reader = new JDOXmlStreamMetaDataReader(mmgr);
+
+        for (String file : FILES)
+        {
+            URL url = getClass().getResource("/org/datanucleus/api/jdo/metadata/xml/" + file);
+            FileMetaData saxFilemd = (FileMetaData) parser.parseXmlMetaDataURL(url, "jdo");
+            FileMetaData staxFilemd = reader.read(url);
+            assertEquals(file, saxFilemd.getType(), staxFilemd.getType());
+            assertEquals(file, saxFilemd.getNoOfPackages(), staxFilemd.getNoOfPackages());
+            for (int i = 0; i < saxFilemd.getNoOfPackages(); i++)
+            {
+                PackageMetaData saxPmd = saxFilemd.getPackage(i);
+                PackageMetaData staxPmd = staxFilemd.getPackage(i);
+                assertEquals(file, saxPmd.getName(), staxPmd.getName());
+                assertEquals(file, saxPmd.getNoOfClasses(), staxPmd.getNoOfClasses());
+                for (int j = 0; j < saxPmd.getNoOfClasses(); j++)
+                {
+                    ClassMetaData saxCmd = saxPmd.getClass(j);
+                    ClassMetaData staxCmd = staxPmd.getClass(j);
+                    assertEquals(file, saxCmd.getFullClassName(), staxCmd.getFullClassName());
+                    assertEquals(file, saxCmd.getSchema(), staxCmd.getSchema());
+                    assertEquals(file, saxCmd.isDetachable(), staxCmd.isDetachable());
+                    assertEquals(file, saxCmd.isRequiresExtent(), staxCmd.isRequiresExtent());
+                    assertEquals(file, saxCmd.getNoOfMembers(), staxCmd.getNoOfMembers());
+                    assertEquals(file, saxCmd.getNoOfQueries(), staxCmd.getNoOfQueries());
+                }
+            }
+        }
+    }
+
+    public void testReadInvalidRootElement()
+    {
+        NucleusContext nucCtx = new PersistenceNucleusContextImpl("JDO", null);
+        JDOXmlStreamMetaDataReader reader = new JDOXmlStreamMetaDataReader(new JDOMetaDataManager(nucCtx));
+        try
+        {
+            reader.read(getClass().getResource("/org/datanucleus/api/jdo/metadata/xml/persistence1.xml"));
+            fail("expected NucleusUserException");
+        }
+        catch (RuntimeException ex)
+        {
+            // expected
+        }
+    }
+}